@@ -0,0 +1,84 @@
+package at.hypercrawler.managerservice.benchmark;
+
+import at.hypercrawler.managerservice.event.AddressSuppliedMessage;
+import at.hypercrawler.managerservice.event.AddressSuppliedMessageCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading an address supply chunk as JSON, front coded and front coded plus deflated. The encoded sizes
+ * are printed once per trial, as they are what the broker and the consumers pay for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AddressSuppliedMessageBenchmark {
+
+    @Param({"10", "1000"})
+    public int addresses;
+
+    private ObjectMapper objectMapper;
+    private AddressSuppliedMessageCodec frontCoded;
+    private AddressSuppliedMessageCodec deflated;
+
+    private AddressSuppliedMessage message;
+    private byte[] json;
+    private byte[] frontCodedBytes;
+    private byte[] deflatedBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        frontCoded = new AddressSuppliedMessageCodec(-1);
+        deflated = new AddressSuppliedMessageCodec(0);
+        message = new AddressSuppliedMessage(UUID.randomUUID(), BenchmarkCrawlers.startUrls(addresses), 0, true);
+
+        json = objectMapper.writeValueAsBytes(message);
+        frontCodedBytes = frontCoded.encode(message);
+        deflatedBytes = deflated.encode(message);
+        System.out.printf("%n%d addresses: json %d bytes, front coded %d bytes, deflated %d bytes%n",
+                addresses, json.length, frontCodedBytes.length, deflatedBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public AddressSuppliedMessage readJson() throws IOException {
+        return objectMapper.readValue(json, AddressSuppliedMessage.class);
+    }
+
+    @Benchmark
+    public byte[] encodeFrontCoded() {
+        return frontCoded.encode(message);
+    }
+
+    @Benchmark
+    public AddressSuppliedMessage decodeFrontCoded() {
+        return frontCoded.decode(frontCodedBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeDeflated() {
+        return deflated.encode(message);
+    }
+
+    @Benchmark
+    public AddressSuppliedMessage decodeDeflated() {
+        return deflated.decode(deflatedBytes);
+    }
+}
@@ -0,0 +1,71 @@
+package at.hypercrawler.managerservice.benchmark;
+
+import at.hypercrawler.managerservice.domain.model.ConnectionHeader;
+import at.hypercrawler.managerservice.domain.model.ConnectionProxy;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerAction;
+import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.domain.model.CrawlerFilterOptions;
+import at.hypercrawler.managerservice.domain.model.CrawlerRequestOptions;
+import at.hypercrawler.managerservice.domain.model.CrawlerRobotOptions;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import at.hypercrawler.managerservice.domain.model.SupportedContentMediaType;
+import at.hypercrawler.managerservice.web.dto.CrawlerRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Crawlers shaped like production ones, with a configurable number of start urls spread over a few hundred hosts.
+ */
+final class BenchmarkCrawlers {
+
+    private BenchmarkCrawlers() {
+    }
+
+    static List<String> startUrls(int count) {
+        var startUrls = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            startUrls.add("https://www.shop-" + (i % 256) + ".example.com/products/category-" + (i % 32)
+                    + "/item-" + i + "?utm_source=newsletter&page=" + (i % 10));
+        }
+        return startUrls;
+    }
+
+    static CrawlerConfig config(int startUrls) {
+        return CrawlerConfig.builder()
+                .actions(List.of(CrawlerAction.builder()
+                        .contentTypesToMatch(List.of(SupportedContentMediaType.HTML))
+                        .pathsToMatch(List.of("https://www.example.com/products/**"))
+                        .selectorsToMatch(List.of(".products", "!.featured"))
+                        .indexName("products")
+                        .build()))
+                .indexPrefix("crawler_")
+                .requestOptions(CrawlerRequestOptions.builder()
+                        .requestTimeout(1000)
+                        .proxy(new ConnectionProxy("localhost", 8080))
+                        .retries(3)
+                        .headers(List.of(new ConnectionHeader("User-Agent", "Mozilla/5.0 (compatible)")))
+                        .build())
+                .startUrls(startUrls(startUrls))
+                .schedule("0 0 3 * * ?")
+                .robotOptions(CrawlerRobotOptions.builder()
+                        .ignoreRobotNoFollowTo(true)
+                        .ignoreRobotRules(true)
+                        .ignoreRobotNoIndex(true)
+                        .build())
+                .filterOptions(CrawlerFilterOptions.builder()
+                        .queryParameterExclusionPatterns(List.of("utm_*"))
+                        .siteExclusionPatterns(List.of("https://www.google.com/*"))
+                        .build())
+                .build();
+    }
+
+    static CrawlerRequest request(int startUrls) {
+        return new CrawlerRequest("Benchmark Crawler", config(startUrls));
+    }
+
+    static Crawler crawler(int startUrls) {
+        return new Crawler("Benchmark Crawler", CrawlerStatus.CREATED, config(startUrls));
+    }
+}
@@ -0,0 +1,108 @@
+package at.hypercrawler.managerservice.benchmark;
+
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.repository.CrawlerCodec;
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of crawlers from and to BSON, by the mapping converter of the reactive Mongo template and by
+ * {@link CrawlerCodec}. The converter only maps between crawlers and documents, the driver still has to turn those into
+ * bytes, so the {@code *Bytes} benchmarks compare both ways including that step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CrawlerBsonBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int startUrls;
+
+    private MappingMongoConverter converter;
+
+    private Codec<Document> documentCodec;
+
+    private Crawler crawler;
+    private Document document;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        var conversions = new MongoCustomConversions(List.of());
+        var mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        documentCodec = CodecRegistries.withUuidRepresentation(MongoClientSettings.getDefaultCodecRegistry(),
+                UuidRepresentation.JAVA_LEGACY).get(Document.class);
+
+        crawler = BenchmarkCrawlers.crawler(startUrls);
+        document = write();
+        bytes = codecWriteBytes();
+    }
+
+    @Benchmark
+    public Document write() {
+        var target = new Document();
+        converter.write(crawler, target);
+        return target;
+    }
+
+    @Benchmark
+    public Crawler read() {
+        return converter.read(Crawler.class, document);
+    }
+
+    @Benchmark
+    public byte[] converterWriteBytes() {
+        var output = new BasicOutputBuffer();
+        documentCodec.encode(new BsonBinaryWriter(output), write(), EncoderContext.builder().build());
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public Crawler converterReadBytes() {
+        var read = documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+        return converter.read(Crawler.class, read);
+    }
+
+    @Benchmark
+    public byte[] codecWriteBytes() {
+        var output = new BasicOutputBuffer();
+        CrawlerCodec.INSTANCE.encode(new BsonBinaryWriter(output), crawler, EncoderContext.builder().build());
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public Crawler codecReadBytes() {
+        return CrawlerCodec.INSTANCE.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+    }
+}
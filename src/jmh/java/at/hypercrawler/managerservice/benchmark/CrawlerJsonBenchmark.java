@@ -0,0 +1,66 @@
+package at.hypercrawler.managerservice.benchmark;
+
+import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.web.dto.CrawlerRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson reading and writing the request bodies of crawler writes, with the object mapper configured the way Spring
+ * Boot configures the codecs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CrawlerJsonBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int startUrls;
+
+    private ObjectMapper objectMapper;
+
+    private CrawlerRequest request;
+    private CrawlerConfig config;
+    private byte[] requestJson;
+    private byte[] configJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        request = BenchmarkCrawlers.request(startUrls);
+        config = request.config();
+        requestJson = objectMapper.writeValueAsBytes(request);
+        configJson = objectMapper.writeValueAsBytes(config);
+    }
+
+    @Benchmark
+    public byte[] writeRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public CrawlerRequest readRequest() throws IOException {
+        return objectMapper.readValue(requestJson, CrawlerRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeConfig() throws IOException {
+        return objectMapper.writeValueAsBytes(config);
+    }
+
+    @Benchmark
+    public CrawlerConfig readConfig() throws IOException {
+        return objectMapper.readValue(configJson, CrawlerConfig.class);
+    }
+}
@@ -0,0 +1,48 @@
+package at.hypercrawler.managerservice.benchmark;
+
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.web.controller.CrawlerRequestMapper;
+import at.hypercrawler.managerservice.web.controller.CrawlerResponseMapper;
+import at.hypercrawler.managerservice.web.dto.CrawlerRequest;
+import at.hypercrawler.managerservice.web.dto.CrawlerResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CrawlerMapperBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int startUrls;
+
+    private final CrawlerRequestMapper requestMapper = new CrawlerRequestMapper();
+    private final CrawlerResponseMapper responseMapper = new CrawlerResponseMapper();
+
+    private CrawlerRequest request;
+    private Crawler crawler;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkCrawlers.request(startUrls);
+        crawler = BenchmarkCrawlers.crawler(startUrls);
+    }
+
+    @Benchmark
+    public Crawler mapRequest() {
+        return requestMapper.apply(request);
+    }
+
+    @Benchmark
+    public CrawlerResponse mapResponse() {
+        return responseMapper.apply(crawler);
+    }
+}
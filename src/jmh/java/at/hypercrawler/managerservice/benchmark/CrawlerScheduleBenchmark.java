@@ -0,0 +1,64 @@
+package at.hypercrawler.managerservice.benchmark;
+
+import at.hypercrawler.managerservice.domain.model.CrawlerSchedule;
+import at.hypercrawler.managerservice.domain.service.CrawlerSchedules;
+import at.hypercrawler.managerservice.domain.validation.ScheduleValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Validation of schedules against the regular expression they used to be checked with, and the computation of their
+ * next run. The last schedule is invalid and makes the regular expression backtrack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CrawlerScheduleBenchmark {
+
+    private static final Pattern REGEX = Pattern.compile(
+            "^((((\\d+,)+\\d+|(\\d+(\\/|-|#)\\d+)|\\d+L?|\\*(\\/\\d+)?|L(-\\d+)?|\\?|[A-Z]{3}(-[A-Z]{3})?) ?){5,7})$");
+
+    @Param({"0 0 3 * * ?", "0 */15 9-17 * * MON-FRI", "0 0 0 1 1 ? 2099", "111111111111111111111111!"})
+    public String schedule;
+
+    private ScheduleValidator validator;
+    private CrawlerSchedule crawlerSchedule;
+    private long after;
+
+    @Setup
+    public void setUp() {
+        validator = new ScheduleValidator(new CrawlerSchedules());
+        crawlerSchedule = CrawlerSchedule.tryParse(schedule);
+        after = Instant.parse("2024-03-10T10:15:30Z").getEpochSecond();
+    }
+
+    @Benchmark
+    public boolean regexValidation() {
+        return REGEX.matcher(schedule).matches();
+    }
+
+    @Benchmark
+    public boolean compiledValidation() {
+        return validator.isValid(schedule, null);
+    }
+
+    @Benchmark
+    public CrawlerSchedule parse() {
+        return CrawlerSchedule.tryParse(schedule);
+    }
+
+    @Benchmark
+    public long nextFireEpochSecond() {
+        return crawlerSchedule == null ? CrawlerSchedule.NONE : crawlerSchedule.nextFireEpochSecond(after);
+    }
+}
@@ -0,0 +1,60 @@
+package at.hypercrawler.managerservice.benchmark;
+
+import at.hypercrawler.managerservice.domain.validation.CrawlerConfigValidator;
+import at.hypercrawler.managerservice.web.dto.CrawlerRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of a crawler request, as done for every {@code @Valid} request body, and the part of it spent in
+ * {@link CrawlerConfigValidator} on the lists and nested options of the config.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CrawlerValidationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int startUrls;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private CrawlerRequest request;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        request = BenchmarkCrawlers.request(startUrls);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CrawlerRequest>> validate() {
+        return validator.validate(request);
+    }
+
+    @Benchmark
+    public boolean validateConfig() {
+        return CrawlerConfigValidator.validate(request.config(), (path, message) -> {
+        });
+    }
+}
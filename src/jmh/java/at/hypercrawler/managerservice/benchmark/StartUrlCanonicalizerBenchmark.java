@@ -0,0 +1,40 @@
+package at.hypercrawler.managerservice.benchmark;
+
+import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.domain.service.StartUrlCanonicalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and canonicalization of the start urls, which every crawler write goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StartUrlCanonicalizerBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int startUrls;
+
+    private final StartUrlCanonicalizer canonicalizer = new StartUrlCanonicalizer();
+
+    private CrawlerConfig config;
+
+    @Setup
+    public void setUp() {
+        config = BenchmarkCrawlers.config(startUrls);
+    }
+
+    @Benchmark
+    public CrawlerConfig canonicalize() {
+        return canonicalizer.canonicalize(config);
+    }
+}
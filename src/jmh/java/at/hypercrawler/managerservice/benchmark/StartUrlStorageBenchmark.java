@@ -0,0 +1,80 @@
+package at.hypercrawler.managerservice.benchmark;
+
+import at.hypercrawler.managerservice.domain.model.CompactStartUrls;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.repository.CrawlerCodec;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storage forms of inline start urls: a plain array, front-coded and front-coded and deflated. Writing and reading
+ * go through {@link CrawlerCodec}, reading includes iterating all start urls as a start does. The stored document size
+ * of each form is printed on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StartUrlStorageBenchmark {
+
+    public enum Form {
+        PLAIN, FRONT_CODED, DEFLATED
+    }
+
+    @Param({"1000", "100000"})
+    public int startUrls;
+
+    @Param
+    public Form form;
+
+    private Crawler crawler;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        var plain = BenchmarkCrawlers.crawler(startUrls);
+        var urls = plain.config().startUrls();
+        List<String> stored = switch (form) {
+            case PLAIN -> urls;
+            case FRONT_CODED -> CompactStartUrls.of(urls, false);
+            case DEFLATED -> CompactStartUrls.of(urls, true);
+        };
+        crawler = plain.withConfig(plain.config().toBuilder().startUrls(stored).build());
+        bytes = write();
+        System.out.printf("%n%s document with %d start urls: %d bytes%n", form, startUrls, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] write() {
+        var output = new BasicOutputBuffer();
+        CrawlerCodec.INSTANCE.encode(new BsonBinaryWriter(output), crawler, EncoderContext.builder().build());
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public Crawler read() {
+        return CrawlerCodec.INSTANCE.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+    }
+
+    @Benchmark
+    public void readAndIterate(Blackhole blackhole) {
+        for (String startUrl : read().config().startUrls()) {
+            blackhole.consume(startUrl);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package at.hypercrawler.managerservice.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and response statuses of one endpoint. Recording is lock free, so it can be done from the event loops.
+ */
+class EndpointStats {
+
+    // statuses of requests that failed without a response
+    static final int TRANSPORT_ERROR = -1;
+
+    private final Recorder recorder = new Recorder(3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    void record(long latencyNanos, int status) {
+        recorder.recordValue(latencyNanos);
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Drops everything recorded so far, e.g. at the end of the warmup.
+     */
+    void reset() {
+        recorder.reset();
+        statuses.clear();
+    }
+
+    Result result(Duration elapsed) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        var counts = new TreeMap<Integer, Long>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return new Result(
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / (elapsed.toNanos() / (double) TimeUnit.SECONDS.toNanos(1)),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                counts);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+
+    record Result(long requests, double throughput, double p50Millis, double p99Millis, double p999Millis,
+                  double maxMillis, Map<Integer, Long> statuses) {
+
+        long serverErrors() {
+            return statuses.entrySet().stream()
+                    .filter(entry -> entry.getKey() == TRANSPORT_ERROR || entry.getKey() >= 500)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package at.hypercrawler.managerservice.load;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Heap, allocation and garbage collection figures of the JVM over a measured interval. The load generator runs in the
+ * same JVM as the application, so its allocations are included.
+ */
+final class JvmStats {
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Map<Long, Long> allocatedAtStart;
+    private long gcCountAtStart;
+    private long gcMillisAtStart;
+
+    void start() {
+        System.gc();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        allocatedAtStart = allocatedBytes();
+        gcCountAtStart = gcCount();
+        gcMillisAtStart = gcMillis();
+    }
+
+    Result stop(Duration elapsed) {
+        // threads that ended during the interval are missing, the event loops and workers doing the work live on
+        long allocated = 0;
+        for (var entry : allocatedBytes().entrySet()) {
+            allocated += entry.getValue() - allocatedAtStart.getOrDefault(entry.getKey(), 0L);
+        }
+        long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        long heapAfterRun = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        System.gc();
+        long liveHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+        double seconds = elapsed.toNanos() / 1_000_000_000d;
+        return new Result(mebibytes(peakHeap), mebibytes(heapAfterRun), mebibytes(liveHeap), mebibytes(allocated),
+                mebibytes(allocated) / seconds, gcCount() - gcCountAtStart, gcMillis() - gcMillisAtStart);
+    }
+
+    private Map<Long, Long> allocatedBytes() {
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        var allocated = new HashMap<Long, Long>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                allocated.put(ids[i], bytes[i]);
+            }
+        }
+        return allocated;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static double mebibytes(long bytes) {
+        return bytes / (1024d * 1024d);
+    }
+
+    record Result(double peakHeapMiB, double heapAfterRunMiB, double liveHeapAfterGcMiB, double allocatedMiB,
+                  double allocationRateMiBPerSecond, long gcCount, long gcMillis) {
+    }
+}
@@ -0,0 +1,52 @@
+package at.hypercrawler.managerservice.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from {@code loadtest.*} system properties.
+ *
+ * @param warmup       how long traffic is driven before anything is recorded
+ * @param duration     how long traffic is recorded
+ * @param concurrency  number of requests in flight at any time
+ * @param seedCrawlers number of crawlers created before the run, which the requests on a single crawler pick from
+ * @param startUrls    number of start urls of every created crawler
+ * @param mix          relative weight of every operation, e.g. {@code create=10,get=50,list=20,run=10,pause=10}
+ * @param reportDir    directory the results are written to
+ */
+record LoadTestSettings(Duration warmup, Duration duration, int concurrency, int seedCrawlers, int startUrls,
+                        Map<Operation, Integer> mix, Path reportDir) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+                Integer.getInteger("loadtest.concurrency", 64),
+                Integer.getInteger("loadtest.seedCrawlers", 1000),
+                Integer.getInteger("loadtest.startUrls", 10),
+                parseMix(System.getProperty("loadtest.mix", "create=10,get=50,list=20,run=10,pause=10")),
+                Path.of(System.getProperty("loadtest.reportDir", "build/reports/loadtest")));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        var weights = new EnumMap<Operation, Integer>(Operation.class);
+        for (String entry : mix.split(",")) {
+            var parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entry " + entry + " is not of the form operation=weight");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + parts[0] + " must not be negative");
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix " + mix + " has no operation with a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,282 @@
+package at.hypercrawler.managerservice.load;
+
+import at.hypercrawler.managerservice.domain.model.CrawlerAction;
+import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.domain.model.CrawlerFilterOptions;
+import at.hypercrawler.managerservice.domain.model.CrawlerRequestOptions;
+import at.hypercrawler.managerservice.domain.model.CrawlerRobotOptions;
+import at.hypercrawler.managerservice.domain.model.SupportedContentMediaType;
+import at.hypercrawler.managerservice.event.AddressSupplyPublisher;
+import at.hypercrawler.managerservice.web.dto.CrawlerRequest;
+import at.hypercrawler.managerservice.web.dto.CrawlerResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures what a single instance sustains: drives a weighted mix of crawler operations with a fixed number of
+ * requests in flight and reports latency percentiles and throughput per endpoint, heap and allocation figures and the
+ * number of address supply messages sent. Run it with {@code ./gradlew loadTest}, results are written to
+ * {@code build/reports/loadtest}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ImportAutoConfiguration(TestChannelBinderConfiguration.class)
+@Testcontainers
+class ManagerServiceLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ManagerServiceLoadTest.class);
+
+    private static final Duration MESSAGE_DRAIN_IDLE = Duration.ofSeconds(2);
+
+    @Container
+    private static final MongoDBContainer mongoContainer =
+            new MongoDBContainer(DockerImageName.parse("mongo:latest"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutputDestination output;
+
+    @DynamicPropertySource
+    static void mongoDbProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoContainer::getReplicaSetUrl);
+        // the test binder never confirms a publish
+        registry.add("hypercrawler.manager.outbox.await-confirms", () -> false);
+        // crawlers are only run by the load itself
+        registry.add("hypercrawler.manager.scheduler.enabled", () -> false);
+    }
+
+    @Test
+    void driveCrawlerTraffic() throws Exception {
+        var settings = LoadTestSettings.fromSystemProperties();
+        var connections = ConnectionProvider.builder("load-test")
+                .maxConnections(settings.concurrency())
+                .pendingAcquireMaxCount(-1)
+                .build();
+        var client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+        var body = objectMapper.writeValueAsBytes(crawlerRequest(settings.startUrls()));
+
+        var messages = new AtomicLong();
+        var draining = new AtomicBoolean(true);
+        var drain = new Thread(() -> {
+            while (draining.get()) {
+                if (output.receive(100, AddressSupplyPublisher.SUPPLY_ADDRESS_OUT) != null) {
+                    messages.incrementAndGet();
+                }
+            }
+        }, "load-test-messages");
+        drain.setDaemon(true);
+        drain.start();
+
+        try {
+            var crawlerIds = seed(client, body, settings);
+            var stats = new EnumMap<Operation, EndpointStats>(Operation.class);
+            for (Operation operation : Operation.values()) {
+                stats.put(operation, new EndpointStats());
+            }
+            var traffic = new Traffic(client, body, crawlerIds, settings.mix(), stats);
+
+            log.info("Warming up for {}", settings.warmup());
+            traffic.drive(settings.warmup(), settings.concurrency());
+            stats.values().forEach(EndpointStats::reset);
+
+            log.info("Recording for {} with {} requests in flight", settings.duration(), settings.concurrency());
+            var jvmStats = new JvmStats();
+            jvmStats.start();
+            messages.set(0);
+            long started = System.nanoTime();
+            traffic.drive(settings.duration(), settings.concurrency());
+            var elapsed = Duration.ofNanos(System.nanoTime() - started);
+            var jvm = jvmStats.stop(elapsed);
+            awaitMessagesDrained(messages);
+
+            var endpoints = new LinkedHashMap<String, EndpointStats.Result>();
+            stats.forEach((operation, endpointStats) -> endpoints.put(operation.endpoint(), endpointStats.result(elapsed)));
+            var report = new Report(settings, elapsed, endpoints, jvm, messages.get());
+            write(report);
+
+            assertThat(endpoints.values()).allSatisfy(result -> assertThat(result.serverErrors()).isZero());
+        } finally {
+            draining.set(false);
+            connections.dispose();
+        }
+    }
+
+    private List<UUID> seed(WebClient client, byte[] body, LoadTestSettings settings) {
+        log.info("Creating {} crawlers with {} start urls each", settings.seedCrawlers(), settings.startUrls());
+        return Flux.range(0, settings.seedCrawlers())
+                .flatMap(i -> client.post().uri("/crawlers").bodyValue(body).retrieve()
+                        .bodyToMono(CrawlerResponse.class)
+                        .map(CrawlerResponse::id), settings.concurrency())
+                .collectList()
+                .block();
+    }
+
+    private static void awaitMessagesDrained(AtomicLong messages) throws InterruptedException {
+        // address supplies are relayed after the run request returned, count them until no more arrive
+        long seen;
+        do {
+            seen = messages.get();
+            Thread.sleep(MESSAGE_DRAIN_IDLE.toMillis());
+        } while (messages.get() != seen);
+    }
+
+    private void write(Report report) throws Exception {
+        Files.createDirectories(report.settings().reportDir());
+        var json = report.settings().reportDir().resolve("results.json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(json.toFile(), report);
+        var text = report.settings().reportDir().resolve("results.txt");
+        Files.writeString(text, report.format());
+        log.info("Load test results written to {}\n{}", json.toAbsolutePath(), report.format());
+    }
+
+    private static CrawlerRequest crawlerRequest(int startUrls) {
+        var urls = new ArrayList<String>(startUrls);
+        for (int i = 0; i < startUrls; i++) {
+            urls.add("https://www.shop-" + (i % 256) + ".example.com/products/item-" + i);
+        }
+        var config = CrawlerConfig.builder()
+                .actions(List.of(CrawlerAction.builder()
+                        .contentTypesToMatch(List.of(SupportedContentMediaType.HTML))
+                        .pathsToMatch(List.of("https://www.example.com/products/**"))
+                        .selectorsToMatch(List.of(".products"))
+                        .indexName("load_test")
+                        .build()))
+                .indexPrefix("crawler_")
+                .requestOptions(CrawlerRequestOptions.builder().requestTimeout(1000).retries(3).build())
+                .startUrls(urls)
+                .robotOptions(CrawlerRobotOptions.builder()
+                        .ignoreRobotNoFollowTo(false)
+                        .ignoreRobotRules(false)
+                        .ignoreRobotNoIndex(false)
+                        .build())
+                .filterOptions(CrawlerFilterOptions.builder()
+                        .queryParameterExclusionPatterns(List.of("utm_*"))
+                        .siteExclusionPatterns(List.of())
+                        .build())
+                .build();
+        return new CrawlerRequest("Load Test Crawler", config);
+    }
+
+    /**
+     * Closed loop traffic: every slot sends its next request as soon as the previous one completed.
+     */
+    private record Traffic(WebClient client, byte[] body, List<UUID> crawlerIds, Map<Operation, Integer> mix,
+                           Map<Operation, EndpointStats> stats) {
+
+        void drive(Duration duration, int concurrency) {
+            var operations = new ArrayList<Operation>();
+            var cumulativeWeights = new ArrayList<Integer>();
+            int total = 0;
+            for (var entry : mix.entrySet()) {
+                if (entry.getValue() > 0) {
+                    total += entry.getValue();
+                    operations.add(entry.getKey());
+                    cumulativeWeights.add(total);
+                }
+            }
+            int totalWeight = total;
+
+            Flux.range(0, concurrency)
+                    .flatMap(slot -> Mono.defer(() -> {
+                        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+                        int index = 0;
+                        while (cumulativeWeights.get(index) <= pick) {
+                            index++;
+                        }
+                        return timed(operations.get(index));
+                    }).repeat(), concurrency)
+                    .takeUntilOther(Mono.delay(duration))
+                    .blockLast();
+        }
+
+        private Mono<Void> timed(Operation operation) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return send(operation)
+                        .onErrorReturn(EndpointStats.TRANSPORT_ERROR)
+                        .doOnNext(status -> stats.get(operation).record(System.nanoTime() - start, status));
+            }).then();
+        }
+
+        private Mono<Integer> send(Operation operation) {
+            WebClient.RequestHeadersSpec<?> request = switch (operation) {
+                case CREATE -> client.post().uri("/crawlers").bodyValue(body);
+                case GET -> client.get().uri("/crawlers/{uuid}", randomCrawlerId());
+                case LIST -> client.get().uri("/crawlers?limit={limit}", 50);
+                case RUN -> client.put().uri("/crawlers/{uuid}/run", randomCrawlerId());
+                case PAUSE -> client.put().uri("/crawlers/{uuid}/pause", randomCrawlerId());
+            };
+            // the body is read to the end but not decoded, the latency covers the full response
+            return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()));
+        }
+
+        private UUID randomCrawlerId() {
+            return crawlerIds.get(ThreadLocalRandom.current().nextInt(crawlerIds.size()));
+        }
+    }
+
+    record Report(LoadTestSettings settings, Duration elapsed, Map<String, EndpointStats.Result> endpoints,
+                  JvmStats.Result jvm, long addressSupplyMessages) {
+
+        String format() {
+            var text = new StringBuilder();
+            text.append(String.format("%-26s %10s %10s %10s %10s %10s %10s  %s%n",
+                    "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "statuses"));
+            endpoints.forEach((endpoint, result) -> text.append(String.format(
+                    "%-26s %10d %10.1f %10.2f %10.2f %10.2f %10.2f  %s%n", endpoint, result.requests(),
+                    result.throughput(), result.p50Millis(), result.p99Millis(), result.p999Millis(),
+                    result.maxMillis(), result.statuses())));
+            text.append(String.format("heap: peak %.1f MiB, after run %.1f MiB, live after gc %.1f MiB%n",
+                    jvm.peakHeapMiB(), jvm.heapAfterRunMiB(), jvm.liveHeapAfterGcMiB()));
+            text.append(String.format("allocated: %.1f MiB (%.1f MiB/s), gc: %d collections in %d ms%n",
+                    jvm.allocatedMiB(), jvm.allocationRateMiBPerSecond(), jvm.gcCount(), jvm.gcMillis()));
+            text.append(String.format("%s messages: %d%n", AddressSupplyPublisher.SUPPLY_ADDRESS_OUT,
+                    addressSupplyMessages));
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package at.hypercrawler.managerservice.load;
+
+/**
+ * Operations the load test drives, one per endpoint.
+ */
+enum Operation {
+
+    CREATE("POST /crawlers"),
+    GET("GET /crawlers/{uuid}"),
+    LIST("GET /crawlers"),
+    RUN("PUT /crawlers/{uuid}/run"),
+    PAUSE("PUT /crawlers/{uuid}/pause");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+}
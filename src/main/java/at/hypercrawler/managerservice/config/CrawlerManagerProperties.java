@@ -0,0 +1,194 @@
+package at.hypercrawler.managerservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "hypercrawler.manager")
+public record CrawlerManagerProperties(
+
+        @DefaultValue
+        Listing listing,
+
+        @DefaultValue
+        Batch batch,
+
+        @DefaultValue
+        FanOut fanOut,
+
+        @DefaultValue
+        Outbox outbox,
+
+        @DefaultValue
+        Cache cache,
+
+        @DefaultValue
+        StatusStream statusStream,
+
+        @DefaultValue
+        Scheduler scheduler,
+
+        @DefaultValue
+        Metrics metrics,
+
+        @DefaultValue
+        Publisher publisher,
+
+        @DefaultValue
+        SharedConfig sharedConfig,
+
+        @DefaultValue
+        Idempotency idempotency,
+
+        @DefaultValue
+        Seeds seeds,
+
+        @DefaultValue
+        StartUrls startUrls
+
+) {
+
+    /**
+     * Paging limits for listing crawlers and the Mongo cursor batch size used while streaming them.
+     */
+    public record Listing(
+            @DefaultValue("100") int defaultPageSize,
+            @DefaultValue("1000") int maxPageSize,
+            @DefaultValue("200") int cursorBatchSize
+    ) {
+    }
+
+    /**
+     * Number of crawlers of a batch request that are written to Mongo together.
+     */
+    public record Batch(
+            @DefaultValue("500") int chunkSize
+    ) {
+    }
+
+    /**
+     * Bounds of a single address-supply chunk and the number of chunks of a crawler that are sent concurrently.
+     */
+    public record FanOut(
+            @DefaultValue("1000") int maxUrlsPerChunk,
+            @DefaultValue("262144") long maxBytesPerChunk,
+            @DefaultValue("32") int publishConcurrency
+    ) {
+    }
+
+    /**
+     * Polling, leasing and retry behaviour of the relay that publishes the address supplies of started crawlers.
+     */
+    public record Outbox(
+            @DefaultValue("1s") Duration pollInterval,
+            @DefaultValue("50") int batchSize,
+            @DefaultValue("4") int concurrency,
+            @DefaultValue("1m") Duration lease,
+            @DefaultValue("1s") Duration initialBackoff,
+            @DefaultValue("5m") Duration maxBackoff,
+            @DefaultValue("true") boolean awaitConfirms,
+            @DefaultValue("10s") Duration confirmTimeout
+    ) {
+    }
+
+    /**
+     * Bounds of the crawler cache, its weight is an estimate of the retained bytes, and the delay before a failed
+     * change stream that keeps it coherent is reopened.
+     */
+    public record Cache(
+            @DefaultValue("67108864") long maximumWeight,
+            @DefaultValue("10m") Duration expireAfterWrite,
+            @DefaultValue("5s") Duration reconnectInterval
+    ) {
+    }
+
+    /**
+     * Number of status changes kept for resuming subscribers, changes buffered per subscriber before it is dropped,
+     * the interval of keep-alive comments and the delay before a failed change stream is reopened.
+     */
+    public record StatusStream(
+            @DefaultValue("1024") int replaySize,
+            @DefaultValue("256") int subscriberBuffer,
+            @DefaultValue("15s") Duration heartbeatInterval,
+            @DefaultValue("5s") Duration reconnectInterval
+    ) {
+    }
+
+    /**
+     * Tick interval of the scheduler, the number of due runs read and fired concurrently per tick, and the lease that
+     * keeps other replicas from firing a run while it is being started.
+     */
+    public record Scheduler(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("1s") Duration tickInterval,
+            @DefaultValue("500") int batchSize,
+            @DefaultValue("8") int concurrency,
+            @DefaultValue("1m") Duration lease
+    ) {
+    }
+
+    /**
+     * Interval at which the crawler counts behind the status gauges are aggregated, so scrapes never hit Mongo.
+     */
+    public record Metrics(
+            @DefaultValue("30s") Duration statusCountInterval
+    ) {
+    }
+
+    /**
+     * Capacity of the queue address supply messages wait in to be sent, the number of messages sent per batch, how
+     * long a batch waits to fill up and the number of threads sending batches. Messages are sent with the given content
+     * type, {@code application/x-address-supplied} selects the binary form, whose bodies are deflated from the
+     * compression threshold in bytes on, negative to never deflate.
+     */
+    public record Publisher(
+            @DefaultValue("1024") int queueCapacity,
+            @DefaultValue("64") int batchSize,
+            @DefaultValue("5ms") Duration batchLinger,
+            @DefaultValue("2") int threads,
+            @DefaultValue("application/json") String contentType,
+            @DefaultValue("1024") int compressionThreshold
+    ) {
+    }
+
+    /**
+     * Number of shared configs kept in memory. Shared configs never change, so they are kept until evicted by size.
+     */
+    public record SharedConfig(
+            @DefaultValue("10000") long maximumSize
+    ) {
+    }
+
+    /**
+     * Time a create request is remembered by its idempotency key, retries with the same key within it return the
+     * crawler of the first request. A key that is still claimed after the claim timeout without its crawler having been
+     * created was left by an abandoned request, and is taken over by the next request with that key.
+     */
+    public record Idempotency(
+            @DefaultValue("24h") Duration keyTtl,
+            @DefaultValue("1m") Duration claimTimeout
+    ) {
+    }
+
+    /**
+     * Number of uploaded start urls stored per seed document, seed documents inserted per bulk write, and the Mongo
+     * cursor batch size, in documents, seeds are read with when a crawler is started.
+     */
+    public record Seeds(
+            @DefaultValue("1000") int chunkSize,
+            @DefaultValue("16") int insertBatchSize,
+            @DefaultValue("4") int cursorBatchSize
+    ) {
+    }
+
+    /**
+     * Number of start urls from which on a config keeps them in compact form, negative to never, and whether the
+     * compact form is deflated.
+     */
+    public record StartUrls(
+            @DefaultValue("1000") int compactThreshold,
+            @DefaultValue("true") boolean deflate
+    ) {
+    }
+}
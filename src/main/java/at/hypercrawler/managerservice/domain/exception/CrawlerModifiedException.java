@@ -0,0 +1,13 @@
+package at.hypercrawler.managerservice.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+public class CrawlerModifiedException
+        extends ResponseStatusException {
+    public CrawlerModifiedException(UUID uuid) {
+        super(HttpStatus.PRECONDITION_FAILED, "Crawler with id " + uuid + " has been modified in the meantime");
+    }
+}
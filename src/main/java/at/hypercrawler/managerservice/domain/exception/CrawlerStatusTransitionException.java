@@ -0,0 +1,14 @@
+package at.hypercrawler.managerservice.domain.exception;
+
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+public class CrawlerStatusTransitionException
+        extends ResponseStatusException {
+    public CrawlerStatusTransitionException(UUID uuid, CrawlerStatus status) {
+        super(HttpStatus.CONFLICT, "Crawler with id " + uuid + " could not be transitioned to " + status);
+    }
+}
@@ -0,0 +1,11 @@
+package at.hypercrawler.managerservice.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class IdempotencyKeyInUseException
+        extends ResponseStatusException {
+    public IdempotencyKeyInUseException(String key) {
+        super(HttpStatus.CONFLICT, "Request with idempotency key " + key + " is still being processed");
+    }
+}
@@ -0,0 +1,11 @@
+package at.hypercrawler.managerservice.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class IdempotencyKeyReusedException
+        extends ResponseStatusException {
+    public IdempotencyKeyReusedException(String key) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency key " + key + " was used for a different request");
+    }
+}
@@ -0,0 +1,11 @@
+package at.hypercrawler.managerservice.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class InvalidContinuationTokenException
+        extends ResponseStatusException {
+    public InvalidContinuationTokenException(String token) {
+        super(HttpStatus.BAD_REQUEST, "Continuation token " + token + " is not valid");
+    }
+}
@@ -0,0 +1,11 @@
+package at.hypercrawler.managerservice.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class InvalidFilterPatternException
+        extends ResponseStatusException {
+    public InvalidFilterPatternException(String reason) {
+        super(HttpStatus.BAD_REQUEST, "Filter patterns are not valid: " + reason);
+    }
+}
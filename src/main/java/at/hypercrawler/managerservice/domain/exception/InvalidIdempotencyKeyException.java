@@ -0,0 +1,11 @@
+package at.hypercrawler.managerservice.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class InvalidIdempotencyKeyException
+        extends ResponseStatusException {
+    public InvalidIdempotencyKeyException(String key) {
+        super(HttpStatus.BAD_REQUEST, "Idempotency key " + key + " is not valid");
+    }
+}
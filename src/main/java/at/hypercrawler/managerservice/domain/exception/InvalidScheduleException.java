@@ -0,0 +1,11 @@
+package at.hypercrawler.managerservice.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class InvalidScheduleException
+        extends ResponseStatusException {
+    public InvalidScheduleException(String schedule) {
+        super(HttpStatus.BAD_REQUEST, "Schedule " + schedule + " is not valid");
+    }
+}
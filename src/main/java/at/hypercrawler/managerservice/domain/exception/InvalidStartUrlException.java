@@ -0,0 +1,11 @@
+package at.hypercrawler.managerservice.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class InvalidStartUrlException
+        extends ResponseStatusException {
+    public InvalidStartUrlException(String startUrl) {
+        super(HttpStatus.BAD_REQUEST, "Start-Url " + startUrl + " is not valid");
+    }
+}
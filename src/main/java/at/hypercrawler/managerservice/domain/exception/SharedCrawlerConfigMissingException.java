@@ -0,0 +1,14 @@
+package at.hypercrawler.managerservice.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+public class SharedCrawlerConfigMissingException
+        extends ResponseStatusException {
+    public SharedCrawlerConfigMissingException(UUID uuid, String sharedConfigId) {
+        super(HttpStatus.INTERNAL_SERVER_ERROR, "Crawler with id " + uuid + " references the missing shared config "
+                + sharedConfigId);
+    }
+}
@@ -0,0 +1,11 @@
+package at.hypercrawler.managerservice.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class UnknownCrawlerFieldException
+        extends ResponseStatusException {
+    public UnknownCrawlerFieldException(String field) {
+        super(HttpStatus.BAD_REQUEST, "Crawler field " + field + " is not known");
+    }
+}
@@ -0,0 +1,24 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Outbox entry embedded in a started crawler until its start addresses have been relayed to the broker.
+ * It is written by the same update that starts the crawler, so a started crawler can never miss its addresses.
+ */
+public record AddressSupplyRequest(
+
+        Instant requestedAt,
+
+        int attempts,
+
+        Instant nextAttemptAt,
+
+        Instant lockedUntil
+
+) {
+
+    public static AddressSupplyRequest requestedAt(Instant now) {
+        return new AddressSupplyRequest(now, 0, now, null);
+    }
+}
@@ -0,0 +1,325 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Start urls kept in the compact form they are stored in. The urls are front-coded in the order they were given in:
+ * each one only holds the bytes that differ from the one before, which for lists grouped by site, as sitemaps and
+ * exports are, leaves little more than the last path segment. The urls are optionally deflated as well, which also
+ * catches what is shared between urls that are not next to each other.
+ * <p>
+ * Nothing is decoded up front. The list is meant to be iterated, which decodes one url after another; a deflated list
+ * is inflated into its front-coded form first, so no iterator holds on to an inflater. Positional access decodes the
+ * whole list on first use and keeps it.
+ * <p>
+ * Layout: a flags byte, the number of urls as varint and the urls, deflated if flagged. Per url the length of the
+ * prefix shared with the url before, the length of the rest and the rest. Lengths are varints, strings are UTF-8.
+ * Lists written before the order was kept are flagged as grouped: their urls are grouped by origin and sorted within
+ * it, each group being its origin, the number of its urls and its front-coded paths. They are read in that order.
+ */
+public final class CompactStartUrls
+        extends AbstractList<String> {
+
+    private static final int DEFLATED = 1;
+    private static final int IN_ORDER = 2;
+
+    private final byte[] encoded;
+    private final int size;
+    private final int bodyOffset;
+    private volatile String[] decoded;
+
+    private CompactStartUrls(byte[] encoded) {
+        if (encoded.length < 2 || (encoded[0] & ~(DEFLATED | IN_ORDER)) != 0) {
+            throw new IllegalArgumentException("Not a compact start url list");
+        }
+        this.encoded = encoded;
+        var header = new Input(encoded, 1, encoded.length);
+        this.size = header.readVarint();
+        this.bodyOffset = header.position;
+    }
+
+    /**
+     * Encodes the given urls, keeping their order.
+     *
+     * @param deflate whether to deflate the urls, which pays off for large lists
+     */
+    public static CompactStartUrls of(Collection<String> urls, boolean deflate) {
+        var bytes = new ByteArrayOutputStream(Math.max(64, urls.size() * 16));
+        try {
+            bytes.write((deflate ? DEFLATED : 0) | IN_ORDER);
+            writeVarint(bytes, urls.size());
+            try (OutputStream body = deflate ? new DeflaterOutputStream(bytes) : bytes) {
+                byte[] previous = new byte[0];
+                for (String url : urls) {
+                    byte[] current = Objects.requireNonNull(url, "start url").getBytes(StandardCharsets.UTF_8);
+                    int shared = Arrays.mismatch(previous, current);
+                    if (shared < 0) {
+                        shared = current.length;
+                    }
+                    writeVarint(body, shared);
+                    writeVarint(body, current.length - shared);
+                    body.write(current, shared, current.length - shared);
+                    previous = current;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CompactStartUrls(bytes.toByteArray());
+    }
+
+    /**
+     * Wraps urls in their encoded form, as returned by {@link #encoded()}.
+     */
+    public static CompactStartUrls decode(byte[] encoded) {
+        return new CompactStartUrls(encoded);
+    }
+
+    /**
+     * The encoded form, which must not be modified.
+     */
+    public byte[] encoded() {
+        return encoded;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String get(int index) {
+        Objects.checkIndex(index, size);
+        var urls = decoded;
+        if (urls == null) {
+            // decoding from the start on every call would make a loop over the indexes quadratic
+            urls = new String[size];
+            var iterator = iterator();
+            for (int i = 0; i < size; i++) {
+                urls[i] = iterator.next();
+            }
+            decoded = urls;
+        }
+        return urls[index];
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        if (size == 0) {
+            return Collections.emptyIterator();
+        }
+        var body = (encoded[0] & DEFLATED) != 0
+                ? new Input(inflate(), 0, -1)
+                : new Input(encoded, bodyOffset, encoded.length);
+        return (encoded[0] & IN_ORDER) != 0 ? new UrlIterator(body) : new GroupedUrlIterator(body);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof CompactStartUrls other && Arrays.equals(encoded, other.encoded)) {
+            return true;
+        }
+        if (!(o instanceof List<?> other) || other.size() != size) {
+            return false;
+        }
+        // the inherited implementation would go through positional access
+        Iterator<?> those = other.iterator();
+        for (String url : this) {
+            if (!url.equals(those.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    /**
+     * Inflates the urls into their front-coded form, releasing the inflater before anything is read.
+     */
+    private byte[] inflate() {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(encoded, bodyOffset, encoded.length - bodyOffset);
+            var inflated = new ByteArrayOutputStream(Math.max(64, (encoded.length - bodyOffset) * 4));
+            var buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Corrupt compact start url list");
+                }
+                inflated.write(buffer, 0, n);
+            }
+            return inflated.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compact start url list", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Decodes urls front-coded one after another.
+     */
+    private final class UrlIterator
+            implements Iterator<String> {
+        private final Input input;
+        private int remaining = size;
+        private byte[] url = new byte[256];
+        private int length;
+
+        private UrlIterator(Input input) {
+            this.input = input;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public String next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            int shared = input.readVarint();
+            int rest = input.readVarint();
+            if (shared > length) {
+                throw new IllegalStateException("Corrupt compact start url list");
+            }
+            url = ensureCapacity(url, shared + rest);
+            input.readFully(url, shared, rest);
+            length = shared + rest;
+            remaining--;
+            return new String(url, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Decodes urls grouped by origin, each group holding its front-coded paths.
+     */
+    private final class GroupedUrlIterator
+            implements Iterator<String> {
+        private final Input input;
+        private int remaining = size;
+        private int groupRemaining;
+        private byte[] url = new byte[256];
+        private int originLength;
+        private int pathLength;
+
+        private GroupedUrlIterator(Input input) {
+            this.input = input;
+            // the number of groups, they are read until all urls are
+            input.readVarint();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public String next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            while (groupRemaining == 0) {
+                originLength = input.readVarint();
+                url = ensureCapacity(url, originLength);
+                input.readFully(url, 0, originLength);
+                groupRemaining = input.readVarint();
+                pathLength = 0;
+            }
+            int shared = input.readVarint();
+            int rest = input.readVarint();
+            if (shared > pathLength) {
+                throw new IllegalStateException("Corrupt compact start url list");
+            }
+            url = ensureCapacity(url, originLength + shared + rest);
+            input.readFully(url, originLength + shared, rest);
+            pathLength = shared + rest;
+
+            groupRemaining--;
+            remaining--;
+            return new String(url, 0, originLength + pathLength, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] ensureCapacity(byte[] buffer, int length) {
+        return buffer.length < length ? Arrays.copyOf(buffer, Math.max(length, buffer.length * 2)) : buffer;
+    }
+
+    /**
+     * Reads varints and bytes from the front-coded urls.
+     */
+    private static final class Input {
+        private final byte[] bytes;
+        private final int limit;
+        private int position;
+
+        /**
+         * @param limit end of the urls, {@code -1} for the end of the array
+         */
+        private Input(byte[] bytes, int offset, int limit) {
+            this.bytes = bytes;
+            this.position = offset;
+            this.limit = limit < 0 ? bytes.length : limit;
+        }
+
+        int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Corrupt compact start url list");
+        }
+
+        void readFully(byte[] target, int offset, int length) {
+            if (length < 0 || length > limit - position) {
+                throw new IllegalStateException("Corrupt compact start url list");
+            }
+            System.arraycopy(bytes, position, target, offset, length);
+            position += length;
+        }
+
+        private int readByte() {
+            if (position == limit) {
+                throw new IllegalStateException("Corrupt compact start url list");
+            }
+            return bytes[position++];
+        }
+    }
+}
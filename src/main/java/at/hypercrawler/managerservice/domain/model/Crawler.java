@@ -4,12 +4,20 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Document(value = "crawler")
+@CompoundIndex(name = "updatedAt_id", def = "{'updatedAt': 1, '_id': 1}")
+@CompoundIndex(name = "status_updatedAt_id", def = "{'status': 1, 'updatedAt': 1, '_id': 1}")
+@CompoundIndex(name = "name_updatedAt_id", def = "{'name': 1, 'updatedAt': 1, '_id': 1}")
+@CompoundIndex(name = "indexPrefix_updatedAt_id", def = "{'config.indexPrefix': 1, 'updatedAt': 1, '_id': 1}")
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': 1, '_id': 1}")
+@CompoundIndex(name = "pendingAddressSupply", def = "{'pendingAddressSupply.nextAttemptAt': 1}", sparse = true)
+@CompoundIndex(name = "nextRunAt", def = "{'nextRunAt': 1}", sparse = true)
 public record Crawler(
 
         @Id
@@ -28,12 +36,32 @@ public record Crawler(
         Instant updatedAt,
 
         @Version
-        int version
+        int version,
+
+        AddressSupplyRequest pendingAddressSupply,
+
+        Instant nextRunAt,
+
+        String sharedConfigId
 
 ) {
 
     public Crawler(String name, CrawlerStatus status, CrawlerConfig config) {
-        this(UUID.randomUUID(), name, config, status, Instant.now(), Instant.now(), 0);
+        this(UUID.randomUUID(), name, config, status, Instant.now(), Instant.now(), 0, null, null, null);
+    }
+
+    public Crawler withConfig(CrawlerConfig config) {
+        return withConfig(config, sharedConfigId);
+    }
+
+    public Crawler withConfig(CrawlerConfig config, String sharedConfigId) {
+        return new Crawler(id, name, config, status, createdAt, updatedAt, version, pendingAddressSupply, nextRunAt,
+                sharedConfigId);
+    }
+
+    public Crawler withNextRunAt(Instant nextRunAt) {
+        return new Crawler(id, name, config, status, createdAt, updatedAt, version, pendingAddressSupply, nextRunAt,
+                sharedConfigId);
     }
 
 }
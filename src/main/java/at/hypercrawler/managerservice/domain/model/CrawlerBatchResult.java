@@ -0,0 +1,21 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a batch operation for a single crawler.
+ */
+public record CrawlerBatchResult(UUID id, HttpStatusCode status, String message) {
+
+    public static CrawlerBatchResult succeeded(UUID id, HttpStatus status) {
+        return new CrawlerBatchResult(id, status, null);
+    }
+
+    public static CrawlerBatchResult failed(UUID id, ResponseStatusException exception) {
+        return new CrawlerBatchResult(id, exception.getStatusCode(), exception.getReason());
+    }
+}
@@ -1,33 +1,41 @@
 package at.hypercrawler.managerservice.domain.model;
 
-import jakarta.validation.Valid;
+import at.hypercrawler.managerservice.domain.repository.StartUrlsConverter;
+import at.hypercrawler.managerservice.domain.validation.ValidCrawlerConfig;
+import at.hypercrawler.managerservice.domain.validation.ValidSchedule;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 import lombok.Builder;
+import org.springframework.data.convert.ValueConverter;
 
 import java.util.List;
 
-@Builder
+/**
+ * The list elements and nested options are checked by {@link ValidCrawlerConfig} instead of constraints of their own.
+ * Start urls may be {@link CompactStartUrls}, which are stored in their encoded form.
+ */
+@Builder(toBuilder = true)
+@ValidCrawlerConfig
 public record CrawlerConfig(
 
         @NotBlank(message = "Index prefix could not be blank") String indexPrefix,
 
-        @Pattern(regexp = "^((((\\d+,)+\\d+|(\\d+(\\/|-|#)\\d+)|\\d+L?|\\*(\\/\\d+)?|L(-\\d+)?|\\?|[A-Z]{3}(-[A-Z]{3})?) ?){5,7})$", message = "Schedule is not valid")
+        @ValidSchedule
         String schedule,
 
         @NotNull(message = "Start-Urls could not be null")
-        List<@NotBlank(message = "Start-Url could not be blank") String> startUrls,
+        @ValueConverter(StartUrlsConverter.class)
+        List<String> startUrls,
 
-        @Valid CrawlerFilterOptions filterOptions,
+        CrawlerFilterOptions filterOptions,
 
         @NotNull(message = "Request options could not be null")
-        @Valid CrawlerRequestOptions requestOptions,
+        CrawlerRequestOptions requestOptions,
 
-        @Valid CrawlerRobotOptions robotOptions,
+        CrawlerRobotOptions robotOptions,
 
         @NotNull(message = "Actions could not be null")
-        List<@NotNull(message = "Action could not be null") CrawlerAction> actions
+        List<CrawlerAction> actions
 
 ) {
 }
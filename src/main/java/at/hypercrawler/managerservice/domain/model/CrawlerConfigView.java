@@ -0,0 +1,12 @@
+package at.hypercrawler.managerservice.domain.model;
+
+/**
+ * Projection of a crawler that only reads its config, the reference to the shared part of it and the version it has
+ * the config in from Mongo.
+ */
+public record CrawlerConfigView(CrawlerConfig config, String sharedConfigId, int version) {
+
+    public static CrawlerConfigView of(Crawler crawler) {
+        return new CrawlerConfigView(crawler.config(), crawler.sharedConfigId(), crawler.version());
+    }
+}
@@ -0,0 +1,57 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import at.hypercrawler.managerservice.domain.exception.InvalidContinuationTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the {@link CrawlerOrder} of a search that is handed out to clients as an opaque continuation
+ * token.
+ *
+ * @param time the update time, or the creation time in {@link CrawlerOrder#CREATED}
+ * @param name the name in {@link CrawlerOrder#NAME}, {@code null} otherwise
+ */
+public record CrawlerCursor(CrawlerOrder order, Instant time, UUID id, String name) {
+
+    private static final char SEPARATOR = ':';
+
+    public static CrawlerCursor of(CrawlerOrder order, Crawler crawler) {
+        return switch (order) {
+            case UPDATED -> new CrawlerCursor(order, crawler.updatedAt(), crawler.id(), null);
+            case CREATED -> new CrawlerCursor(order, crawler.createdAt(), crawler.id(), null);
+            case NAME -> new CrawlerCursor(order, crawler.updatedAt(), crawler.id(), crawler.name());
+        };
+    }
+
+    /**
+     * Decodes a continuation token of a search in the given order. Tokens of a search in another order are rejected,
+     * their position means nothing in this one.
+     */
+    public static CrawlerCursor decode(String token, CrawlerOrder order) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var parts = decoded.split(String.valueOf(SEPARATOR), 4);
+            var cursor = new CrawlerCursor(CrawlerOrder.valueOf(parts[0]), Instant.ofEpochMilli(Long.parseLong(parts[1])),
+                    UUID.fromString(parts[2]), parts.length > 3 ? parts[3] : null);
+            if (cursor.order() != order || (order == CrawlerOrder.NAME) != (cursor.name() != null)) {
+                throw new InvalidContinuationTokenException(token);
+            }
+            return cursor;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidContinuationTokenException(token);
+        }
+    }
+
+    public String encode() {
+        // Mongo stores dates with millisecond precision, so that is all the cursor needs to carry; the name goes last
+        // as it may contain the separator
+        var raw = order.name() + SEPARATOR + time.toEpochMilli() + SEPARATOR + id + (name == null ? "" : SEPARATOR + name);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,39 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import at.hypercrawler.managerservice.domain.exception.UnknownCrawlerFieldException;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Top-level crawler properties that can be selected as a sparse fieldset.
+ */
+@Getter
+public enum CrawlerField {
+    ID("id"), NAME("name"), STATUS("status"), CONFIG("config"), CREATED_AT("createdAt"), UPDATED_AT("updatedAt"),
+    VERSION("version");
+
+    private final String property;
+
+    CrawlerField(String property) {
+        this.property = property;
+    }
+
+    /**
+     * @return the selected fields, or all fields when nothing was selected
+     */
+    public static Set<CrawlerField> parse(Collection<String> properties) {
+        if (properties == null || properties.isEmpty()) {
+            return EnumSet.allOf(CrawlerField.class);
+        }
+        var fields = EnumSet.noneOf(CrawlerField.class);
+        for (String property : properties) {
+            fields.add(Arrays.stream(values()).filter(field -> field.property.equals(property.trim())).findFirst()
+                    .orElseThrow(() -> new UnknownCrawlerFieldException(property)));
+        }
+        return fields;
+    }
+}
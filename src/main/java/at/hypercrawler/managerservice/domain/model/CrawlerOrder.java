@@ -0,0 +1,37 @@
+package at.hypercrawler.managerservice.domain.model;
+
+/**
+ * Keyset order a search is returned in. The order follows the index that answers the search, so a range filter on a
+ * leading key is never combined with a sort on another key that Mongo could only do in memory.
+ */
+public enum CrawlerOrder {
+
+    /**
+     * By {@code (updatedAt, id)}, on its own or behind the equality filters on status and index prefix.
+     */
+    UPDATED,
+
+    /**
+     * By {@code (createdAt, id)}, for searches by creation time.
+     */
+    CREATED,
+
+    /**
+     * By {@code (name, updatedAt, id)}, for searches by name prefix.
+     */
+    NAME;
+
+    public static CrawlerOrder of(CrawlerSearch search) {
+        // equality filters keep the (updatedAt, id) order, their indexes continue with it
+        if (search.status() != null || search.indexPrefix() != null) {
+            return UPDATED;
+        }
+        if (search.namePrefix() != null && !search.namePrefix().isEmpty()) {
+            return NAME;
+        }
+        if (search.createdAfter() != null || search.createdBefore() != null) {
+            return CREATED;
+        }
+        return UPDATED;
+    }
+}
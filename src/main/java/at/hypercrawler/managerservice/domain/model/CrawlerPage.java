@@ -0,0 +1,6 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import java.util.List;
+
+public record CrawlerPage(List<Crawler> crawlers, CrawlerCursor next) {
+}
@@ -0,0 +1,455 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import at.hypercrawler.managerservice.domain.exception.InvalidScheduleException;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * Parsed {@link CrawlerConfig#schedule()}, evaluated in UTC. Accepts five fields (minute to day of week), six fields
+ * (second to day of week) and seven fields, where the last one restricts the year.
+ * <p>
+ * Every field is compiled into a bit set of the values it matches, so computing the next fire time only tests and
+ * scans bits and does calendar arithmetic on primitives. Fields accept values, names of months and days, ranges,
+ * steps and lists, {@code ?} for day of month and day of week, {@code L} and {@code L-n} (last day of the month, n
+ * days before it) for day of month, and {@code d#n} (n-th weekday d) and {@code dL} (last weekday d) for day of week.
+ * Days of week run from 0 or 7 (Sunday) to 6 (Saturday). A day has to match both the day of month and the day of week.
+ */
+public final class CrawlerSchedule {
+
+    /**
+     * Returned by {@link #nextFireEpochSecond(long)} if the schedule does not fire anymore.
+     */
+    public static final long NONE = -1;
+
+    private static final int MIN_YEAR = 1970;
+    private static final int MAX_YEAR = 2299;
+    private static final int MAX_LENGTH = 256;
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int DAYS_0000_TO_1970 = 719_468;
+
+    private static final String[] MONTHS =
+            {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    // Sunday is 7 when named, so that ranges like SAT-SUN work
+    private static final String[] DAYS = {"MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN"};
+
+    private static final long ALL_DAYS_OF_MONTH = bits(1, 31);
+    private static final long ALL_DAYS_OF_WEEK = bits(0, 6);
+
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    // bit n: n days before the last day of the month
+    private final long lastDaysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    // bit 8 * weekday + n: n-th of that weekday in the month
+    private final long nthDaysOfWeek;
+    // bit weekday: last of that weekday in the month
+    private final long lastDaysOfWeek;
+    // null when every year matches
+    private final BitSet years;
+
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+
+    private CrawlerSchedule(long seconds, long minutes, long hours, long daysOfMonth, long lastDaysOfMonth, long months,
+                            long daysOfWeek, long nthDaysOfWeek, long lastDaysOfWeek, BitSet years) {
+        this.seconds = seconds;
+        this.minutes = minutes;
+        this.hours = hours;
+        this.daysOfMonth = daysOfMonth;
+        this.lastDaysOfMonth = lastDaysOfMonth;
+        this.months = months;
+        this.daysOfWeek = daysOfWeek;
+        this.nthDaysOfWeek = nthDaysOfWeek;
+        this.lastDaysOfWeek = lastDaysOfWeek;
+        this.years = years;
+        this.anyDayOfMonth = daysOfMonth == ALL_DAYS_OF_MONTH;
+        this.anyDayOfWeek = daysOfWeek == ALL_DAYS_OF_WEEK;
+    }
+
+    /**
+     * @throws InvalidScheduleException if the schedule is not a valid expression
+     */
+    public static CrawlerSchedule parse(String schedule) {
+        var parsed = tryParse(schedule);
+        if (parsed == null) {
+            throw new InvalidScheduleException(schedule);
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses a schedule without throwing, so that validating untrusted input costs no exceptions.
+     *
+     * @return the parsed schedule, or {@code null} if the schedule is not a valid expression
+     */
+    public static CrawlerSchedule tryParse(String schedule) {
+        if (schedule == null || schedule.length() > MAX_LENGTH) {
+            return null;
+        }
+        var fields = schedule.trim().split("\\s+");
+        int offset;
+        switch (fields.length) {
+            case 5 -> offset = -1;
+            case 6, 7 -> offset = 0;
+            default -> {
+                return null;
+            }
+        }
+
+        long seconds = offset < 0 ? 1L : parseField(fields[0], 0, 59, null, 0);
+        long minutes = parseField(fields[offset + 1], 0, 59, null, 0);
+        long hours = parseField(fields[offset + 2], 0, 23, null, 0);
+        long months = parseField(fields[offset + 4], 1, 12, MONTHS, 1);
+        if (seconds == 0 || minutes == 0 || hours == 0 || months == 0) {
+            return null;
+        }
+
+        long daysOfMonth = 0;
+        long lastDaysOfMonth = 0;
+        var dayOfMonth = fields[offset + 3];
+        if (dayOfMonth.equals("?")) {
+            daysOfMonth = ALL_DAYS_OF_MONTH;
+        } else {
+            for (String part : dayOfMonth.split(",", -1)) {
+                if (part.equals("L")) {
+                    lastDaysOfMonth |= 1L;
+                } else if (part.startsWith("L-")) {
+                    int before = number(part, 2, part.length());
+                    if (before < 0 || before > 30) {
+                        return null;
+                    }
+                    lastDaysOfMonth |= 1L << before;
+                } else {
+                    long matched = parsePart(part, 1, 31, null, 0);
+                    if (matched == 0) {
+                        return null;
+                    }
+                    daysOfMonth |= matched;
+                }
+            }
+        }
+
+        long daysOfWeek = 0;
+        long nthDaysOfWeek = 0;
+        long lastDaysOfWeek = 0;
+        var dayOfWeek = fields[offset + 5];
+        if (dayOfWeek.equals("?")) {
+            daysOfWeek = ALL_DAYS_OF_WEEK;
+        } else {
+            for (String part : dayOfWeek.split(",", -1)) {
+                int hash = part.indexOf('#');
+                if (hash >= 0) {
+                    int weekday = weekday(part, 0, hash);
+                    int nth = number(part, hash + 1, part.length());
+                    if (weekday < 0 || nth < 1 || nth > 5) {
+                        return null;
+                    }
+                    nthDaysOfWeek |= 1L << (8 * weekday + nth);
+                } else if (part.length() > 1 && part.endsWith("L")) {
+                    int weekday = weekday(part, 0, part.length() - 1);
+                    if (weekday < 0) {
+                        return null;
+                    }
+                    lastDaysOfWeek |= 1L << weekday;
+                } else {
+                    long matched = parsePart(part, 0, 7, DAYS, 1);
+                    if (matched == 0) {
+                        return null;
+                    }
+                    // 7 is Sunday as well
+                    daysOfWeek |= (matched | matched >>> 7) & ALL_DAYS_OF_WEEK;
+                }
+            }
+        }
+
+        BitSet years = null;
+        if (fields.length == 7 && !fields[6].equals("*") && !fields[6].equals("?")) {
+            years = parseYears(fields[6]);
+            if (years == null) {
+                return null;
+            }
+        }
+
+        return new CrawlerSchedule(seconds, minutes, hours, daysOfMonth, lastDaysOfMonth, months, daysOfWeek,
+                nthDaysOfWeek, lastDaysOfWeek, years);
+    }
+
+    /**
+     * @return the first point in time strictly after {@code after} that matches, or {@code null} if there is none
+     */
+    public Instant nextFireTime(Instant after) {
+        long next = nextFireEpochSecond(after.getEpochSecond());
+        return next == NONE ? null : Instant.ofEpochSecond(next);
+    }
+
+    /**
+     * Allocation free variant of {@link #nextFireTime(Instant)}, on epoch seconds.
+     *
+     * @return the first matching epoch second after {@code afterEpochSecond}, or {@link #NONE} if there is none
+     */
+    public long nextFireEpochSecond(long afterEpochSecond) {
+        long start = Math.max(afterEpochSecond + 1, 0);
+
+        long days = start / SECONDS_PER_DAY;
+        int secondOfDay = (int) (start - days * SECONDS_PER_DAY);
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = secondOfDay % 60;
+
+        // civil date of the epoch day, after Howard Hinnant's days_from_civil inverse
+        long z = days + DAYS_0000_TO_1970;
+        long era = z / 146_097;
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        while (year <= MAX_YEAR) {
+            if (years != null && !years.get(year)) {
+                year = years.nextSetBit(year);
+                if (year < 0) {
+                    return NONE;
+                }
+                month = 1;
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+
+            int nextMonth = nextBit(months, month);
+            if (nextMonth < 0) {
+                year++;
+                month = 1;
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextMonth != month) {
+                month = nextMonth;
+                day = 1;
+                hour = minute = second = 0;
+            }
+
+            int lengthOfMonth = lengthOfMonth(year, month);
+            int nextHour = dayMatches(year, month, day, lengthOfMonth) ? nextBit(hours, hour) : -1;
+            if (nextHour < 0) {
+                day++;
+                hour = minute = second = 0;
+                if (day > lengthOfMonth) {
+                    day = 1;
+                    if (++month > 12) {
+                        month = 1;
+                        year++;
+                    }
+                }
+                continue;
+            }
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = second = 0;
+            }
+
+            int nextMinute = nextBit(minutes, minute);
+            if (nextMinute < 0) {
+                hour++;
+                minute = second = 0;
+                continue;
+            }
+            if (nextMinute != minute) {
+                minute = nextMinute;
+                second = 0;
+            }
+
+            int nextSecond = nextBit(seconds, second);
+            if (nextSecond < 0) {
+                minute++;
+                second = 0;
+                continue;
+            }
+
+            return epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + nextSecond;
+        }
+        return NONE;
+    }
+
+    private boolean dayMatches(int year, int month, int day, int lengthOfMonth) {
+        if (!anyDayOfMonth && (daysOfMonth >>> day & 1) == 0
+                && (lastDaysOfMonth >>> (lengthOfMonth - day) & 1) == 0) {
+            return false;
+        }
+        if (anyDayOfWeek) {
+            return true;
+        }
+        int weekday = (int) Math.floorMod(epochDay(year, month, day) + 4, 7);
+        return (daysOfWeek >>> weekday & 1) != 0
+                || (nthDaysOfWeek >>> (8 * weekday + (day - 1) / 7 + 1) & 1) != 0
+                || ((lastDaysOfWeek >>> weekday & 1) != 0 && day + 7 > lengthOfMonth);
+    }
+
+    private static int nextBit(long bits, int from) {
+        if (from > 63) {
+            return -1;
+        }
+        long remaining = bits & (-1L << from);
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * @return the bits of the matching values, {@code 0} if the field is not valid
+     */
+    private static long parseField(String field, int min, int max, String[] names, int firstName) {
+        long matched = 0;
+        for (String part : field.split(",", -1)) {
+            long bits = parsePart(part, min, max, names, firstName);
+            if (bits == 0) {
+                return 0;
+            }
+            matched |= bits;
+        }
+        return matched;
+    }
+
+    private static long parsePart(String part, int min, int max, String[] names, int firstName) {
+        int step = 1;
+        int end = part.length();
+        int slash = part.indexOf('/');
+        if (slash >= 0) {
+            step = number(part, slash + 1, part.length());
+            end = slash;
+        }
+
+        int from;
+        int to;
+        int dash = part.indexOf('-');
+        if (end == 1 && part.charAt(0) == '*') {
+            from = min;
+            to = max;
+        } else if (dash >= 0 && dash < end) {
+            from = value(part, 0, dash, names, firstName);
+            to = value(part, dash + 1, end, names, firstName);
+        } else {
+            from = value(part, 0, end, names, firstName);
+            to = slash >= 0 ? max : from;
+        }
+
+        if (step < 1 || from < min || to > max || from > to) {
+            return 0;
+        }
+        long bits = 0;
+        for (int value = from; value <= to; value += step) {
+            bits |= 1L << value;
+        }
+        return bits;
+    }
+
+    private static BitSet parseYears(String field) {
+        var years = new BitSet(MAX_YEAR + 1);
+        for (String part : field.split(",", -1)) {
+            int step = 1;
+            int end = part.length();
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = number(part, slash + 1, part.length());
+                end = slash;
+            }
+
+            int from;
+            int to;
+            int dash = part.indexOf('-');
+            if (end == 1 && part.charAt(0) == '*') {
+                from = MIN_YEAR;
+                to = MAX_YEAR;
+            } else if (dash >= 0 && dash < end) {
+                from = number(part, 0, dash);
+                to = number(part, dash + 1, end);
+            } else {
+                from = number(part, 0, end);
+                to = slash >= 0 ? MAX_YEAR : from;
+            }
+
+            if (step < 1 || from < MIN_YEAR || to > MAX_YEAR || from > to) {
+                return null;
+            }
+            for (int year = from; year <= to; year += step) {
+                years.set(year);
+            }
+        }
+        return years;
+    }
+
+    private static int weekday(String part, int from, int to) {
+        int weekday = value(part, from, to, DAYS, 1);
+        if (weekday < 0 || weekday > 7) {
+            return -1;
+        }
+        return weekday % 7;
+    }
+
+    /**
+     * @return the number or name between {@code from} and {@code to}, {@code -1} if it is neither
+     */
+    private static int value(String part, int from, int to, String[] names, int firstName) {
+        if (names != null && to - from == 3 && Character.isLetter(part.charAt(from))) {
+            var name = part.substring(from, to).toUpperCase(Locale.ROOT);
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return firstName + i;
+                }
+            }
+            return -1;
+        }
+        return number(part, from, to);
+    }
+
+    /**
+     * @return the non-negative number between {@code from} and {@code to}, {@code -1} if it is none
+     */
+    private static int number(String part, int from, int to) {
+        if (from >= to || to - from > 4) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            char c = part.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    private static long bits(int from, int to) {
+        long bits = 0;
+        for (int value = from; value <= to; value++) {
+            bits |= 1L << value;
+        }
+        return bits;
+    }
+}
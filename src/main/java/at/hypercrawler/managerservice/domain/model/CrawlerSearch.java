@@ -0,0 +1,31 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import lombok.Builder;
+
+import java.time.Instant;
+
+/**
+ * Filters of a crawler search. Filters left {@code null} do not restrict the search, the others narrow it down
+ * together. Time ranges are exclusive on both ends.
+ */
+@Builder
+public record CrawlerSearch(
+
+        CrawlerStatus status,
+
+        String namePrefix,
+
+        String indexPrefix,
+
+        Instant createdAfter,
+
+        Instant createdBefore,
+
+        Instant updatedAfter,
+
+        Instant updatedBefore
+
+) {
+
+    public static final CrawlerSearch ALL = CrawlerSearch.builder().build();
+}
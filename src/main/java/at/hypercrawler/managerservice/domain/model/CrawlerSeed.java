@@ -0,0 +1,34 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A chunk of start urls uploaded for a crawler apart from its config. Chunks are numbered per upload, uploads are
+ * ordered by their time based id, so reading the seeds of a crawler in index order yields them as they were uploaded.
+ */
+@Document("crawler_seed")
+@CompoundIndex(name = "crawlerId_upload_chunk", def = "{'crawlerId': 1, 'upload': 1, 'chunk': 1}", unique = true)
+public record CrawlerSeed(
+
+        @Id
+        String id,
+
+        UUID crawlerId,
+
+        String upload,
+
+        int chunk,
+
+        List<String> urls
+
+) {
+
+    public CrawlerSeed(UUID crawlerId, String upload, int chunk, List<String> urls) {
+        this(null, crawlerId, upload, chunk, urls);
+    }
+}
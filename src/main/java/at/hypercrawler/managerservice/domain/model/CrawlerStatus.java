@@ -1,5 +1,19 @@
 package at.hypercrawler.managerservice.domain.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum CrawlerStatus {
-  STARTED, STOPPED, CREATED
+  STARTED, STOPPED, CREATED;
+
+  /**
+   * @return the statuses a crawler may be in for it to be moved into this status
+   */
+  public Set<CrawlerStatus> allowedPredecessors() {
+    return switch (this) {
+      case STARTED -> EnumSet.of(CREATED, STOPPED);
+      case STOPPED -> EnumSet.of(CREATED, STARTED);
+      case CREATED -> EnumSet.noneOf(CrawlerStatus.class);
+    };
+  }
 }
@@ -0,0 +1,16 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import java.util.UUID;
+
+/**
+ * A crawler got a new status, or was deleted when {@code status} is {@code null}.
+ *
+ * @param resumeToken position of the change in the crawler change stream, {@code null} for a status that was read
+ *                    instead of observed
+ */
+public record CrawlerStatusChange(UUID id, CrawlerStatus status, String resumeToken) {
+
+    public boolean deleted() {
+        return status == null;
+    }
+}
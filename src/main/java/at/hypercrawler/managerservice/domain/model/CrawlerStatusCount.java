@@ -0,0 +1,9 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import org.springframework.data.annotation.Id;
+
+/**
+ * Number of crawlers in a status, as grouped by Mongo.
+ */
+public record CrawlerStatusCount(@Id CrawlerStatus status, long count) {
+}
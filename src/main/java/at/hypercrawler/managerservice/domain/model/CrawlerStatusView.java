@@ -0,0 +1,11 @@
+package at.hypercrawler.managerservice.domain.model;
+
+/**
+ * Projection of a crawler that only reads its status, and the version it has the status in, from Mongo.
+ */
+public record CrawlerStatusView(CrawlerStatus status, int version) {
+
+    public static CrawlerStatusView of(Crawler crawler) {
+        return new CrawlerStatusView(crawler.status(), crawler.version());
+    }
+}
@@ -0,0 +1,7 @@
+package at.hypercrawler.managerservice.domain.model;
+
+/**
+ * Projection of a crawler that only reads its version from Mongo, enough to answer conditional requests.
+ */
+public record CrawlerVersionView(int version) {
+}
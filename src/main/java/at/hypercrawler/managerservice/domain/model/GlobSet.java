@@ -0,0 +1,164 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A set of glob patterns, in which {@code *} stands for any sequence of characters, compiled into a single matcher.
+ * Patterns without a wildcard are looked up in a hash set, patterns with trailing wildcards only in a sorted table of
+ * literal prefixes, and all others are matched one by one by the literal segments between their wildcards. Segments
+ * are searched left to right and never backtracked, so a pattern takes one search per segment, however many
+ * wildcards it has.
+ * <p>
+ * The three parts are its serialized form, so a receiver gets the matcher without splitting and sorting again.
+ */
+public final class GlobSet {
+
+    public static final GlobSet EMPTY = new GlobSet(List.of(), List.of(), null);
+
+    private final List<String> literals;
+    private final Set<String> literalSet;
+    private final List<String> prefixes;
+    private final String[] prefixTable;
+    private final List<String> patterns;
+    private final String[][] patternSegments;
+
+    @JsonCreator
+    public GlobSet(@JsonProperty("literals") Collection<String> literals,
+                   @JsonProperty("prefixes") Collection<String> prefixes,
+                   @JsonProperty("patterns") Collection<String> patterns) {
+        this.literals = literals == null ? List.of() : List.copyOf(literals);
+        this.literalSet = new HashSet<>(this.literals);
+        this.prefixes = minimalPrefixes(prefixes);
+        this.prefixTable = this.prefixes.toArray(String[]::new);
+        this.patterns = patterns == null ? List.of() : List.copyOf(patterns);
+        this.patternSegments = this.patterns.stream().map(pattern -> pattern.split("\\*", -1)).toArray(String[][]::new);
+    }
+
+    public static GlobSet compile(Collection<String> globs) {
+        if (globs == null || globs.isEmpty()) {
+            return EMPTY;
+        }
+        var literals = new TreeSet<String>();
+        var prefixes = new ArrayList<String>();
+        var patterns = new LinkedHashSet<String>();
+        for (String glob : globs) {
+            int wildcard = glob.indexOf('*');
+            if (wildcard < 0) {
+                literals.add(glob);
+            } else if (glob.chars().skip(wildcard).allMatch(c -> c == '*')) {
+                prefixes.add(glob.substring(0, wildcard));
+            } else {
+                patterns.add(glob);
+            }
+        }
+        return new GlobSet(literals, prefixes, patterns);
+    }
+
+    public boolean matches(String value) {
+        if (literalSet.contains(value)) {
+            return true;
+        }
+        if (prefixTable.length > 0) {
+            // no prefix of the table starts with another one, so only the greatest one up to the value can match
+            int index = Arrays.binarySearch(prefixTable, value);
+            if (index >= 0 || (index < -1 && value.startsWith(prefixTable[-index - 2]))) {
+                return true;
+            }
+        }
+        for (String[] segments : patternSegments) {
+            if (matches(segments, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return literals.isEmpty() && prefixes.isEmpty() && patterns.isEmpty();
+    }
+
+    @JsonProperty
+    public List<String> literals() {
+        return literals;
+    }
+
+    @JsonProperty
+    public List<String> prefixes() {
+        return prefixes;
+    }
+
+    @JsonProperty
+    public List<String> patterns() {
+        return patterns;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GlobSet other && literals.equals(other.literals) && prefixes.equals(other.prefixes)
+                && patterns.equals(other.patterns);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(literals, prefixes, patterns);
+    }
+
+    @Override
+    public String toString() {
+        return "GlobSet[literals=" + literals + ", prefixes=" + prefixes + ", patterns=" + patterns + "]";
+    }
+
+    /**
+     * Sorts the prefixes and drops those that start with another one, as the shorter one matches all they do.
+     */
+    private static List<String> minimalPrefixes(Collection<String> prefixes) {
+        if (prefixes == null || prefixes.isEmpty()) {
+            return List.of();
+        }
+        var sorted = new TreeSet<>(prefixes);
+        var minimal = new ArrayList<String>(sorted.size());
+        for (String prefix : sorted) {
+            if (minimal.isEmpty() || !prefix.startsWith(minimal.get(minimal.size() - 1))) {
+                minimal.add(prefix);
+            }
+        }
+        return List.copyOf(minimal);
+    }
+
+    /**
+     * Matches a value against the literal segments of a pattern, the first one anchored at the start of the value and
+     * the last one at its end. Taking the leftmost occurrence of each segment in between leaves the most room for the
+     * segments after it, so a segment that is not found there is not found anywhere.
+     */
+    private static boolean matches(String[] segments, String value) {
+        if (segments.length == 1) {
+            return value.equals(segments[0]);
+        }
+        var first = segments[0];
+        var last = segments[segments.length - 1];
+        if (value.length() < first.length() + last.length() || !value.startsWith(first) || !value.endsWith(last)) {
+            return false;
+        }
+        int from = first.length();
+        int to = value.length() - last.length();
+        for (int i = 1; i < segments.length - 1; i++) {
+            int at = value.indexOf(segments[i], from);
+            if (at < 0 || at + segments[i].length() > to) {
+                return false;
+            }
+            from = at + segments[i].length();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,28 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Client supplied key of a create request, bound to the crawler the first request with that key creates and to a hash
+ * of what that request asked for. Keys are removed by a TTL index on {@code createdAt}.
+ */
+@Document("crawler_idempotency_key")
+public record IdempotencyKey(
+
+        @Id
+        String key,
+
+        UUID crawlerId,
+
+        String requestHash,
+
+        boolean completed,
+
+        Instant createdAt
+
+) {
+}
@@ -0,0 +1,58 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+/**
+ * The part of crawler configs that most crawlers have in common, stored once and referenced by the crawlers. Its id is
+ * the hash of its content, so a shared config never changes and is written at most once.
+ */
+@Document(value = "crawler_shared_config")
+public record SharedCrawlerConfig(
+
+        @Id
+        String id,
+
+        CrawlerFilterOptions filterOptions,
+
+        CrawlerRequestOptions requestOptions,
+
+        CrawlerRobotOptions robotOptions,
+
+        List<CrawlerAction> actions
+
+) {
+
+    /**
+     * @return the shared part of the config, without id, or {@code null} if the config has nothing to share
+     */
+    public static SharedCrawlerConfig of(CrawlerConfig config) {
+        if (config == null || (config.filterOptions() == null && config.requestOptions() == null
+                && config.robotOptions() == null && config.actions() == null)) {
+            return null;
+        }
+        return new SharedCrawlerConfig(null, config.filterOptions(), config.requestOptions(), config.robotOptions(),
+                config.actions());
+    }
+
+    /**
+     * @return the config without its shared part, as it is embedded in a crawler referencing this shared config
+     */
+    public static CrawlerConfig strip(CrawlerConfig config) {
+        return config.toBuilder().filterOptions(null).requestOptions(null).robotOptions(null).actions(null).build();
+    }
+
+    public SharedCrawlerConfig withId(String id) {
+        return new SharedCrawlerConfig(id, filterOptions, requestOptions, robotOptions, actions);
+    }
+
+    /**
+     * @return the given stripped config completed by this shared config
+     */
+    public CrawlerConfig applyTo(CrawlerConfig config) {
+        return config.toBuilder().filterOptions(filterOptions).requestOptions(requestOptions).robotOptions(robotOptions)
+                .actions(actions).build();
+    }
+}
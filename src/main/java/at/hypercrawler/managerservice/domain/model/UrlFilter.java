@@ -0,0 +1,99 @@
+package at.hypercrawler.managerservice.domain.model;
+
+import at.hypercrawler.managerservice.domain.exception.InvalidFilterPatternException;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The filter options of a crawler compiled into matchers: urls matching a site exclusion pattern are not crawled and
+ * query parameters matching a query parameter exclusion pattern are dropped from urls. Patterns are matched against
+ * the whole url or parameter name.
+ */
+public final class UrlFilter {
+
+    public static final UrlFilter NONE = new UrlFilter(GlobSet.EMPTY, GlobSet.EMPTY);
+
+    static final int MAX_PATTERNS = 1000;
+    static final int MAX_PATTERN_LENGTH = 2048;
+
+    private final GlobSet sites;
+    private final GlobSet queryParameters;
+
+    @JsonCreator
+    public UrlFilter(@JsonProperty("sites") GlobSet sites, @JsonProperty("queryParameters") GlobSet queryParameters) {
+        this.sites = sites == null ? GlobSet.EMPTY : sites;
+        this.queryParameters = queryParameters == null ? GlobSet.EMPTY : queryParameters;
+    }
+
+    /**
+     * @throws InvalidFilterPatternException if there are too many or too long patterns
+     */
+    public static UrlFilter compile(CrawlerFilterOptions filterOptions) {
+        if (filterOptions == null) {
+            return NONE;
+        }
+        var siteExclusionPatterns = validate("siteExclusionPatterns", filterOptions.siteExclusionPatterns());
+        var queryParameterExclusionPatterns = validate("queryParameterExclusionPatterns",
+                filterOptions.queryParameterExclusionPatterns());
+        return new UrlFilter(GlobSet.compile(siteExclusionPatterns), GlobSet.compile(queryParameterExclusionPatterns));
+    }
+
+    public boolean excludes(String url) {
+        return sites.matches(url);
+    }
+
+    public boolean excludesParameter(String name) {
+        return queryParameters.matches(name);
+    }
+
+    public boolean isEmpty() {
+        return sites.isEmpty() && queryParameters.isEmpty();
+    }
+
+    @JsonProperty
+    public GlobSet sites() {
+        return sites;
+    }
+
+    @JsonProperty
+    public GlobSet queryParameters() {
+        return queryParameters;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof UrlFilter other && sites.equals(other.sites) && queryParameters.equals(other.queryParameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sites, queryParameters);
+    }
+
+    @Override
+    public String toString() {
+        return "UrlFilter[sites=" + sites + ", queryParameters=" + queryParameters + "]";
+    }
+
+    private static List<String> validate(String name, List<String> patterns) {
+        if (patterns == null) {
+            return null;
+        }
+        if (patterns.size() > MAX_PATTERNS) {
+            throw new InvalidFilterPatternException(name + " has more than " + MAX_PATTERNS + " patterns");
+        }
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isBlank()) {
+                throw new InvalidFilterPatternException(name + " has a blank pattern");
+            }
+            if (pattern.length() > MAX_PATTERN_LENGTH) {
+                throw new InvalidFilterPatternException(name + " has a pattern longer than " + MAX_PATTERN_LENGTH
+                        + " characters");
+            }
+        }
+        return patterns;
+    }
+}
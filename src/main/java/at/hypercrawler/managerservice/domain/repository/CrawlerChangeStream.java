@@ -0,0 +1,105 @@
+package at.hypercrawler.managerservice.domain.repository;
+
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import com.mongodb.MongoException;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.UuidRepresentation;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+/**
+ * Single change stream on the crawler collection that is shared by everyone on this instance who needs to learn about
+ * writes, including those made by other replicas. The stream is opened with the first subscriber and closed with the
+ * last one, an error terminates it for all subscribers, who are expected to resubscribe. A reopened stream resumes
+ * after the last event it delivered, as long as the oplog still covers it.
+ */
+@Component
+public class CrawlerChangeStream {
+
+    private static final String RESUME_TOKEN_DATA = "_data";
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final String collectionName;
+    private final Flux<ChangeStreamEvent<Crawler>> changes;
+
+    private volatile BsonValue lastResumeToken;
+
+    public CrawlerChangeStream(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.collectionName = reactiveMongoTemplate.getCollectionName(Crawler.class);
+        this.changes = Flux.defer(() -> open(lastResumeToken))
+                .doOnNext(event -> lastResumeToken = event.getResumeToken())
+                .doOnError(e -> {
+                    // the oplog no longer reaches back to the last event, resuming would fail forever
+                    if (historyLost(e)) {
+                        lastResumeToken = null;
+                    }
+                })
+                .share();
+    }
+
+    public Flux<ChangeStreamEvent<Crawler>> changes() {
+        return changes;
+    }
+
+    /**
+     * Opens a change stream of its own that starts right after the event with the given resume token, for subscribers
+     * that need to catch up on more than the shared stream can tell them.
+     */
+    public Flux<ChangeStreamEvent<Crawler>> changesAfter(String resumeToken) {
+        return Flux.defer(() -> open(new BsonDocument(RESUME_TOKEN_DATA, new BsonString(resumeToken))));
+    }
+
+    private Flux<ChangeStreamEvent<Crawler>> open(BsonValue resumeAfter) {
+        var options = resumeAfter == null
+                ? ChangeStreamOptions.empty()
+                : ChangeStreamOptions.builder().resumeAfter(resumeAfter).build();
+        return reactiveMongoTemplate.changeStream(collectionName, options, Crawler.class);
+    }
+
+    private static boolean historyLost(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && mongoException.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the id of the changed crawler from the document key of a change event.
+     *
+     * @return the id, or {@code null} for events that do not concern a single crawler, like dropping the collection
+     */
+    public static UUID crawlerId(ChangeStreamEvent<?> event) {
+        BsonDocument documentKey = event.getRaw() == null ? null : event.getRaw().getDocumentKey();
+        if (documentKey == null || !documentKey.isBinary("_id")) {
+            return null;
+        }
+        BsonBinary id = documentKey.getBinary("_id");
+        return id.getType() == BsonBinarySubType.UUID_STANDARD.getValue()
+                ? id.asUuid()
+                : id.asUuid(UuidRepresentation.JAVA_LEGACY);
+    }
+
+    /**
+     * Reads the opaque resume token of a change event as a string that {@link #changesAfter(String)} accepts.
+     */
+    public static String resumeToken(ChangeStreamEvent<?> event) {
+        var resumeToken = event.getResumeToken();
+        if (resumeToken == null || !resumeToken.isDocument() || !resumeToken.asDocument().isString(RESUME_TOKEN_DATA)) {
+            return null;
+        }
+        return resumeToken.asDocument().getString(RESUME_TOKEN_DATA).getValue();
+    }
+}
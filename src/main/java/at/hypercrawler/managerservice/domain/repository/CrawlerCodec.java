@@ -0,0 +1,427 @@
+package at.hypercrawler.managerservice.domain.repository;
+
+import at.hypercrawler.managerservice.domain.model.AddressSupplyRequest;
+import at.hypercrawler.managerservice.domain.model.CompactStartUrls;
+import at.hypercrawler.managerservice.domain.model.ConnectionHeader;
+import at.hypercrawler.managerservice.domain.model.ConnectionProxy;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerAction;
+import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.domain.model.CrawlerFilterOptions;
+import at.hypercrawler.managerservice.domain.model.CrawlerRequestOptions;
+import at.hypercrawler.managerservice.domain.model.CrawlerRobotOptions;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import at.hypercrawler.managerservice.domain.model.SupportedContentMediaType;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecConfigurationException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Reads and writes crawlers straight from and to BSON, in the layout the mapping converter uses for them: record
+ * components become fields of the same name, the id becomes {@code _id}, {@code null} values are left out, enums are
+ * stored by name and instants as dates. UUIDs are written with the Java legacy binary subtype the crawlers have always
+ * been stored with, so ids written by the codec and by the template match, and read with the legacy or the standard
+ * one. Start urls in compact form are kept as binary, as {@link StartUrlsConverter} stores them.
+ * <p>
+ * Unlike the mapping converter it neither reflects on the records nor builds an intermediate document, which makes a
+ * difference when reading long lists of crawlers.
+ */
+public final class CrawlerCodec implements Codec<Crawler> {
+
+    public static final CrawlerCodec INSTANCE = new CrawlerCodec();
+
+    private CrawlerCodec() {
+    }
+
+    @Override
+    public Class<Crawler> getEncoderClass() {
+        return Crawler.class;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Crawler crawler, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (crawler.id() != null) {
+            writer.writeBinaryData("_id", new BsonBinary(crawler.id(), UuidRepresentation.JAVA_LEGACY));
+        }
+        writeString(writer, "name", crawler.name());
+        if (crawler.config() != null) {
+            writer.writeName("config");
+            writeConfig(writer, crawler.config());
+        }
+        writeEnum(writer, "status", crawler.status());
+        writeInstant(writer, "createdAt", crawler.createdAt());
+        writeInstant(writer, "updatedAt", crawler.updatedAt());
+        writer.writeInt32("version", crawler.version());
+        if (crawler.pendingAddressSupply() != null) {
+            writer.writeName("pendingAddressSupply");
+            writeAddressSupply(writer, crawler.pendingAddressSupply());
+        }
+        writeInstant(writer, "nextRunAt", crawler.nextRunAt());
+        writeString(writer, "sharedConfigId", crawler.sharedConfigId());
+        writer.writeString("_class", Crawler.class.getName());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Crawler decode(BsonReader reader, DecoderContext decoderContext) {
+        UUID id = null;
+        String name = null;
+        CrawlerConfig config = null;
+        CrawlerStatus status = null;
+        Instant createdAt = null;
+        Instant updatedAt = null;
+        int version = 0;
+        AddressSupplyRequest pendingAddressSupply = null;
+        Instant nextRunAt = null;
+        String sharedConfigId = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id" -> id = readUuid(reader);
+                case "name" -> name = readString(reader);
+                case "config" -> config = readDocument(reader, CrawlerCodec::readConfig);
+                case "status" -> status = readEnum(reader, CrawlerStatus::valueOf);
+                case "createdAt" -> createdAt = readInstant(reader);
+                case "updatedAt" -> updatedAt = readInstant(reader);
+                case "version" -> version = nullToZero(readInteger(reader));
+                case "pendingAddressSupply" -> pendingAddressSupply = readDocument(reader, CrawlerCodec::readAddressSupply);
+                case "nextRunAt" -> nextRunAt = readInstant(reader);
+                case "sharedConfigId" -> sharedConfigId = readString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new Crawler(id, name, config, status, createdAt, updatedAt, version, pendingAddressSupply, nextRunAt,
+                sharedConfigId);
+    }
+
+    private static void writeConfig(BsonWriter writer, CrawlerConfig config) {
+        writer.writeStartDocument();
+        writeString(writer, "indexPrefix", config.indexPrefix());
+        writeString(writer, "schedule", config.schedule());
+        if (config.startUrls() instanceof CompactStartUrls compact) {
+            writer.writeBinaryData("startUrls", new BsonBinary(compact.encoded()));
+        } else {
+            writeStrings(writer, "startUrls", config.startUrls());
+        }
+        if (config.filterOptions() != null) {
+            writer.writeStartDocument("filterOptions");
+            writeStrings(writer, "siteExclusionPatterns", config.filterOptions().siteExclusionPatterns());
+            writeStrings(writer, "queryParameterExclusionPatterns", config.filterOptions().queryParameterExclusionPatterns());
+            writer.writeEndDocument();
+        }
+        if (config.requestOptions() != null) {
+            writer.writeName("requestOptions");
+            writeRequestOptions(writer, config.requestOptions());
+        }
+        if (config.robotOptions() != null) {
+            writer.writeStartDocument("robotOptions");
+            writeBoolean(writer, "ignoreRobotRules", config.robotOptions().ignoreRobotRules());
+            writeBoolean(writer, "ignoreRobotNoIndex", config.robotOptions().ignoreRobotNoIndex());
+            writeBoolean(writer, "ignoreRobotNoFollowTo", config.robotOptions().ignoreRobotNoFollowTo());
+            writer.writeEndDocument();
+        }
+        writeList(writer, "actions", config.actions(), CrawlerCodec::writeAction);
+        writer.writeEndDocument();
+    }
+
+    private static CrawlerConfig readConfig(BsonReader reader) {
+        var config = CrawlerConfig.builder();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "indexPrefix" -> config.indexPrefix(readString(reader));
+                case "schedule" -> config.schedule(readString(reader));
+                case "startUrls" -> config.startUrls(reader.getCurrentBsonType() == BsonType.BINARY
+                        ? CompactStartUrls.decode(reader.readBinaryData().getData())
+                        : readStrings(reader));
+                case "filterOptions" -> config.filterOptions(readDocument(reader, CrawlerCodec::readFilterOptions));
+                case "requestOptions" -> config.requestOptions(readDocument(reader, CrawlerCodec::readRequestOptions));
+                case "robotOptions" -> config.robotOptions(readDocument(reader, CrawlerCodec::readRobotOptions));
+                case "actions" -> config.actions(readList(reader, r -> readDocument(r, CrawlerCodec::readAction)));
+                default -> reader.skipValue();
+            }
+        }
+        return config.build();
+    }
+
+    private static CrawlerFilterOptions readFilterOptions(BsonReader reader) {
+        var filterOptions = CrawlerFilterOptions.builder();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "siteExclusionPatterns" -> filterOptions.siteExclusionPatterns(readStrings(reader));
+                case "queryParameterExclusionPatterns" -> filterOptions.queryParameterExclusionPatterns(readStrings(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return filterOptions.build();
+    }
+
+    private static void writeRequestOptions(BsonWriter writer, CrawlerRequestOptions requestOptions) {
+        writer.writeStartDocument();
+        if (requestOptions.proxy() != null) {
+            writer.writeStartDocument("proxy");
+            writeString(writer, "host", requestOptions.proxy().host());
+            writeInteger(writer, "port", requestOptions.proxy().port());
+            writer.writeEndDocument();
+        }
+        writeInteger(writer, "requestTimeout", requestOptions.requestTimeout());
+        writeInteger(writer, "retries", requestOptions.retries());
+        writeList(writer, "headers", requestOptions.headers(), (w, header) -> {
+            w.writeStartDocument();
+            writeString(w, "name", header.name());
+            writeString(w, "value", header.value());
+            w.writeEndDocument();
+        });
+        writer.writeEndDocument();
+    }
+
+    private static CrawlerRequestOptions readRequestOptions(BsonReader reader) {
+        var requestOptions = CrawlerRequestOptions.builder();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "proxy" -> requestOptions.proxy(readDocument(reader, CrawlerCodec::readProxy));
+                case "requestTimeout" -> requestOptions.requestTimeout(readInteger(reader));
+                case "retries" -> requestOptions.retries(readInteger(reader));
+                case "headers" -> requestOptions.headers(readList(reader, r -> readDocument(r, CrawlerCodec::readHeader)));
+                default -> reader.skipValue();
+            }
+        }
+        return requestOptions.build();
+    }
+
+    private static ConnectionProxy readProxy(BsonReader reader) {
+        String host = null;
+        Integer port = null;
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "host" -> host = readString(reader);
+                case "port" -> port = readInteger(reader);
+                default -> reader.skipValue();
+            }
+        }
+        return new ConnectionProxy(host, port);
+    }
+
+    private static ConnectionHeader readHeader(BsonReader reader) {
+        String name = null;
+        String value = null;
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "name" -> name = readString(reader);
+                case "value" -> value = readString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        return new ConnectionHeader(name, value);
+    }
+
+    private static CrawlerRobotOptions readRobotOptions(BsonReader reader) {
+        var robotOptions = CrawlerRobotOptions.builder();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "ignoreRobotRules" -> robotOptions.ignoreRobotRules(readBoolean(reader));
+                case "ignoreRobotNoIndex" -> robotOptions.ignoreRobotNoIndex(readBoolean(reader));
+                case "ignoreRobotNoFollowTo" -> robotOptions.ignoreRobotNoFollowTo(readBoolean(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return robotOptions.build();
+    }
+
+    private static void writeAction(BsonWriter writer, CrawlerAction action) {
+        writer.writeStartDocument();
+        writeString(writer, "indexName", action.indexName());
+        writeStrings(writer, "pathsToMatch", action.pathsToMatch());
+        writeStrings(writer, "selectorsToMatch", action.selectorsToMatch());
+        writeList(writer, "contentTypesToMatch", action.contentTypesToMatch(), (w, type) -> w.writeString(type.name()));
+        writer.writeEndDocument();
+    }
+
+    private static CrawlerAction readAction(BsonReader reader) {
+        var action = CrawlerAction.builder();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "indexName" -> action.indexName(readString(reader));
+                case "pathsToMatch" -> action.pathsToMatch(readStrings(reader));
+                case "selectorsToMatch" -> action.selectorsToMatch(readStrings(reader));
+                case "contentTypesToMatch" -> action.contentTypesToMatch(
+                        readList(reader, r -> readEnum(r, SupportedContentMediaType::valueOf)));
+                default -> reader.skipValue();
+            }
+        }
+        return action.build();
+    }
+
+    private static void writeAddressSupply(BsonWriter writer, AddressSupplyRequest addressSupply) {
+        writer.writeStartDocument();
+        writeInstant(writer, "requestedAt", addressSupply.requestedAt());
+        writer.writeInt32("attempts", addressSupply.attempts());
+        writeInstant(writer, "nextAttemptAt", addressSupply.nextAttemptAt());
+        writeInstant(writer, "lockedUntil", addressSupply.lockedUntil());
+        writer.writeEndDocument();
+    }
+
+    private static AddressSupplyRequest readAddressSupply(BsonReader reader) {
+        Instant requestedAt = null;
+        int attempts = 0;
+        Instant nextAttemptAt = null;
+        Instant lockedUntil = null;
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "requestedAt" -> requestedAt = readInstant(reader);
+                case "attempts" -> attempts = nullToZero(readInteger(reader));
+                case "nextAttemptAt" -> nextAttemptAt = readInstant(reader);
+                case "lockedUntil" -> lockedUntil = readInstant(reader);
+                default -> reader.skipValue();
+            }
+        }
+        return new AddressSupplyRequest(requestedAt, attempts, nextAttemptAt, lockedUntil);
+    }
+
+    private static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    private static void writeInteger(BsonWriter writer, String name, Integer value) {
+        if (value != null) {
+            writer.writeInt32(name, value);
+        }
+    }
+
+    private static void writeBoolean(BsonWriter writer, String name, Boolean value) {
+        if (value != null) {
+            writer.writeBoolean(name, value);
+        }
+    }
+
+    private static void writeInstant(BsonWriter writer, String name, Instant value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.toEpochMilli());
+        }
+    }
+
+    private static void writeEnum(BsonWriter writer, String name, Enum<?> value) {
+        if (value != null) {
+            writer.writeString(name, value.name());
+        }
+    }
+
+    private static void writeStrings(BsonWriter writer, String name, List<String> values) {
+        writeList(writer, name, values, BsonWriter::writeString);
+    }
+
+    private static <T> void writeList(BsonWriter writer, String name, List<T> values, ElementWriter<T> elementWriter) {
+        if (values == null) {
+            return;
+        }
+        writer.writeStartArray(name);
+        for (T value : values) {
+            if (value == null) {
+                writer.writeNull();
+            } else {
+                elementWriter.write(writer, value);
+            }
+        }
+        writer.writeEndArray();
+    }
+
+    private static boolean isNull(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return true;
+        }
+        return false;
+    }
+
+    private static String readString(BsonReader reader) {
+        return isNull(reader) ? null : reader.readString();
+    }
+
+    private static Integer readInteger(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case NULL -> {
+                reader.readNull();
+                yield null;
+            }
+            case INT32 -> reader.readInt32();
+            case INT64 -> Math.toIntExact(reader.readInt64());
+            case DOUBLE -> (int) reader.readDouble();
+            default -> throw new CodecConfigurationException("Cannot read " + reader.getCurrentBsonType() + " as integer");
+        };
+    }
+
+    private static int nullToZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private static Boolean readBoolean(BsonReader reader) {
+        return isNull(reader) ? null : reader.readBoolean();
+    }
+
+    private static Instant readInstant(BsonReader reader) {
+        return isNull(reader) ? null : Instant.ofEpochMilli(reader.readDateTime());
+    }
+
+    private static <E extends Enum<E>> E readEnum(BsonReader reader, Function<String, E> valueOf) {
+        return isNull(reader) ? null : valueOf.apply(reader.readString());
+    }
+
+    private static UUID readUuid(BsonReader reader) {
+        if (isNull(reader)) {
+            return null;
+        }
+        var binary = reader.readBinaryData();
+        return binary.getType() == BsonBinarySubType.UUID_STANDARD.getValue()
+                ? binary.asUuid()
+                : binary.asUuid(UuidRepresentation.JAVA_LEGACY);
+    }
+
+    private static List<String> readStrings(BsonReader reader) {
+        return readList(reader, CrawlerCodec::readString);
+    }
+
+    private static <T> List<T> readList(BsonReader reader, Function<BsonReader, T> elementReader) {
+        if (isNull(reader)) {
+            return null;
+        }
+        var values = new ArrayList<T>();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            values.add(elementReader.apply(reader));
+        }
+        reader.readEndArray();
+        return values;
+    }
+
+    private static <T> T readDocument(BsonReader reader, Function<BsonReader, T> fieldsReader) {
+        if (isNull(reader)) {
+            return null;
+        }
+        reader.readStartDocument();
+        var value = fieldsReader.apply(reader);
+        reader.readEndDocument();
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface ElementWriter<T> {
+        void write(BsonWriter writer, T value);
+    }
+}
@@ -1,12 +1,23 @@
 package at.hypercrawler.managerservice.domain.repository;
 
 import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerConfigView;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatusView;
+import at.hypercrawler.managerservice.domain.model.CrawlerVersionView;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
 @Repository
 public interface CrawlerManagerRepository
-        extends ReactiveMongoRepository<Crawler, UUID> {
-}
\ No newline at end of file
+        extends ReactiveMongoRepository<Crawler, UUID>, CrawlerManagerRepositoryCustom {
+
+    Mono<CrawlerStatusView> findStatusById(UUID id);
+
+    Mono<CrawlerConfigView> findConfigById(UUID id);
+
+    Mono<CrawlerVersionView> findVersionById(UUID id);
+}
+
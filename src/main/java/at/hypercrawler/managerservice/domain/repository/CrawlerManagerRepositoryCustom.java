@@ -0,0 +1,141 @@
+package at.hypercrawler.managerservice.domain.repository;
+
+import at.hypercrawler.managerservice.domain.model.AddressSupplyRequest;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerCursor;
+import at.hypercrawler.managerservice.domain.model.CrawlerField;
+import at.hypercrawler.managerservice.domain.model.CrawlerSearch;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatusCount;
+import com.mongodb.bulk.BulkWriteError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public interface CrawlerManagerRepositoryCustom {
+
+    /**
+     * Reads the crawlers matching a search ordered by {@code (updatedAt, id)} starting strictly after the given cursor.
+     * Every filter of the search is backed by an index that also serves the order.
+     *
+     * @param search    filters of the search, {@link CrawlerSearch#ALL} to read all crawlers
+     * @param cursor    position to continue from, {@code null} to start at the beginning
+     * @param limit     maximum number of crawlers to read, {@code 0} for no limit
+     * @param batchSize number of documents the Mongo cursor fetches per round trip
+     * @param fields    properties to read, the keyset properties are always read in addition
+     */
+    Flux<Crawler> findAllAfter(CrawlerSearch search, CrawlerCursor cursor, int limit, int batchSize,
+                               Set<CrawlerField> fields);
+
+    /**
+     * Atomically sets the status of a crawler, but only if its current status is one of {@code from}.
+     *
+     * @param addressSupply outbox entry written together with the status, {@code null} to leave it untouched
+     * @return the updated crawler, or empty if the crawler does not exist or is in a status outside of {@code from}
+     */
+    Mono<Crawler> updateStatus(UUID id, Set<CrawlerStatus> from, CrawlerStatus to, AddressSupplyRequest addressSupply);
+
+    /**
+     * Reads the crawlers matching a batch selection. Ids and status narrow the selection down together,
+     * leaving one of them {@code null} or empty does not restrict on it.
+     */
+    Flux<Crawler> findSelection(Set<UUID> ids, CrawlerStatus status, Set<CrawlerField> fields);
+
+    /**
+     * Sets the status of all given crawlers whose current status is one of {@code from} in a single update.
+     *
+     * @param addressSupply outbox entry written together with the status, {@code null} to leave it untouched
+     * @return the number of crawlers that were updated
+     */
+    Mono<Long> updateStatus(Set<UUID> ids, Set<CrawlerStatus> from, CrawlerStatus to, AddressSupplyRequest addressSupply);
+
+    /**
+     * Writes name, config, shared config reference and next run of a crawler in a single update, optionally only if it
+     * is still at the expected version.
+     *
+     * @param expectedVersion version the crawler must have, {@code null} to update any version
+     * @return the updated crawler, or empty if the crawler does not exist or is at another version
+     */
+    Mono<Crawler> update(Crawler crawler, Integer expectedVersion);
+
+    /**
+     * Inserts all given crawlers with one unordered bulk write, so that a crawler that cannot be inserted does not keep
+     * the others from being inserted.
+     *
+     * @return the write errors by the index of the crawler they belong to, empty if all crawlers were inserted
+     */
+    Mono<Map<Integer, BulkWriteError>> insertAll(List<Crawler> crawlers);
+
+    /**
+     * Writes name, config, shared config reference and next run of all given crawlers with one unordered bulk write.
+     *
+     * @return the number of crawlers that were matched
+     */
+    Mono<Integer> updateAll(List<Crawler> crawlers);
+
+    /**
+     * Leases the crawler with the oldest due address supply so that no other relay picks it up meanwhile.
+     *
+     * @return the leased crawler, or empty if no address supply is due
+     */
+    Mono<Crawler> claimPendingAddressSupply(Instant now, Duration lease);
+
+    /**
+     * Moves the end of the lease on the address supply of a crawler, which keeps other relays from claiming it while it
+     * is still being published.
+     *
+     * @return whether the lease was extended, {@code false} if the address supply has been requested again or removed
+     */
+    Mono<Boolean> extendAddressSupplyLease(UUID id, Instant requestedAt, Instant lockedUntil);
+
+    /**
+     * Removes the address supply of a crawler, unless it has been requested again since it was claimed.
+     */
+    Mono<Void> completeAddressSupply(UUID id, Instant requestedAt);
+
+    /**
+     * Releases the lease on the address supply of a crawler and schedules its next attempt.
+     */
+    Mono<Void> retryAddressSupply(UUID id, Instant requestedAt, int attempts, Instant nextAttemptAt);
+
+    /**
+     * Reads the crawlers whose next run is due, earliest first, with just enough properties to schedule them.
+     */
+    Flux<Crawler> findDueForRun(Instant now, int limit);
+
+    /**
+     * Leases a due run of a crawler by moving its next run to the end of the lease, so that no other replica fires it
+     * meanwhile and it is fired again should this one fail to reschedule it.
+     *
+     * @param nextRunAt the due next run as it was read
+     * @return whether the run was leased, {@code false} if another replica or a write got there first
+     */
+    Mono<Boolean> claimRun(UUID id, Instant nextRunAt, Instant leasedUntil);
+
+    /**
+     * Replaces a leased run by the next one, or unschedules the crawler if {@code nextRunAt} is {@code null}. Nothing
+     * is changed if the crawler has been rescheduled in the meantime.
+     */
+    Mono<Void> scheduleNextRun(UUID id, Instant leasedUntil, Instant nextRunAt);
+
+    /**
+     * Reads the crawlers that have a schedule but no next run, as written before runs were scheduled.
+     */
+    Flux<Crawler> findUnscheduled();
+
+    /**
+     * Sets the next run of a crawler, unless it has got one in the meantime.
+     */
+    Mono<Void> initNextRun(UUID id, Instant nextRunAt);
+
+    /**
+     * Counts the crawlers by status in a single aggregation, statuses without crawlers are left out.
+     */
+    Flux<CrawlerStatusCount> countByStatus();
+}
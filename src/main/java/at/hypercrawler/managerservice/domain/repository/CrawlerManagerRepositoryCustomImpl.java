@@ -0,0 +1,347 @@
+package at.hypercrawler.managerservice.domain.repository;
+
+import at.hypercrawler.managerservice.domain.model.AddressSupplyRequest;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerCursor;
+import at.hypercrawler.managerservice.domain.model.CrawlerField;
+import at.hypercrawler.managerservice.domain.model.CrawlerOrder;
+import at.hypercrawler.managerservice.domain.model.CrawlerSearch;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatusCount;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class CrawlerManagerRepositoryCustomImpl
+        implements CrawlerManagerRepositoryCustom {
+
+    private static final Map<CrawlerOrder, List<String>> KEYSET_KEYS = Map.of(
+            CrawlerOrder.UPDATED, List.of("updatedAt", "id"),
+            CrawlerOrder.CREATED, List.of("createdAt", "id"),
+            CrawlerOrder.NAME, List.of("name", "updatedAt", "id"));
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final QueryMapper queryMapper;
+
+    public CrawlerManagerRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.queryMapper = new QueryMapper(reactiveMongoTemplate.getConverter());
+    }
+
+    @Override
+    public Flux<Crawler> findAllAfter(CrawlerSearch search, CrawlerCursor cursor, int limit, int batchSize,
+                                      Set<CrawlerField> fields) {
+        var query = searchQuery(search, cursor).cursorBatchSize(batchSize);
+        if (!fields.containsAll(EnumSet.allOf(CrawlerField.class))) {
+            // the keys of every order, so the cursor can be taken from the last crawler of a page
+            query.fields().include("id", "updatedAt", "createdAt", "name");
+            include(query, fields);
+        }
+        if (limit > 0) {
+            query.limit(limit);
+        }
+        return decode(query);
+    }
+
+    /**
+     * Builds the filter and keyset order of a search. Each filter matches the leading key of one of the indexes on
+     * {@link Crawler}, and the {@link CrawlerOrder} of the search is the one that index is sorted in.
+     */
+    static Query searchQuery(CrawlerSearch search, CrawlerCursor cursor) {
+        var keys = KEYSET_KEYS.get(CrawlerOrder.of(search));
+        var query = new Query().with(Sort.by(Sort.Direction.ASC, keys.toArray(String[]::new)));
+        if (search.status() != null) {
+            query.addCriteria(where("status").is(search.status()));
+        }
+        if (search.namePrefix() != null && !search.namePrefix().isEmpty()) {
+            // an anchored regex without options is turned into index bounds
+            query.addCriteria(where("name").regex("^" + escapeRegex(search.namePrefix())));
+        }
+        if (search.indexPrefix() != null) {
+            query.addCriteria(where("config.indexPrefix").is(search.indexPrefix()));
+        }
+        var createdAt = range("createdAt", search.createdAfter(), search.createdBefore());
+        if (createdAt != null) {
+            query.addCriteria(createdAt);
+        }
+        var updatedAt = range("updatedAt", search.updatedAfter(), search.updatedBefore());
+        if (updatedAt != null) {
+            query.addCriteria(updatedAt);
+        }
+        if (cursor != null) {
+            query.addCriteria(after(keys, keyValues(cursor)));
+        }
+        return query;
+    }
+
+    /**
+     * Matches what follows the given key values in keyset order: a greater first key, or an equal first key and a
+     * greater second one and so on.
+     */
+    private static Criteria after(List<String> keys, List<Object> values) {
+        var alternatives = new Criteria[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            var alternative = new Criteria();
+            for (int j = 0; j < i; j++) {
+                alternative = alternative.and(keys.get(j)).is(values.get(j));
+            }
+            alternatives[i] = alternative.and(keys.get(i)).gt(values.get(i));
+        }
+        return new Criteria().orOperator(alternatives);
+    }
+
+    private static List<Object> keyValues(CrawlerCursor cursor) {
+        return switch (cursor.order()) {
+            case UPDATED, CREATED -> List.of(cursor.time(), cursor.id());
+            case NAME -> List.of(cursor.name(), cursor.time(), cursor.id());
+        };
+    }
+
+    @Override
+    public Mono<Crawler> updateStatus(UUID id, Set<CrawlerStatus> from, CrawlerStatus to, AddressSupplyRequest addressSupply) {
+        var update = statusUpdate(to, addressSupply);
+        return reactiveMongoTemplate.findAndModify(query(where("id").is(id).and("status").in(from)), update,
+                FindAndModifyOptions.options().returnNew(true), Crawler.class);
+    }
+
+    @Override
+    public Flux<Crawler> findSelection(Set<UUID> ids, CrawlerStatus status, Set<CrawlerField> fields) {
+        var query = new Query();
+        if (ids != null && !ids.isEmpty()) {
+            query.addCriteria(where("id").in(ids));
+        }
+        if (status != null) {
+            query.addCriteria(where("status").is(status));
+        }
+        if (!fields.containsAll(EnumSet.allOf(CrawlerField.class))) {
+            query.fields().include("id");
+            include(query, fields);
+        }
+        return decode(query);
+    }
+
+    @Override
+    public Mono<Long> updateStatus(Set<UUID> ids, Set<CrawlerStatus> from, CrawlerStatus to, AddressSupplyRequest addressSupply) {
+        if (ids.isEmpty()) {
+            return Mono.just(0L);
+        }
+        var update = statusUpdate(to, addressSupply);
+        return reactiveMongoTemplate.updateMulti(query(where("id").in(ids).and("status").in(from)), update, Crawler.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Mono<Crawler> update(Crawler crawler, Integer expectedVersion) {
+        var query = query(where("id").is(crawler.id()));
+        if (expectedVersion != null) {
+            query.addCriteria(where("version").is(expectedVersion));
+        }
+        return reactiveMongoTemplate.findAndModify(query, configUpdate(crawler),
+                FindAndModifyOptions.options().returnNew(true), Crawler.class);
+    }
+
+    @Override
+    public Mono<Map<Integer, BulkWriteError>> insertAll(List<Crawler> crawlers) {
+        if (crawlers.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Crawler.class).insert(crawlers).execute()
+                .<Map<Integer, BulkWriteError>>thenReturn(Map.of())
+                .onErrorResume(e -> bulkWriteException(e) != null, e -> Mono.just(bulkWriteException(e).getWriteErrors()
+                        .stream().collect(Collectors.toMap(BulkWriteError::getIndex, Function.identity()))));
+    }
+
+    @Override
+    public Mono<Integer> updateAll(List<Crawler> crawlers) {
+        if (crawlers.isEmpty()) {
+            return Mono.just(0);
+        }
+        var bulkOperations = reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Crawler.class);
+        for (Crawler crawler : crawlers) {
+            bulkOperations.updateOne(query(where("id").is(crawler.id())), configUpdate(crawler));
+        }
+        return bulkOperations.execute().map(BulkWriteResult::getMatchedCount);
+    }
+
+    @Override
+    public Mono<Crawler> claimPendingAddressSupply(Instant now, Duration lease) {
+        var query = query(where("pendingAddressSupply.nextAttemptAt").lte(now).orOperator(
+                where("pendingAddressSupply.lockedUntil").is(null),
+                where("pendingAddressSupply.lockedUntil").lte(now)))
+                .with(Sort.by("pendingAddressSupply.nextAttemptAt"));
+        return reactiveMongoTemplate.findAndModify(query, new Update().set("pendingAddressSupply.lockedUntil", now.plus(lease)),
+                FindAndModifyOptions.options().returnNew(true), Crawler.class);
+    }
+
+    @Override
+    public Mono<Boolean> extendAddressSupplyLease(UUID id, Instant requestedAt, Instant lockedUntil) {
+        return reactiveMongoTemplate.updateFirst(pendingAddressSupply(id, requestedAt),
+                new Update().set("pendingAddressSupply.lockedUntil", lockedUntil), Crawler.class)
+                .map(result -> result.getMatchedCount() == 1);
+    }
+
+    @Override
+    public Mono<Void> completeAddressSupply(UUID id, Instant requestedAt) {
+        return reactiveMongoTemplate.updateFirst(pendingAddressSupply(id, requestedAt),
+                new Update().unset("pendingAddressSupply"), Crawler.class).then();
+    }
+
+    @Override
+    public Mono<Void> retryAddressSupply(UUID id, Instant requestedAt, int attempts, Instant nextAttemptAt) {
+        var update = new Update().set("pendingAddressSupply.attempts", attempts)
+                .set("pendingAddressSupply.nextAttemptAt", nextAttemptAt)
+                .unset("pendingAddressSupply.lockedUntil");
+        return reactiveMongoTemplate.updateFirst(pendingAddressSupply(id, requestedAt), update, Crawler.class).then();
+    }
+
+    @Override
+    public Flux<Crawler> findDueForRun(Instant now, int limit) {
+        var query = query(where("nextRunAt").lte(now)).with(Sort.by("nextRunAt")).limit(limit);
+        query.fields().include("id", "nextRunAt", "config.schedule");
+        return reactiveMongoTemplate.find(query, Crawler.class);
+    }
+
+    @Override
+    public Mono<Boolean> claimRun(UUID id, Instant nextRunAt, Instant leasedUntil) {
+        return reactiveMongoTemplate.updateFirst(query(where("id").is(id).and("nextRunAt").is(nextRunAt)),
+                new Update().set("nextRunAt", leasedUntil), Crawler.class).map(result -> result.getModifiedCount() == 1);
+    }
+
+    @Override
+    public Mono<Void> scheduleNextRun(UUID id, Instant leasedUntil, Instant nextRunAt) {
+        var update = nextRunAt == null ? new Update().unset("nextRunAt") : new Update().set("nextRunAt", nextRunAt);
+        return reactiveMongoTemplate.updateFirst(query(where("id").is(id).and("nextRunAt").is(leasedUntil)), update,
+                Crawler.class).then();
+    }
+
+    @Override
+    public Flux<Crawler> findUnscheduled() {
+        var query = query(where("config.schedule").ne(null).and("nextRunAt").exists(false));
+        query.fields().include("id", "config.schedule");
+        return reactiveMongoTemplate.find(query, Crawler.class);
+    }
+
+    @Override
+    public Mono<Void> initNextRun(UUID id, Instant nextRunAt) {
+        return reactiveMongoTemplate.updateFirst(query(where("id").is(id).and("nextRunAt").exists(false)),
+                new Update().set("nextRunAt", nextRunAt), Crawler.class).then();
+    }
+
+    @Override
+    public Flux<CrawlerStatusCount> countByStatus() {
+        return reactiveMongoTemplate.aggregate(newAggregation(group("status").count().as("count")), Crawler.class,
+                CrawlerStatusCount.class);
+    }
+
+    private static Update configUpdate(Crawler crawler) {
+        return new Update().set("name", crawler.name()).set("config", crawler.config())
+                .set("sharedConfigId", crawler.sharedConfigId()).set("nextRunAt", crawler.nextRunAt())
+                .currentDate("updatedAt").inc("version", 1);
+    }
+
+    private static Criteria range(String property, Instant after, Instant before) {
+        if (after == null && before == null) {
+            return null;
+        }
+        var criteria = where(property);
+        if (after != null) {
+            criteria.gt(after);
+        }
+        if (before != null) {
+            criteria.lt(before);
+        }
+        return criteria;
+    }
+
+    private static String escapeRegex(String literal) {
+        var escaped = new StringBuilder(literal.length() + 8);
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Runs a query of crawlers with {@link CrawlerCodec} decoding the results straight from BSON, for the queries that
+     * read many crawlers at once. Only filter, fields and sort are mapped by the template.
+     */
+    private Flux<Crawler> decode(Query query) {
+        var entity = reactiveMongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Crawler.class);
+        var filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        var projection = queryMapper.getMappedFields(query.getFieldsObject(), entity);
+        var sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+
+        return reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(Crawler.class))
+                .flatMapMany(collection -> {
+                    var codecRegistry = CodecRegistries.fromRegistries(CodecRegistries.fromCodecs(CrawlerCodec.INSTANCE),
+                            collection.getCodecRegistry());
+                    var find = collection.withCodecRegistry(codecRegistry).withDocumentClass(Crawler.class)
+                            .find(filter).projection(projection).sort(sort).limit(query.getLimit());
+                    var batchSize = query.getMeta().getCursorBatchSize();
+                    return batchSize == null ? find : find.batchSize(batchSize);
+                });
+    }
+
+    /**
+     * The driver exception of a bulk write, which the template translates into exceptions that wrap it.
+     */
+    private static MongoBulkWriteException bulkWriteException(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                return bulkWriteException;
+            }
+        }
+        return null;
+    }
+
+    private static void include(Query query, Set<CrawlerField> fields) {
+        fields.forEach(field -> query.fields().include(field.getProperty()));
+        // the config is only complete together with its shared part
+        if (fields.contains(CrawlerField.CONFIG)) {
+            query.fields().include("sharedConfigId");
+        }
+    }
+
+    private static Update statusUpdate(CrawlerStatus to, AddressSupplyRequest addressSupply) {
+        var update = new Update().set("status", to).currentDate("updatedAt").inc("version", 1);
+        if (addressSupply != null) {
+            update.set("pendingAddressSupply", addressSupply);
+        }
+        return update;
+    }
+
+    private static Query pendingAddressSupply(UUID id, Instant requestedAt) {
+        return query(where("id").is(id).and("pendingAddressSupply.requestedAt").is(requestedAt));
+    }
+}
@@ -0,0 +1,18 @@
+package at.hypercrawler.managerservice.domain.repository;
+
+import at.hypercrawler.managerservice.domain.model.CrawlerSeed;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface CrawlerSeedRepository
+        extends ReactiveMongoRepository<CrawlerSeed, String> {
+
+    Mono<Long> deleteByCrawlerIdAndUpload(UUID crawlerId, String upload);
+
+    Mono<Long> deleteByCrawlerIdIn(Collection<UUID> crawlerIds);
+}
@@ -0,0 +1,10 @@
+package at.hypercrawler.managerservice.domain.repository;
+
+import at.hypercrawler.managerservice.domain.model.SharedCrawlerConfig;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SharedCrawlerConfigRepository
+        extends ReactiveMongoRepository<SharedCrawlerConfig, String> {
+}
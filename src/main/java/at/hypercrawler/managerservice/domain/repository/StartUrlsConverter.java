@@ -0,0 +1,30 @@
+package at.hypercrawler.managerservice.domain.repository;
+
+import at.hypercrawler.managerservice.domain.model.CompactStartUrls;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+import java.util.List;
+
+/**
+ * Stores {@link CompactStartUrls} as binary in their encoded form and any other list as an array. Reading wraps the
+ * binary without decoding it.
+ */
+public class StartUrlsConverter
+        implements MongoValueConverter<List<String>, Object> {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> read(Object value, MongoConversionContext context) {
+        if (value instanceof Binary binary) {
+            return CompactStartUrls.decode(binary.getData());
+        }
+        return (List<String>) value;
+    }
+
+    @Override
+    public Object write(List<String> value, MongoConversionContext context) {
+        return value instanceof CompactStartUrls compact ? new Binary(compact.encoded()) : value;
+    }
+}
@@ -0,0 +1,138 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.model.CompactStartUrls;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.repository.CrawlerChangeStream;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Size bounded cache of crawlers by id. Service mutations write through to it, writes of other replicas evict entries
+ * through the crawler change stream. While the change stream is down the cache is bypassed, since it could not learn
+ * about foreign writes, and it is cleared whenever the change stream is (re)opened.
+ */
+@Slf4j
+@Component
+public class CrawlerCache {
+
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final AsyncCache<UUID, Crawler> cache;
+    private final CrawlerChangeStream crawlerChangeStream;
+    private final CrawlerManagerProperties.Cache settings;
+
+    private volatile boolean coherent;
+    private Disposable invalidation;
+
+    public CrawlerCache(CrawlerChangeStream crawlerChangeStream, CrawlerManagerProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.crawlerChangeStream = crawlerChangeStream;
+        this.settings = properties.cache();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(settings.maximumWeight())
+                .weigher((UUID id, Crawler crawler) -> weigh(crawler))
+                .expireAfterWrite(settings.expireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "crawler");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        invalidation = crawlerChangeStream.changes()
+                .doOnSubscribe(subscription -> {
+                    // changes made while the stream was down are unknown, start over
+                    cache.synchronous().invalidateAll();
+                    coherent = true;
+                })
+                .doOnNext(this::invalidate)
+                .doOnError(e -> {
+                    coherent = false;
+                    cache.synchronous().invalidateAll();
+                    log.warn("Crawler change stream failed, bypassing the crawler cache until it is reopened: {}",
+                            e.getMessage());
+                })
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, settings.reconnectInterval()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (invalidation != null) {
+            invalidation.dispose();
+        }
+    }
+
+    /**
+     * Returns the cached crawler or loads it. Concurrent lookups of the same id share one load, a crawler that does
+     * not exist is not cached.
+     */
+    public Mono<Crawler> get(UUID id, Function<UUID, Mono<Crawler>> loader) {
+        if (!coherent) {
+            return loader.apply(id);
+        }
+        // the load is shared with other lookups, one of them cancelling must not cancel it for the rest
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    /**
+     * Returns the cached crawler without loading it.
+     */
+    public Mono<Crawler> getIfPresent(UUID id) {
+        var cached = coherent ? cache.getIfPresent(id) : null;
+        return cached == null ? Mono.empty() : Mono.fromFuture(cached, true);
+    }
+
+    public void put(Crawler crawler) {
+        if (coherent) {
+            cache.put(crawler.id(), CompletableFuture.completedFuture(crawler));
+        }
+    }
+
+    public void invalidate(UUID id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public void invalidateAll(Collection<UUID> ids) {
+        cache.synchronous().invalidateAll(ids);
+    }
+
+    private void invalidate(ChangeStreamEvent<Crawler> event) {
+        var id = CrawlerChangeStream.crawlerId(event);
+        if (id == null) {
+            cache.synchronous().invalidateAll();
+        } else {
+            invalidate(id);
+        }
+    }
+
+    private static int weigh(Crawler crawler) {
+        // rough estimate of the retained size, dominated by the start urls of large crawlers
+        long weight = ENTRY_OVERHEAD + 2L * (crawler.name() == null ? 0 : crawler.name().length());
+        if (crawler.config() != null && crawler.config().startUrls() instanceof CompactStartUrls compact) {
+            weight += compact.encoded().length;
+        } else if (crawler.config() != null && crawler.config().startUrls() != null) {
+            for (String startUrl : crawler.config().startUrls()) {
+                weight += 64 + 2L * startUrl.length();
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+}
@@ -1,113 +1,428 @@
 package at.hypercrawler.managerservice.domain.service;
 
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
 import at.hypercrawler.managerservice.domain.exception.CrawlerAlreadyExistsException;
+import at.hypercrawler.managerservice.domain.exception.CrawlerModifiedException;
 import at.hypercrawler.managerservice.domain.exception.CrawlerNotFoundException;
+import at.hypercrawler.managerservice.domain.exception.CrawlerStatusTransitionException;
+import at.hypercrawler.managerservice.domain.exception.InvalidFilterPatternException;
+import at.hypercrawler.managerservice.domain.exception.InvalidScheduleException;
+import at.hypercrawler.managerservice.domain.exception.InvalidStartUrlException;
+import at.hypercrawler.managerservice.domain.model.AddressSupplyRequest;
+import at.hypercrawler.managerservice.domain.model.CompactStartUrls;
 import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerBatchResult;
 import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.domain.model.CrawlerConfigView;
+import at.hypercrawler.managerservice.domain.model.CrawlerCursor;
+import at.hypercrawler.managerservice.domain.model.CrawlerField;
+import at.hypercrawler.managerservice.domain.model.CrawlerOrder;
+import at.hypercrawler.managerservice.domain.model.CrawlerPage;
+import at.hypercrawler.managerservice.domain.model.CrawlerSearch;
 import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatusChange;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatusView;
+import at.hypercrawler.managerservice.domain.model.CrawlerVersionView;
+import at.hypercrawler.managerservice.domain.model.UrlFilter;
 import at.hypercrawler.managerservice.domain.repository.CrawlerManagerRepository;
-import at.hypercrawler.managerservice.event.AddressSuppliedMessage;
-import java.net.MalformedURLException;
-import java.net.URL;
+import at.hypercrawler.managerservice.event.AddressSupplyRelay;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Slf4j
 @Service
 public class CrawlerManagerService {
-    public static final String SUPPLY_ADDRESS_OUT = "supplyAddress-out-0";
-
     private final CrawlerManagerRepository crawlerManagerRepository;
-    private final StreamBridge streamBridge;
+    private final AddressSupplyRelay addressSupplyRelay;
+    private final StartUrlCanonicalizer startUrlCanonicalizer;
+    private final CrawlerCache crawlerCache;
+    private final CrawlerStatusFeed crawlerStatusFeed;
+    private final CrawlerSchedules crawlerSchedules;
+    private final SharedCrawlerConfigs sharedCrawlerConfigs;
+    private final IdempotencyKeys idempotencyKeys;
+    private final CrawlerSeeds crawlerSeeds;
+    private final UrlFilters urlFilters;
+    private final CrawlerOperationMetrics metrics;
+    private final CrawlerManagerProperties.Listing listing;
+    private final CrawlerManagerProperties.StartUrls startUrls;
 
-    public CrawlerManagerService(CrawlerManagerRepository crawlerManagerRepository, StreamBridge streamBridge) {
+    public CrawlerManagerService(CrawlerManagerRepository crawlerManagerRepository, AddressSupplyRelay addressSupplyRelay,
+                                 StartUrlCanonicalizer startUrlCanonicalizer, CrawlerCache crawlerCache,
+                                 CrawlerStatusFeed crawlerStatusFeed, CrawlerSchedules crawlerSchedules,
+                                 SharedCrawlerConfigs sharedCrawlerConfigs, IdempotencyKeys idempotencyKeys,
+                                 CrawlerSeeds crawlerSeeds, UrlFilters urlFilters, CrawlerOperationMetrics metrics,
+                                 CrawlerManagerProperties properties) {
         this.crawlerManagerRepository = crawlerManagerRepository;
-        this.streamBridge = streamBridge;
+        this.addressSupplyRelay = addressSupplyRelay;
+        this.startUrlCanonicalizer = startUrlCanonicalizer;
+        this.crawlerCache = crawlerCache;
+        this.crawlerStatusFeed = crawlerStatusFeed;
+        this.crawlerSchedules = crawlerSchedules;
+        this.sharedCrawlerConfigs = sharedCrawlerConfigs;
+        this.idempotencyKeys = idempotencyKeys;
+        this.crawlerSeeds = crawlerSeeds;
+        this.urlFilters = urlFilters;
+        this.metrics = metrics;
+        this.listing = properties.listing();
+        this.startUrls = properties.startUrls();
+    }
+
+    public Mono<CrawlerPage> findPage(CrawlerSearch search, CrawlerCursor after, Integer limit, Set<CrawlerField> fields) {
+        int pageSize = limit == null ? listing.defaultPageSize() : Math.min(Math.max(limit, 1), listing.maxPageSize());
+
+        // read one crawler more than requested to find out whether another page follows
+        return metrics.timed("findPage", crawlerManagerRepository.findAllAfter(search, after, pageSize + 1,
+                        Math.min(pageSize + 1, listing.cursorBatchSize()), fields)
+                .collectList().flatMap(sharedCrawlerConfigs::resolveAll).map(crawlers -> {
+                    if (crawlers.size() <= pageSize) {
+                        return new CrawlerPage(crawlers, null);
+                    }
+                    var page = crawlers.subList(0, pageSize);
+                    return new CrawlerPage(page, CrawlerCursor.of(CrawlerOrder.of(search), page.get(pageSize - 1)));
+                }));
     }
 
-    public Flux<Crawler> findAll() {
-        return crawlerManagerRepository.findAll();
+    public Flux<Crawler> streamAll(CrawlerSearch search, CrawlerCursor after, Set<CrawlerField> fields) {
+        return crawlerManagerRepository.findAllAfter(search, after, 0, listing.cursorBatchSize(), fields)
+                // shared configs are resolved per cursor batch, with one query for those that are not in memory
+                .buffer(listing.cursorBatchSize())
+                .concatMap(sharedCrawlerConfigs::resolveAll)
+                .concatMapIterable(crawlers -> crawlers)
+                .limitRate(listing.cursorBatchSize());
     }
 
     public Mono<Crawler> findById(UUID uuid) {
-        return crawlerManagerRepository.findById(uuid).switchIfEmpty(Mono.error(new CrawlerNotFoundException(uuid)));
+        return metrics.timed("findById", crawlerCache.get(uuid,
+                        id -> crawlerManagerRepository.findById(id).flatMap(sharedCrawlerConfigs::resolve))
+                .switchIfEmpty(Mono.error(new CrawlerNotFoundException(uuid))));
+    }
+
+    /**
+     * Reads status and version of a crawler, from the cache if it is there and otherwise without reading its config.
+     */
+    public Mono<CrawlerStatusView> findStatusById(UUID uuid) {
+        return metrics.timed("findStatusById", crawlerCache.getIfPresent(uuid).map(CrawlerStatusView::of)
+                .switchIfEmpty(Mono.defer(() -> crawlerManagerRepository.findStatusById(uuid)))
+                .switchIfEmpty(Mono.error(new CrawlerNotFoundException(uuid))));
+    }
+
+    /**
+     * Reads config and version of a crawler, from the cache if it is there and otherwise without reading the rest of
+     * the crawler.
+     */
+    public Mono<CrawlerConfigView> findConfigById(UUID uuid) {
+        return metrics.timed("findConfigById", crawlerCache.getIfPresent(uuid).map(CrawlerConfigView::of)
+                .switchIfEmpty(Mono.defer(() -> crawlerManagerRepository.findConfigById(uuid)
+                        .flatMap(view -> sharedCrawlerConfigs.resolve(new Crawler(uuid, null, view.config(), null, null, null,
+                                view.version(), null, null, view.sharedConfigId())))
+                        .map(CrawlerConfigView::of)))
+                .switchIfEmpty(Mono.error(new CrawlerNotFoundException(uuid))));
+    }
+
+    /**
+     * Reads just the version of a crawler, from the cache if it is there and otherwise without reading the crawler.
+     */
+    public Mono<Integer> findVersionById(UUID uuid) {
+        return metrics.timed("findVersionById", crawlerCache.getIfPresent(uuid).map(Crawler::version)
+                .switchIfEmpty(Mono.defer(() -> crawlerManagerRepository.findVersionById(uuid).map(CrawlerVersionView::version)))
+                .switchIfEmpty(Mono.error(new CrawlerNotFoundException(uuid))));
+    }
+
+    public Flux<CrawlerStatusChange> streamStatusChanges(String lastResumeToken) {
+        return crawlerStatusFeed.changes(lastResumeToken);
+    }
+
+    public Flux<CrawlerStatusChange> streamStatusChanges(UUID uuid, String lastResumeToken) {
+        if (lastResumeToken != null) {
+            return crawlerStatusFeed.changes(lastResumeToken).filter(change -> change.id().equals(uuid));
+        }
+
+        // changes are taken from before the current status is read, one in between is rather sent twice than missed
+        var changes = crawlerStatusFeed.changes(null).filter(change -> change.id().equals(uuid));
+        return findStatusById(uuid).map(view -> new CrawlerStatusChange(uuid, view.status(), null)).concatWith(changes);
     }
 
     public Mono<Crawler> createCrawler(Crawler crawler) {
-        return crawlerManagerRepository.existsById(crawler.id()).flatMap(exists -> {
-            if (Boolean.TRUE.equals(exists)) {
-                return Mono.error(new CrawlerAlreadyExistsException(crawler.id()));
-            }
-            return crawlerManagerRepository.save(crawler);
-        });
+        return createCrawler(crawler, null);
     }
 
+    /**
+     * Creates a crawler with a single insert, retries with the same idempotency key return the crawler of the first
+     * request instead.
+     *
+     * @param idempotencyKey key of the request, {@code null} if it has none
+     */
+    public Mono<Crawler> createCrawler(Crawler crawler, String idempotencyKey) {
+        return metrics.timed("createCrawler", idempotencyKeys.createOnce(idempotencyKey, crawler,
+                () -> Mono.fromCallable(() -> prepare(crawler))
+                        .flatMap(sharedCrawlerConfigs::share)
+                        .flatMap(this::insertCrawler),
+                this::findById));
+    }
+
+    private Mono<Crawler> insertCrawler(Crawler crawler) {
+        // the unique id index rejects a second crawler with the same id, no need to look for it first
+        return crawlerManagerRepository.insert(crawler)
+                .onErrorMap(DuplicateKeyException.class, e -> new CrawlerAlreadyExistsException(crawler.id()))
+                .flatMap(sharedCrawlerConfigs::resolve)
+                .doOnNext(crawlerCache::put);
+    }
 
     public Mono<Crawler> startCrawler(UUID uuid) {
-        return updateCrawlerStatus(uuid, CrawlerStatus.STARTED);
+        return metrics.timed("startCrawler", updateCrawlerStatus(uuid, CrawlerStatus.STARTED));
     }
 
     public Mono<Crawler> stopCrawler(UUID uuid) {
-        return updateCrawlerStatus(uuid, CrawlerStatus.STOPPED);
+        return metrics.timed("stopCrawler", updateCrawlerStatus(uuid, CrawlerStatus.STOPPED));
     }
 
     public Mono<Void> deleteCrawler(UUID uuid) {
-        return crawlerManagerRepository.deleteById(uuid);
+        return metrics.timed("deleteCrawler", crawlerManagerRepository.deleteById(uuid)
+                .doOnSuccess(deleted -> crawlerCache.invalidate(uuid))
+                .then(crawlerSeeds.deleteAll(Set.of(uuid))));
     }
 
-    public Mono<Crawler> updateCrawler(UUID uuid, String name, CrawlerConfig config) {
-        UnaryOperator<Crawler> updateCrawler =
-                c -> new Crawler(c.id(), name, config, c.status(), c.createdAt(), c.updatedAt(),
-                        c.version());
-        return crawlerManagerRepository.findById(uuid).map(updateCrawler)
-                .flatMap(crawlerManagerRepository::save)
-                .switchIfEmpty(Mono.error(new CrawlerNotFoundException(uuid)));
+    /**
+     * Adds start urls to the seeds of a crawler, which are sent after the start urls of its config when it is started.
+     *
+     * @return number of urls added
+     */
+    public Mono<Long> appendSeeds(UUID uuid, Flux<String> urls) {
+        return metrics.timed("appendSeeds", findById(uuid).flatMap(crawler -> crawlerSeeds.append(crawler, urls)));
     }
 
-    private Mono<Crawler> updateCrawlerStatus(UUID uuid, CrawlerStatus status) {
-        UnaryOperator<Crawler> applyStatus =
-                c -> new Crawler(c.id(), c.name(), c.config(), status, c.createdAt(), c.updatedAt(),
-                        c.version());
-
-        return crawlerManagerRepository.findById(uuid).map(applyStatus).flatMap(crawlerManagerRepository::save)
-                .switchIfEmpty(Mono.error(new CrawlerNotFoundException(uuid))).doOnNext(crawler -> {
-                    if (status == CrawlerStatus.STARTED) {
-                        publishAddressSupplyEvent(crawler);
-                    }
+    /**
+     * Reads the compiled filter of a crawler, which is shared by all crawlers with the same filter options.
+     */
+    public Mono<UrlFilter> findUrlFilter(UUID uuid) {
+        return findById(uuid).map(crawler -> urlFilters.get(crawler.config().filterOptions()));
+    }
+
+    /**
+     * Updates name and config of a crawler with a single conditional write.
+     *
+     * @param expectedVersion version the crawler must still have, {@code null} to overwrite any version
+     */
+    public Mono<Crawler> updateCrawler(UUID uuid, Integer expectedVersion, String name, CrawlerConfig config) {
+        return metrics.timed("updateCrawler", Mono.fromCallable(() ->
+                        prepare(new Crawler(uuid, name, config, null, null, null, 0, null, null, null)))
+                .flatMap(sharedCrawlerConfigs::share)
+                .flatMap(crawler -> crawlerManagerRepository.update(crawler, expectedVersion))
+                .flatMap(sharedCrawlerConfigs::resolve)
+                .doOnNext(crawlerCache::put)
+                .switchIfEmpty(Mono.defer(() -> rejectUpdate(uuid, expectedVersion))));
+    }
+
+    public Flux<CrawlerBatchResult> createCrawlers(List<Crawler> crawlers) {
+        return metrics.timed("createCrawlers", Flux.defer(() -> insertCrawlers(crawlers)));
+    }
+
+    private Flux<CrawlerBatchResult> insertCrawlers(List<Crawler> crawlers) {
+        var rejected = new ArrayList<CrawlerBatchResult>();
+        var accepted = prepareAll(crawlers, rejected);
+        if (accepted.isEmpty()) {
+            return Flux.fromIterable(rejected);
+        }
+
+        // the crawlers are not cached, they are read into the cache on first access with their audited dates
+        return sharedCrawlerConfigs.shareAll(accepted)
+                .flatMap(crawlerManagerRepository::insertAll)
+                .flatMapMany(errors -> Flux.range(0, accepted.size()).map(index -> {
+                    var id = accepted.get(index).id();
+                    var error = errors.get(index);
+                    return error == null ? CrawlerBatchResult.succeeded(id, HttpStatus.CREATED)
+                            : CrawlerBatchResult.failed(id, insertFailure(id, error));
+                }))
+                // only a write that failed as a whole ends up here, which of its crawlers were inserted is unknown
+                .onErrorResume(e -> Flux.fromIterable(accepted).map(crawler -> CrawlerBatchResult.failed(crawler.id(),
+                        new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()))))
+                .concatWith(Flux.fromIterable(rejected));
+    }
+
+    private static ResponseStatusException insertFailure(UUID id, BulkWriteError error) {
+        return ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+                ? new CrawlerAlreadyExistsException(id)
+                : new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, error.getMessage());
+    }
+
+    public Flux<CrawlerBatchResult> updateCrawlers(List<Crawler> crawlers) {
+        return metrics.timed("updateCrawlers", Flux.defer(() -> updateExistingCrawlers(crawlers)));
+    }
+
+    private Flux<CrawlerBatchResult> updateExistingCrawlers(List<Crawler> crawlers) {
+        var rejected = new ArrayList<CrawlerBatchResult>();
+        var accepted = prepareAll(crawlers, rejected);
+        var ids = accepted.stream().map(Crawler::id).collect(Collectors.toSet());
+
+        return findExisting(ids).flatMapMany(existing -> {
+            var updates = accepted.stream().filter(crawler -> existing.contains(crawler.id())).toList();
+            return sharedCrawlerConfigs.shareAll(updates).flatMap(crawlerManagerRepository::updateAll)
+                    .doOnSuccess(matched -> crawlerCache.invalidateAll(existing))
+                    // crawlers deleted since they were read are not matched, only then are they read again
+                    .flatMap(matched -> matched == updates.size() ? Mono.just(existing) : findExisting(existing))
+                    .flatMapMany(updated -> Flux.fromIterable(accepted).map(crawler ->
+                            updated.contains(crawler.id())
+                                    ? CrawlerBatchResult.succeeded(crawler.id(), HttpStatus.OK)
+                                    : CrawlerBatchResult.failed(crawler.id(), new CrawlerNotFoundException(crawler.id()))));
+        }).concatWith(Flux.fromIterable(rejected));
+    }
+
+    public Flux<CrawlerBatchResult> startCrawlers(Set<UUID> ids, CrawlerStatus filter) {
+        return metrics.timed("startCrawlers", updateCrawlerStatuses(ids, filter, CrawlerStatus.STARTED));
+    }
+
+    public Flux<CrawlerBatchResult> stopCrawlers(Set<UUID> ids, CrawlerStatus filter) {
+        return metrics.timed("stopCrawlers", updateCrawlerStatuses(ids, filter, CrawlerStatus.STOPPED));
+    }
+
+    public Flux<CrawlerBatchResult> deleteCrawlers(Set<UUID> ids, CrawlerStatus filter) {
+        return metrics.timed("deleteCrawlers", crawlerManagerRepository.findSelection(ids, filter, EnumSet.of(CrawlerField.ID))
+                .map(Crawler::id)
+                .collect(Collectors.toSet()).flatMapMany(existing -> crawlerManagerRepository.deleteAllById(existing)
+                        .doOnSuccess(deleted -> crawlerCache.invalidateAll(existing))
+                        .then(crawlerSeeds.deleteAll(existing))
+                        .thenMany(Flux.concat(
+                                Flux.fromIterable(existing).map(id -> CrawlerBatchResult.succeeded(id, HttpStatus.NO_CONTENT)),
+                                missingFromSelection(ids, existing)))));
+    }
+
+    private Flux<CrawlerBatchResult> updateCrawlerStatuses(Set<UUID> ids, CrawlerStatus filter, CrawlerStatus status) {
+        var allowed = status.allowedPredecessors();
+
+        return crawlerManagerRepository.findSelection(ids, filter, EnumSet.of(CrawlerField.ID, CrawlerField.STATUS))
+                .collectList().flatMapMany(found -> {
+                    var eligible = found.stream().filter(crawler -> allowed.contains(crawler.status()))
+                            .map(Crawler::id).collect(Collectors.toSet());
+                    var rejected = Flux.fromIterable(found).filter(crawler -> !eligible.contains(crawler.id()))
+                            .map(crawler -> CrawlerBatchResult.failed(crawler.id(),
+                                    new CrawlerStatusTransitionException(crawler.id(), status)));
+                    var existing = found.stream().map(Crawler::id).collect(Collectors.toSet());
+
+                    // the address supplies of a batch start are written with the status and relayed together
+                    return crawlerManagerRepository.updateStatus(eligible, allowed, status, addressSupplyFor(status))
+                            .doOnNext(updated -> {
+                                crawlerCache.invalidateAll(eligible);
+                                wakeUpRelay(status);
+                            })
+                            .flatMapMany(updated -> Flux.concat(
+                                    updated == eligible.size()
+                                            ? Flux.fromIterable(eligible).map(id -> CrawlerBatchResult.succeeded(id, HttpStatus.OK))
+                                            : confirmStatus(eligible, status),
+                                    rejected,
+                                    missingFromSelection(ids, existing)));
                 });
     }
 
-    private void publishAddressSupplyEvent(Crawler crawler) {
-        UUID crawlerId = crawler.id();
+    /**
+     * Reports the outcome of a status update that did not match all crawlers it was meant for, as some were changed or
+     * deleted after they had been read. Crawlers in the requested status succeeded, although another request may have
+     * brought them there.
+     */
+    private Flux<CrawlerBatchResult> confirmStatus(Set<UUID> ids, CrawlerStatus status) {
+        return crawlerManagerRepository.findSelection(ids, null, EnumSet.of(CrawlerField.ID, CrawlerField.STATUS))
+                .collectMap(Crawler::id, Crawler::status)
+                .flatMapIterable(current -> ids.stream().map(id -> {
+                    var found = current.get(id);
+                    if (found == null) {
+                        return CrawlerBatchResult.failed(id, new CrawlerNotFoundException(id));
+                    }
+                    return found == status
+                            ? CrawlerBatchResult.succeeded(id, HttpStatus.OK)
+                            : CrawlerBatchResult.failed(id, new CrawlerStatusTransitionException(id, status));
+                }).toList());
+    }
+
+    private Mono<Set<UUID>> findExisting(Set<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+        return crawlerManagerRepository.findSelection(ids, null, EnumSet.of(CrawlerField.ID)).map(Crawler::id)
+                .collect(Collectors.toSet());
+    }
 
-        List<URL> publishAddresses = identifyPublishAdresses(crawler);
+    private Flux<CrawlerBatchResult> missingFromSelection(Set<UUID> ids, Set<UUID> existing) {
+        if (ids == null) {
+            return Flux.empty();
+        }
+        return Flux.fromIterable(ids).filter(id -> !existing.contains(id))
+                .map(id -> CrawlerBatchResult.failed(id, new CrawlerNotFoundException(id)));
+    }
 
-        var addressSupplyMessage = new AddressSuppliedMessage(crawlerId, publishAddresses);
-        log.info("Sending data with {} addresses of crawler with id: {}", publishAddresses.size(), crawlerId);
+    private Mono<Crawler> updateCrawlerStatus(UUID uuid, CrawlerStatus status) {
+        return crawlerManagerRepository.updateStatus(uuid, status.allowedPredecessors(), status, addressSupplyFor(status))
+                .flatMap(sharedCrawlerConfigs::resolve)
+                .doOnNext(crawlerCache::put)
+                .switchIfEmpty(Mono.defer(() -> rejectStatusTransition(uuid, status)))
+                .doOnNext(crawler -> wakeUpRelay(status));
+    }
 
-        var result = streamBridge.send(SUPPLY_ADDRESS_OUT, addressSupplyMessage);
-        log.info("Result of sending address {} for crawler with id: {} is {}", publishAddresses, crawlerId, result);
+    private Mono<Crawler> rejectUpdate(UUID uuid, Integer expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.error(new CrawlerNotFoundException(uuid));
+        }
+        return crawlerManagerRepository.existsById(uuid).flatMap(exists -> Mono.error(Boolean.TRUE.equals(exists)
+                ? new CrawlerModifiedException(uuid)
+                : new CrawlerNotFoundException(uuid)));
     }
 
-    private List<URL> identifyPublishAdresses(Crawler crawler) {
-        List<URL> publishAdresses = new ArrayList<>();
+    private Mono<Crawler> rejectStatusTransition(UUID uuid, CrawlerStatus status) {
+        // only reached when the conditional update matched nothing, so the extra lookup stays off the happy path
+        return crawlerManagerRepository.existsById(uuid).flatMap(exists -> Mono.error(Boolean.TRUE.equals(exists)
+                ? new CrawlerStatusTransitionException(uuid, status)
+                : new CrawlerNotFoundException(uuid)));
+    }
 
-        for (String address : crawler.config().startUrls()) {
+    /**
+     * Compiles the filter options of a crawler, which rejects invalid patterns, brings its start urls into canonical
+     * form, compacts them if there are many and schedules its next run.
+     */
+    private Crawler prepare(Crawler crawler) {
+        var filter = urlFilters.get(crawler.config().filterOptions());
+        var config = compact(startUrlCanonicalizer.canonicalize(crawler.config(), filter));
+        return crawler.withConfig(config).withNextRunAt(crawlerSchedules.nextRunAt(config, Instant.now()));
+    }
+
+    private CrawlerConfig compact(CrawlerConfig config) {
+        var urls = config.startUrls();
+        if (startUrls.compactThreshold() < 0 || urls.size() < startUrls.compactThreshold()) {
+            return config;
+        }
+        return config.toBuilder().startUrls(CompactStartUrls.of(urls, startUrls.deflate())).build();
+    }
+
+    private List<Crawler> prepareAll(List<Crawler> crawlers, List<CrawlerBatchResult> rejected) {
+        var accepted = new ArrayList<Crawler>(crawlers.size());
+        for (Crawler crawler : crawlers) {
             try {
-                publishAdresses.add(new URL(address));
-            } catch (MalformedURLException e) {
-                log.warn("Error while parsing address: {} with error: {}", address, e.getMessage());
+                accepted.add(prepare(crawler));
+            } catch (InvalidStartUrlException | InvalidScheduleException | InvalidFilterPatternException e) {
+                rejected.add(CrawlerBatchResult.failed(crawler.id(), e));
             }
         }
+        return accepted;
+    }
+
+    private static AddressSupplyRequest addressSupplyFor(CrawlerStatus status) {
+        return status == CrawlerStatus.STARTED ? AddressSupplyRequest.requestedAt(Instant.now()) : null;
+    }
 
-        return publishAdresses;
+    private void wakeUpRelay(CrawlerStatus status) {
+        if (status == CrawlerStatus.STARTED) {
+            addressSupplyRelay.wakeUp();
+        }
     }
 }
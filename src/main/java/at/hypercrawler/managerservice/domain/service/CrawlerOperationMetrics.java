@@ -0,0 +1,50 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times the operations of the {@link CrawlerManagerService} from subscription until they complete, fail or are
+ * cancelled, tagged by operation, outcome and exception.
+ */
+@Component
+public class CrawlerOperationMetrics {
+
+    static final String TIMER = "crawler.service.operation";
+
+    private final MeterRegistry meterRegistry;
+
+    public CrawlerOperationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Mono<T> timed(String operation, Mono<T> mono) {
+        return Mono.defer(() -> {
+            var sample = Timer.start(meterRegistry);
+            return mono.doOnSuccess(value -> stop(sample, operation, "success", null))
+                    .doOnError(e -> stop(sample, operation, "error", e))
+                    .doOnCancel(() -> stop(sample, operation, "cancelled", null));
+        });
+    }
+
+    public <T> Flux<T> timed(String operation, Flux<T> flux) {
+        return Flux.defer(() -> {
+            var sample = Timer.start(meterRegistry);
+            return flux.doOnComplete(() -> stop(sample, operation, "success", null))
+                    .doOnError(e -> stop(sample, operation, "error", e))
+                    .doOnCancel(() -> stop(sample, operation, "cancelled", null));
+        });
+    }
+
+    private void stop(Timer.Sample sample, String operation, String outcome, Throwable error) {
+        sample.stop(Timer.builder(TIMER)
+                .description("Time taken by crawler operations")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("exception", error == null ? "none" : error.getClass().getSimpleName())
+                .register(meterRegistry));
+    }
+}
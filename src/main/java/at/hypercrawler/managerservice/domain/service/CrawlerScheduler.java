@@ -0,0 +1,117 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.exception.CrawlerNotFoundException;
+import at.hypercrawler.managerservice.domain.exception.CrawlerStatusTransitionException;
+import at.hypercrawler.managerservice.domain.exception.InvalidScheduleException;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.repository.CrawlerManagerRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Starts crawlers according to their schedule. Every crawler with a schedule carries its precomputed next run, each
+ * tick reads the due ones with a single range query on that index, leases them and fires them through the regular
+ * start path. A crawler that is already running when its run is due is left alone until its next run.
+ */
+@Slf4j
+@Component
+public class CrawlerScheduler {
+
+    private final CrawlerManagerRepository crawlerManagerRepository;
+    private final CrawlerManagerService crawlerManagerService;
+    private final CrawlerSchedules crawlerSchedules;
+    private final CrawlerManagerProperties.Scheduler scheduler;
+
+    private Disposable ticks;
+
+    public CrawlerScheduler(CrawlerManagerRepository crawlerManagerRepository, CrawlerManagerService crawlerManagerService,
+                            CrawlerSchedules crawlerSchedules, CrawlerManagerProperties properties) {
+        this.crawlerManagerRepository = crawlerManagerRepository;
+        this.crawlerManagerService = crawlerManagerService;
+        this.crawlerSchedules = crawlerSchedules;
+        this.scheduler = properties.scheduler();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!scheduler.enabled()) {
+            return;
+        }
+        ticks = scheduleUnscheduled().thenMany(Flux.interval(scheduler.tickInterval()))
+                .onBackpressureDrop()
+                .concatMap(tick -> fireDueRuns().onErrorResume(e -> {
+                    log.warn("Error while firing scheduled crawler runs: {}", e.getMessage());
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticks != null) {
+            ticks.dispose();
+        }
+    }
+
+    private Mono<Void> fireDueRuns() {
+        var now = Instant.now();
+        return crawlerManagerRepository.findDueForRun(now, scheduler.batchSize())
+                .flatMap(crawler -> fire(crawler, now), scheduler.concurrency())
+                .then();
+    }
+
+    private Mono<Void> fire(Crawler crawler, Instant now) {
+        // Mongo keeps milliseconds, the lease has to match what is read back
+        var leasedUntil = now.plus(scheduler.lease()).truncatedTo(ChronoUnit.MILLIS);
+
+        return crawlerManagerRepository.claimRun(crawler.id(), crawler.nextRunAt(), leasedUntil)
+                .filter(Boolean::booleanValue)
+                .flatMap(claimed -> crawlerManagerService.startCrawler(crawler.id())
+                        .doOnNext(started -> log.info("Started the crawler with id: {} as scheduled", crawler.id()))
+                        .onErrorResume(CrawlerStatusTransitionException.class, e -> Mono.empty())
+                        .then(Mono.defer(() -> crawlerManagerRepository.scheduleNextRun(crawler.id(), leasedUntil,
+                                nextRunAt(crawler, Instant.now()))))
+                        .onErrorResume(CrawlerNotFoundException.class, e -> Mono.empty()))
+                .onErrorResume(e -> {
+                    // the lease runs out and the run is fired again
+                    log.warn("Firing the scheduled run of crawler with id: {} failed, retrying at {}: {}",
+                            crawler.id(), leasedUntil, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Computes the next run of crawlers that were written before runs were scheduled.
+     */
+    private Mono<Void> scheduleUnscheduled() {
+        return crawlerManagerRepository.findUnscheduled()
+                .concatMap(crawler -> {
+                    var nextRunAt = nextRunAt(crawler, Instant.now());
+                    return nextRunAt == null ? Mono.empty() : crawlerManagerRepository.initNextRun(crawler.id(), nextRunAt);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Error while scheduling the runs of existing crawlers: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Instant nextRunAt(Crawler crawler, Instant after) {
+        try {
+            return crawlerSchedules.nextRunAt(crawler.config(), after);
+        } catch (InvalidScheduleException e) {
+            log.warn("Crawler with id: {} has an invalid schedule and is not run again: {}", crawler.id(), e.getReason());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import at.hypercrawler.managerservice.domain.exception.InvalidScheduleException;
+import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.domain.model.CrawlerSchedule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Parses schedules and computes the next run of a crawler from its config. Crawlers mostly share a handful of
+ * schedules, so parsed schedules are kept by their expression.
+ */
+@Component
+public class CrawlerSchedules {
+
+    private final Cache<String, CrawlerSchedule> parsed = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    public CrawlerSchedule parse(String schedule) {
+        var crawlerSchedule = schedule == null ? null : parsed.get(schedule, CrawlerSchedule::tryParse);
+        if (crawlerSchedule == null) {
+            throw new InvalidScheduleException(schedule);
+        }
+        return crawlerSchedule;
+    }
+
+    /**
+     * Checks a schedule, keeping it parsed for the runs computed once it has been written. Invalid schedules are not
+     * kept.
+     */
+    public boolean isValid(String schedule) {
+        return schedule != null && parsed.get(schedule, CrawlerSchedule::tryParse) != null;
+    }
+
+    /**
+     * @return the next run strictly after {@code after}, or {@code null} if the crawler is not scheduled (anymore)
+     */
+    public Instant nextRunAt(CrawlerConfig config, Instant after) {
+        if (config == null || config.schedule() == null || config.schedule().isBlank()) {
+            return null;
+        }
+        return parse(config.schedule()).nextFireTime(after);
+    }
+}
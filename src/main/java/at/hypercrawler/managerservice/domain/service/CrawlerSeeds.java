@@ -0,0 +1,110 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerSeed;
+import at.hypercrawler.managerservice.domain.repository.CrawlerSeedRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Keeps start urls that are too many to be part of a config in chunks of their own. Uploads are consumed as they
+ * arrive and written in bulk, starting a crawler reads them back with a cursor, so neither ever holds all of them.
+ */
+@Slf4j
+@Component
+public class CrawlerSeeds {
+
+    private final CrawlerSeedRepository crawlerSeedRepository;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final StartUrlCanonicalizer startUrlCanonicalizer;
+    private final UrlFilters urlFilters;
+    private final CrawlerManagerProperties.Seeds seeds;
+
+    public CrawlerSeeds(CrawlerSeedRepository crawlerSeedRepository, ReactiveMongoTemplate reactiveMongoTemplate,
+                        StartUrlCanonicalizer startUrlCanonicalizer, UrlFilters urlFilters,
+                        CrawlerManagerProperties properties) {
+        this.crawlerSeedRepository = crawlerSeedRepository;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.startUrlCanonicalizer = startUrlCanonicalizer;
+        this.urlFilters = urlFilters;
+        this.seeds = properties.seeds();
+    }
+
+    /**
+     * Canonicalizes the given urls with the config of the crawler and adds them to its seeds. Blank urls are skipped,
+     * an invalid one fails the upload and removes what has been written of it, as does cancelling the upload.
+     *
+     * @return number of urls added
+     */
+    public Mono<Long> append(Crawler crawler, Flux<String> urls) {
+        return Mono.defer(() -> {
+            var upload = new ObjectId().toHexString();
+            var canonicalizer = startUrlCanonicalizer.canonicalizer(urlFilters.get(crawler.config().filterOptions()));
+            var chunk = new AtomicInteger();
+            var inFlight = new AtomicReference<CompletableFuture<List<CrawlerSeed>>>(CompletableFuture.completedFuture(null));
+
+            return urls.filter(url -> !url.isBlank())
+                    .map(canonicalizer)
+                    .buffer(seeds.chunkSize())
+                    .map(chunkUrls -> new CrawlerSeed(crawler.id(), upload, chunk.getAndIncrement(), chunkUrls))
+                    .buffer(seeds.insertBatchSize())
+                    // one bulk insert at a time, the upload is only read on as fast as it is written, and a failing
+                    // upload waits for the insert in flight so that the cleanup removes it as well
+                    .concatMapDelayError(batch -> {
+                        // not cancelled with the upload, so the cleanup of a cancelled upload can wait for it
+                        var insert = crawlerSeedRepository.insert(batch).collectList().toFuture();
+                        inFlight.set(insert);
+                        return Mono.fromFuture(insert, true).flatMapIterable(inserted -> inserted);
+                    }, false, 1)
+                    .reduce(0L, (count, seed) -> count + seed.urls().size())
+                    .doOnSuccess(count -> log.info("Added {} seeds to crawler with id: {}", count, crawler.id()))
+                    .onErrorResume(e -> deleteUpload(crawler, upload).then(Mono.error(e)))
+                    // a client going away cancels the upload, nobody waits for its cleanup then
+                    .doOnCancel(() -> Mono.fromFuture(inFlight.get()).onErrorResume(e -> Mono.empty())
+                            .then(deleteUpload(crawler, upload))
+                            .subscribe(deleted -> log.info("Removed {} seed chunks of a cancelled upload to crawler "
+                                            + "with id: {}", deleted, crawler.id()),
+                                    e -> log.warn("Could not remove the cancelled upload {} to crawler with id: {}: {}",
+                                            upload, crawler.id(), e.getMessage())));
+        });
+    }
+
+    private Mono<Long> deleteUpload(Crawler crawler, String upload) {
+        return crawlerSeedRepository.deleteByCrawlerIdAndUpload(crawler.id(), upload);
+    }
+
+    /**
+     * Streams the start urls of the config of the crawler followed by its seeds.
+     */
+    public Flux<String> startUrls(Crawler crawler) {
+        var query = query(where("crawlerId").is(crawler.id()))
+                .with(Sort.by("upload", "chunk"))
+                .cursorBatchSize(seeds.cursorBatchSize());
+        query.fields().include("urls");
+
+        List<String> startUrls = crawler.config().startUrls();
+        return Flux.fromIterable(startUrls)
+                .concatWith(reactiveMongoTemplate.find(query, CrawlerSeed.class)
+                        .concatMapIterable(CrawlerSeed::urls, 1));
+    }
+
+    public Mono<Void> deleteAll(Collection<UUID> crawlerIds) {
+        return crawlerSeedRepository.deleteByCrawlerIdIn(crawlerIds).then();
+    }
+}
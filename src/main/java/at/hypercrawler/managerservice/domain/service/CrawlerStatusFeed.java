@@ -0,0 +1,151 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatusChange;
+import at.hypercrawler.managerservice.domain.repository.CrawlerChangeStream;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns the crawler change stream into status changes and multicasts them to any number of subscribers. The most
+ * recent changes are kept for replay, so that a subscriber resuming after a change it has already seen continues
+ * seamlessly. Subscribers resuming after an older change get a change stream of their own that starts there.
+ */
+@Slf4j
+@Component
+public class CrawlerStatusFeed {
+
+    private static final String STATUS = "status";
+
+    private final CrawlerChangeStream crawlerChangeStream;
+    private final CrawlerManagerProperties.StatusStream settings;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> replayedTokens;
+
+    // holds more changes than the token index, so a token that is still indexed is guaranteed to be replayed
+    private final Sinks.Many<SequencedChange> changes;
+
+    private Disposable feed;
+
+    public CrawlerStatusFeed(CrawlerChangeStream crawlerChangeStream, CrawlerManagerProperties properties) {
+        this.crawlerChangeStream = crawlerChangeStream;
+        this.settings = properties.statusStream();
+        int replaySize = settings.replaySize();
+        this.changes = Sinks.many().replay().limit(2 * replaySize);
+        this.replayedTokens = new LinkedHashMap<>(replaySize * 4 / 3 + 1) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > replaySize;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        feed = crawlerChangeStream.changes()
+                .mapNotNull(CrawlerStatusFeed::toStatusChange)
+                .doOnNext(this::emit)
+                .doOnError(e -> log.warn("Crawler change stream failed, status changes are delayed until it is reopened: {}",
+                        e.getMessage()))
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, settings.reconnectInterval()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (feed != null) {
+            feed.dispose();
+        }
+    }
+
+    /**
+     * Status changes of all crawlers that happen after this call, or after the change with the given resume token.
+     * Subscribers that cannot keep up with more than the configured buffer are failed instead of slowing down others.
+     */
+    public Flux<CrawlerStatusChange> changes(String lastResumeToken) {
+        if (lastResumeToken == null) {
+            return changesAfter(sequence.get());
+        }
+
+        Long replayed;
+        synchronized (replayedTokens) {
+            replayed = replayedTokens.get(lastResumeToken);
+        }
+        if (replayed != null) {
+            return changesAfter(replayed);
+        }
+
+        long now = sequence.get();
+        return crawlerChangeStream.changesAfter(lastResumeToken)
+                .mapNotNull(CrawlerStatusFeed::toStatusChange)
+                .onErrorResume(e -> {
+                    log.warn("Could not resume crawler status changes after {}, continuing with current changes: {}",
+                            lastResumeToken, e.getMessage());
+                    return changesAfter(now);
+                })
+                .onBackpressureBuffer(settings.subscriberBuffer());
+    }
+
+    private Flux<CrawlerStatusChange> changesAfter(long sequenceNumber) {
+        return changes.asFlux()
+                .filter(change -> change.sequence() > sequenceNumber)
+                .map(SequencedChange::change)
+                .onBackpressureBuffer(settings.subscriberBuffer());
+    }
+
+    private void emit(CrawlerStatusChange change) {
+        // only ever called from the single subscription to the change stream
+        long sequenceNumber = sequence.incrementAndGet();
+        if (change.resumeToken() != null) {
+            synchronized (replayedTokens) {
+                replayedTokens.put(change.resumeToken(), sequenceNumber);
+            }
+        }
+        changes.tryEmitNext(new SequencedChange(sequenceNumber, change));
+    }
+
+    /**
+     * Inserts carry the initial status, updates only count when they set the status, replacements never change it.
+     */
+    private static CrawlerStatusChange toStatusChange(ChangeStreamEvent<Crawler> event) {
+        var id = CrawlerChangeStream.crawlerId(event);
+        if (id == null || event.getOperationType() == null) {
+            return null;
+        }
+        var resumeToken = CrawlerChangeStream.resumeToken(event);
+
+        return switch (event.getOperationType()) {
+            case INSERT -> {
+                var document = event.getRaw().getFullDocument();
+                var status = document == null ? null : document.getString(STATUS);
+                yield status == null ? null : new CrawlerStatusChange(id, CrawlerStatus.valueOf(status), resumeToken);
+            }
+            case UPDATE -> {
+                var updateDescription = event.getRaw().getUpdateDescription();
+                BsonDocument updatedFields = updateDescription == null ? null : updateDescription.getUpdatedFields();
+                yield updatedFields == null || !updatedFields.isString(STATUS) ? null : new CrawlerStatusChange(id,
+                        CrawlerStatus.valueOf(updatedFields.getString(STATUS).getValue()), resumeToken);
+            }
+            case DELETE -> new CrawlerStatusChange(id, null, resumeToken);
+            default -> null;
+        };
+    }
+
+    private record SequencedChange(long sequence, CrawlerStatusChange change) {
+    }
+}
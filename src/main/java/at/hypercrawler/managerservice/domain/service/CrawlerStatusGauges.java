@@ -0,0 +1,76 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatusCount;
+import at.hypercrawler.managerservice.domain.repository.CrawlerManagerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gauges of the number of crawlers per status. The counts are aggregated in Mongo at a fixed interval and the gauges
+ * report the last result, so scraping them is free and does not depend on the number of scrapers.
+ */
+@Slf4j
+@Component
+public class CrawlerStatusGauges {
+
+    private final CrawlerManagerRepository crawlerManagerRepository;
+    private final CrawlerManagerProperties.Metrics metrics;
+    private final Map<CrawlerStatus, AtomicLong> counts = new EnumMap<>(CrawlerStatus.class);
+
+    private Disposable refresh;
+
+    public CrawlerStatusGauges(CrawlerManagerRepository crawlerManagerRepository, CrawlerManagerProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.crawlerManagerRepository = crawlerManagerRepository;
+        this.metrics = properties.metrics();
+        for (CrawlerStatus status : CrawlerStatus.values()) {
+            var count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder("crawler.count", count, AtomicLong::get)
+                    .description("Number of crawlers per status, as of the last aggregation")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresh = Flux.interval(Duration.ZERO, metrics.statusCountInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh().onErrorResume(e -> {
+                    log.warn("Error while counting crawlers by status: {}", e.getMessage());
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresh != null) {
+            refresh.dispose();
+        }
+    }
+
+    private Mono<Void> refresh() {
+        return crawlerManagerRepository.countByStatus()
+                .filter(count -> count.status() != null)
+                .collectMap(CrawlerStatusCount::status, CrawlerStatusCount::count)
+                .doOnNext(aggregated -> counts.forEach((status, count) -> count.set(aggregated.getOrDefault(status, 0L))))
+                .then();
+    }
+}
@@ -0,0 +1,163 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.exception.CrawlerNotFoundException;
+import at.hypercrawler.managerservice.domain.exception.IdempotencyKeyInUseException;
+import at.hypercrawler.managerservice.domain.exception.IdempotencyKeyReusedException;
+import at.hypercrawler.managerservice.domain.exception.InvalidIdempotencyKeyException;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.IdempotencyKey;
+import at.hypercrawler.managerservice.domain.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Makes create requests idempotent by a client supplied key. The first request claims the key for the crawler it
+ * creates, retries with the same key get that crawler instead of creating another one.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeys {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final CrawlerManagerProperties.Idempotency idempotency;
+
+    public IdempotencyKeys(IdempotencyKeyRepository idempotencyKeyRepository, ReactiveMongoTemplate reactiveMongoTemplate,
+                           CrawlerManagerProperties properties) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.idempotency = properties.idempotency();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTtlIndex() {
+        reactiveMongoTemplate.indexOps(IdempotencyKey.class)
+                .ensureIndex(new Index().on("createdAt", Sort.Direction.ASC).named("createdAt_ttl")
+                        .expire(idempotency.keyTtl()))
+                .subscribe(name -> log.info("Idempotency keys expire {} after their request", idempotency.keyTtl()),
+                        e -> log.warn("Could not create the TTL index of idempotency keys: {}", e.getMessage()));
+    }
+
+    /**
+     * Creates the crawler once per key.
+     *
+     * @param key     key of the request, {@code null} to create the crawler without one
+     * @param crawler crawler to create if the key is new
+     * @param create  creates the given crawler
+     * @param find    reads the crawler an earlier request with the key created, or fails with
+     *                {@link CrawlerNotFoundException} if there is none
+     */
+    public Mono<Crawler> createOnce(String key, Crawler crawler, Supplier<Mono<Crawler>> create,
+                                    Function<UUID, Mono<Crawler>> find) {
+        if (key == null) {
+            return create.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return Mono.error(new InvalidIdempotencyKeyException(key));
+        }
+
+        var requestHash = hash(crawler);
+        return idempotencyKeyRepository.insert(new IdempotencyKey(key, crawler.id(), requestHash, false, Instant.now()))
+                .map(claimed -> true)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false))
+                .flatMap(claimed -> claimed
+                        ? createClaimed(key, create)
+                        : replay(key, requestHash, find, () -> createOnce(key, crawler, create, find)));
+    }
+
+    private Mono<Crawler> createClaimed(String key, Supplier<Mono<Crawler>> create) {
+        var created = create.get()
+                .flatMap(crawler -> complete(key).thenReturn(crawler))
+                // a failed request leaves the key free for the retry
+                .onErrorResume(e -> idempotencyKeyRepository.deleteById(key).then(Mono.error(e)));
+        // a request that is cancelled, as by a client going away, still finishes its write and leaves the key
+        // completed or free, instead of claimed until it expires
+        return Mono.defer(() -> Mono.fromFuture(created.toFuture(), true));
+    }
+
+    private Mono<Void> complete(String key) {
+        return reactiveMongoTemplate.updateFirst(query(where("key").is(key)), Update.update("completed", true),
+                IdempotencyKey.class).then();
+    }
+
+    private Mono<Crawler> replay(String key, String requestHash, Function<UUID, Mono<Crawler>> find,
+                                 Supplier<Mono<Crawler>> retry) {
+        return idempotencyKeyRepository.findById(key).flatMap(claimed -> {
+            // keys claimed before requests were hashed are taken for the same request
+            if (claimed.requestHash() != null && !claimed.requestHash().equals(requestHash)) {
+                return Mono.error(new IdempotencyKeyReusedException(key));
+            }
+            if (claimed.completed()) {
+                log.info("Replaying the create request with idempotency key {}", key);
+                return find.apply(claimed.crawlerId());
+            }
+            return replayPending(claimed, find, retry);
+        }).switchIfEmpty(Mono.error(() -> new IdempotencyKeyInUseException(key)));
+    }
+
+    /**
+     * Answers a retry while the key is still claimed. The crawler of the claim may exist already if the claiming
+     * request stopped between creating it and completing the key, then the key is completed now. A claim without its
+     * crawler is waited for until it times out, after that the retry takes the key over.
+     */
+    private Mono<Crawler> replayPending(IdempotencyKey claimed, Function<UUID, Mono<Crawler>> find,
+                                        Supplier<Mono<Crawler>> retry) {
+        var key = claimed.key();
+        return find.apply(claimed.crawlerId())
+                .onErrorResume(CrawlerNotFoundException.class, e -> Mono.empty())
+                .flatMap(crawler -> {
+                    log.info("Completing the abandoned create request with idempotency key {}", key);
+                    return complete(key).thenReturn(crawler);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    if (claimed.createdAt().plus(idempotency.claimTimeout()).isAfter(Instant.now())) {
+                        return Mono.error(new IdempotencyKeyInUseException(key));
+                    }
+                    log.info("Taking over the abandoned create request with idempotency key {}", key);
+                    // only the claim that was read is removed, a retry that took it over first keeps its own
+                    return reactiveMongoTemplate.remove(query(where("key").is(key).and("completed").is(false)
+                                    .and("createdAt").is(claimed.createdAt())), IdempotencyKey.class)
+                            .then(Mono.defer(retry));
+                }));
+    }
+
+    /**
+     * Hashes what a create request asks for, in the form it would be stored in, so a key reused for another request
+     * can be told apart from a retry.
+     */
+    private String hash(Crawler crawler) {
+        var request = new Document("name", crawler.name())
+                .append("config", reactiveMongoTemplate.getConverter().convertToMongoType(crawler.config()));
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest(request.toJson().getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,166 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.exception.SharedCrawlerConfigMissingException;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.SharedCrawlerConfig;
+import at.hypercrawler.managerservice.domain.repository.SharedCrawlerConfigRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the shared part of crawler configs once per distinct content and puts it back together with the crawlers
+ * referencing it. Shared configs are addressed by a hash of their stored form, so they are never updated and can be
+ * kept in memory without invalidation.
+ */
+@Slf4j
+@Component
+public class SharedCrawlerConfigs {
+
+    private final SharedCrawlerConfigRepository sharedCrawlerConfigRepository;
+    private final MongoConverter mongoConverter;
+    private final AsyncCache<String, SharedCrawlerConfig> cache;
+
+    public SharedCrawlerConfigs(SharedCrawlerConfigRepository sharedCrawlerConfigRepository, MongoConverter mongoConverter,
+                                CrawlerManagerProperties properties, MeterRegistry meterRegistry) {
+        this.sharedCrawlerConfigRepository = sharedCrawlerConfigRepository;
+        this.mongoConverter = mongoConverter;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.sharedConfig().maximumSize())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "crawlerSharedConfig");
+    }
+
+    /**
+     * Moves the shared part of the config of a crawler into its shared config, storing that one unless it is already.
+     *
+     * @return the crawler with the stripped config and the reference to its shared config
+     */
+    public Mono<Crawler> share(Crawler crawler) {
+        return shareAll(List.of(crawler)).map(shared -> shared.get(0));
+    }
+
+    /**
+     * Shares the configs of several crawlers, storing each distinct shared config once.
+     */
+    public Mono<List<Crawler>> shareAll(List<Crawler> crawlers) {
+        return Mono.defer(() -> {
+            var shared = new LinkedHashMap<String, SharedCrawlerConfig>();
+            var stripped = crawlers.stream().map(crawler -> {
+                var sharedConfig = SharedCrawlerConfig.of(crawler.config());
+                if (sharedConfig == null) {
+                    return crawler.withConfig(crawler.config(), null);
+                }
+                var id = hash(sharedConfig);
+                shared.putIfAbsent(id, sharedConfig.withId(id));
+                return crawler.withConfig(SharedCrawlerConfig.strip(crawler.config()), id);
+            }).toList();
+
+            return Flux.fromIterable(shared.values()).filter(sharedConfig -> !isStored(sharedConfig.id()))
+                    .flatMap(this::store)
+                    .then(Mono.just(stripped));
+        });
+    }
+
+    /**
+     * Completes the config of a crawler by its shared config. Crawlers without a reference, such as those written
+     * before configs were shared or read without their config, are returned as they are.
+     *
+     * @throws SharedCrawlerConfigMissingException as error signal if the referenced shared config does not exist, the
+     *                                             crawler is never handed out with its config incomplete
+     */
+    public Mono<Crawler> resolve(Crawler crawler) {
+        if (crawler.config() == null || crawler.sharedConfigId() == null) {
+            return Mono.just(crawler);
+        }
+        var id = crawler.sharedConfigId();
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> sharedCrawlerConfigRepository.findById(key).toFuture()),
+                        true)
+                .map(sharedConfig -> apply(crawler, sharedConfig))
+                .switchIfEmpty(Mono.error(() -> missing(crawler)));
+    }
+
+    /**
+     * Completes the configs of several crawlers, reading the shared configs that are not in memory with one query.
+     */
+    public Mono<List<Crawler>> resolveAll(List<Crawler> crawlers) {
+        var ids = crawlers.stream().filter(crawler -> crawler.config() != null && crawler.sharedConfigId() != null)
+                .map(Crawler::sharedConfigId).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Mono.just(crawlers);
+        }
+        return Mono.fromFuture(() -> cache.getAll(ids, (missing, executor) -> sharedCrawlerConfigRepository
+                        .findAllById(List.copyOf(missing)).collectMap(SharedCrawlerConfig::id).toFuture()), true)
+                .map(sharedConfigs -> crawlers.stream()
+                        .map(crawler -> crawler.sharedConfigId() == null || crawler.config() == null
+                                ? crawler
+                                : apply(crawler, sharedConfigs.get(crawler.sharedConfigId())))
+                        .toList());
+    }
+
+    private Mono<SharedCrawlerConfig> store(SharedCrawlerConfig sharedConfig) {
+        // another crawler or replica may have stored the same content in the meantime, which is only taken for it if
+        // the stored document really has that content
+        return sharedCrawlerConfigRepository.insert(sharedConfig)
+                .onErrorResume(DuplicateKeyException.class, e -> sharedCrawlerConfigRepository.findById(sharedConfig.id())
+                        .filter(sharedConfig::equals)
+                        .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                                "Shared config with id: " + sharedConfig.id() + " is stored with different content"))))
+                .doOnNext(stored -> cache.put(stored.id(), CompletableFuture.completedFuture(stored)));
+    }
+
+    private boolean isStored(String id) {
+        var cached = cache.getIfPresent(id);
+        return cached != null && cached.isDone() && !cached.isCompletedExceptionally() && cached.join() != null;
+    }
+
+    private static Crawler apply(Crawler crawler, SharedCrawlerConfig sharedConfig) {
+        if (sharedConfig == null) {
+            throw missing(crawler);
+        }
+        return crawler.withConfig(sharedConfig.applyTo(crawler.config()), sharedConfig.id());
+    }
+
+    private static SharedCrawlerConfigMissingException missing(Crawler crawler) {
+        log.error("Crawler with id: {} references the missing shared config: {}", crawler.id(), crawler.sharedConfigId());
+        return new SharedCrawlerConfigMissingException(crawler.id(), crawler.sharedConfigId());
+    }
+
+    /**
+     * Hashes the shared config in the form it is stored in, so equal content always ends up in the same document.
+     */
+    private String hash(SharedCrawlerConfig sharedConfig) {
+        var document = new Document();
+        mongoConverter.write(sharedConfig, document);
+        document.remove("_id");
+        document.remove("_class");
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest(document.toJson().getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,108 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import at.hypercrawler.managerservice.domain.exception.InvalidStartUrlException;
+import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.domain.model.UrlFilter;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Brings start urls into a canonical form when a crawler is written, so that starting it only has to read them:
+ * scheme and host are lower-cased, default ports, fragments and excluded query parameters are removed, the remaining
+ * query parameters are sorted and duplicates are dropped.
+ */
+@Component
+public class StartUrlCanonicalizer {
+
+    private static final Comparator<String> QUERY_PARAMETER_ORDER =
+            Comparator.comparing(StartUrlCanonicalizer::parameterName).thenComparing(Comparator.naturalOrder());
+
+    public CrawlerConfig canonicalize(CrawlerConfig config) {
+        return canonicalize(config, UrlFilter.compile(config.filterOptions()));
+    }
+
+    /**
+     * Canonicalizes the start urls of the config with its filter options already compiled into the given filter.
+     */
+    public CrawlerConfig canonicalize(CrawlerConfig config, UrlFilter filter) {
+        var excludedParameter = excludedParameter(filter);
+        var canonical = new LinkedHashSet<String>(config.startUrls().size() * 4 / 3 + 1);
+
+        for (String startUrl : config.startUrls()) {
+            canonical.add(canonicalize(startUrl, excludedParameter));
+        }
+        return config.toBuilder().startUrls(new ArrayList<>(canonical)).build();
+    }
+
+    /**
+     * Canonicalizes single start urls the way the start urls of a config with the given compiled filter options are,
+     * without dropping duplicates.
+     */
+    public UnaryOperator<String> canonicalizer(UrlFilter filter) {
+        var excludedParameter = excludedParameter(filter);
+        return startUrl -> canonicalize(startUrl, excludedParameter);
+    }
+
+    String canonicalize(String startUrl, Predicate<String> excludedParameter) {
+        URI uri;
+        try {
+            uri = new URI(startUrl.trim());
+        } catch (URISyntaxException e) {
+            throw new InvalidStartUrlException(startUrl);
+        }
+
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new InvalidStartUrlException(startUrl);
+        }
+        var scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            throw new InvalidStartUrlException(startUrl);
+        }
+
+        var canonical = new StringBuilder(startUrl.length()).append(scheme).append("://");
+        if (uri.getRawUserInfo() != null) {
+            canonical.append(uri.getRawUserInfo()).append('@');
+        }
+        canonical.append(uri.getHost().toLowerCase(Locale.ROOT));
+        if (uri.getPort() != -1 && uri.getPort() != defaultPort(scheme)) {
+            canonical.append(':').append(uri.getPort());
+        }
+
+        var path = uri.getRawPath();
+        canonical.append(path == null || path.isEmpty() ? "/" : path);
+
+        var query = uri.getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            var parameters = Arrays.stream(query.split("&"))
+                    .filter(parameter -> !parameter.isEmpty())
+                    .filter(parameter -> !excludedParameter.test(parameterName(parameter)))
+                    .sorted(QUERY_PARAMETER_ORDER).toList();
+            if (!parameters.isEmpty()) {
+                canonical.append('?').append(String.join("&", parameters));
+            }
+        }
+        return canonical.toString();
+    }
+
+    private static Predicate<String> excludedParameter(UrlFilter filter) {
+        return filter.isEmpty() ? parameter -> false : filter::excludesParameter;
+    }
+
+    private static String parameterName(String parameter) {
+        int separator = parameter.indexOf('=');
+        return separator < 0 ? parameter : parameter.substring(0, separator);
+    }
+
+    private static int defaultPort(String scheme) {
+        return scheme.equals("https") ? 443 : 80;
+    }
+}
@@ -0,0 +1,36 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.model.CrawlerFilterOptions;
+import at.hypercrawler.managerservice.domain.model.UrlFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles the filter options of crawlers once per distinct content. Filter options are mostly part of shared configs,
+ * so the compiled filters are kept for as many of them as shared configs are.
+ */
+@Component
+public class UrlFilters {
+
+    private final Cache<CrawlerFilterOptions, UrlFilter> cache;
+
+    public UrlFilters(CrawlerManagerProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.sharedConfig().maximumSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "crawlerUrlFilter");
+    }
+
+    /**
+     * @throws at.hypercrawler.managerservice.domain.exception.InvalidFilterPatternException if the patterns are not
+     *                                                                                      valid
+     */
+    public UrlFilter get(CrawlerFilterOptions filterOptions) {
+        return filterOptions == null ? UrlFilter.NONE : cache.get(filterOptions, UrlFilter::compile);
+    }
+}
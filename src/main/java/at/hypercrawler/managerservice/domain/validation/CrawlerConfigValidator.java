@@ -0,0 +1,207 @@
+package at.hypercrawler.managerservice.domain.validation;
+
+import at.hypercrawler.managerservice.domain.model.ConnectionHeader;
+import at.hypercrawler.managerservice.domain.model.ConnectionProxy;
+import at.hypercrawler.managerservice.domain.model.CrawlerAction;
+import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.domain.model.CrawlerFilterOptions;
+import at.hypercrawler.managerservice.domain.model.CrawlerRequestOptions;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Checks the list elements and nested options of a config in plain loops. Bean Validation would walk its metadata and
+ * go through the constraint validator machinery for every single element, which adds up for configs with hundreds of
+ * thousands of start urls. The rules and messages are those of the constraint annotations they replace.
+ * <p>
+ * Violations are reported with paths relative to the config, such as {@code startUrls[3]} or
+ * {@code actions[0].pathsToMatch}.
+ */
+public class CrawlerConfigValidator
+        implements ConstraintValidator<ValidCrawlerConfig, CrawlerConfig> {
+
+    static final String START_URL_BLANK = "Start-Url could not be blank";
+    static final String EXCLUSION_PATTERN_BLANK = "Exclusion-Pattern could not be blank";
+    static final String IGNORED_QUERY_PARAMETER_BLANK = "Ignored-Query-Parameter could not be blank";
+    static final String HOST_BLANK = "Host could not be blank";
+    static final String PORT_OUT_OF_RANGE = "Port must be between 0 and 65535";
+    static final String REQUEST_TIMEOUT_NULL = "Request timeout could not be null";
+    static final String REQUEST_TIMEOUT_TOO_LOW = "Request timeout must be greater than 0";
+    static final String RETRIES_NULL = "Request retries could not be null";
+    static final String RETRIES_TOO_LOW = "Retries must be greater than 0";
+    static final String HEADER_NULL = "Request header could not be null";
+    static final String HEADER_NAME_NULL = "Request header name could not be null";
+    static final String HEADER_VALUE_NULL = "Request header value could not be null";
+    static final String ACTION_NULL = "Action could not be null";
+    static final String INDEX_NAME_BLANK = "Index name could not be blank";
+    static final String PATHS_TO_MATCH_NULL = "Paths to match during crawl could not be null";
+    static final String PATH_TO_MATCH_NULL = "Path to match could not be null";
+    static final String SELECTOR_BLANK = "Selectors to match during crawl could not be blank";
+    static final String CONTENT_TYPE_NULL = "Content type to match during crawl could not be null";
+
+    @Override
+    public boolean isValid(CrawlerConfig config, ConstraintValidatorContext context) {
+        if (config == null) {
+            return true;
+        }
+        context.disableDefaultConstraintViolation();
+        // the path is added as a single node, it reads the same as the nodes Bean Validation would have added
+        return validate(config, (path, message) -> context.buildConstraintViolationWithTemplate(message)
+                .addPropertyNode(path).addConstraintViolation());
+    }
+
+    /**
+     * Reports every broken rule of the config with its path and message.
+     *
+     * @return whether the config is valid
+     */
+    public static boolean validate(CrawlerConfig config, BiConsumer<String, String> violations) {
+        var reporter = new Reporter(violations);
+        notBlankElements(reporter, "startUrls", config.startUrls(), START_URL_BLANK);
+        if (config.filterOptions() != null) {
+            validate(reporter, config.filterOptions());
+        }
+        if (config.requestOptions() != null) {
+            validate(reporter, config.requestOptions());
+        }
+        var actions = config.actions();
+        if (actions != null) {
+            for (int i = 0, size = actions.size(); i < size; i++) {
+                var action = actions.get(i);
+                if (action == null) {
+                    reporter.report("actions", i, null, ACTION_NULL);
+                } else {
+                    validate(reporter, i, action);
+                }
+            }
+        }
+        return reporter.valid;
+    }
+
+    private static void validate(Reporter reporter, CrawlerFilterOptions filterOptions) {
+        notBlankElements(reporter, "filterOptions.siteExclusionPatterns", filterOptions.siteExclusionPatterns(),
+                EXCLUSION_PATTERN_BLANK);
+        notBlankElements(reporter, "filterOptions.queryParameterExclusionPatterns",
+                filterOptions.queryParameterExclusionPatterns(), IGNORED_QUERY_PARAMETER_BLANK);
+    }
+
+    private static void validate(Reporter reporter, CrawlerRequestOptions requestOptions) {
+        ConnectionProxy proxy = requestOptions.proxy();
+        if (proxy != null) {
+            if (isBlank(proxy.host())) {
+                reporter.report("requestOptions.proxy.host", HOST_BLANK);
+            }
+            if (proxy.port() != null && (proxy.port() < 0 || proxy.port() > 65535)) {
+                reporter.report("requestOptions.proxy.port", PORT_OUT_OF_RANGE);
+            }
+        }
+        positive(reporter, "requestOptions.requestTimeout", requestOptions.requestTimeout(), REQUEST_TIMEOUT_NULL,
+                REQUEST_TIMEOUT_TOO_LOW);
+        positive(reporter, "requestOptions.retries", requestOptions.retries(), RETRIES_NULL, RETRIES_TOO_LOW);
+
+        List<ConnectionHeader> headers = requestOptions.headers();
+        if (headers != null) {
+            for (int i = 0, size = headers.size(); i < size; i++) {
+                var header = headers.get(i);
+                if (header == null) {
+                    reporter.report("requestOptions.headers", i, null, HEADER_NULL);
+                    continue;
+                }
+                if (header.name() == null) {
+                    reporter.report("requestOptions.headers", i, "name", HEADER_NAME_NULL);
+                }
+                if (header.value() == null) {
+                    reporter.report("requestOptions.headers", i, "value", HEADER_VALUE_NULL);
+                }
+            }
+        }
+    }
+
+    private static void validate(Reporter reporter, int index, CrawlerAction action) {
+        if (isBlank(action.indexName())) {
+            reporter.report("actions", index, "indexName", INDEX_NAME_BLANK);
+        }
+        var pathsToMatch = action.pathsToMatch();
+        if (pathsToMatch == null) {
+            reporter.report("actions", index, "pathsToMatch", PATHS_TO_MATCH_NULL);
+        } else {
+            for (int i = 0, size = pathsToMatch.size(); i < size; i++) {
+                if (pathsToMatch.get(i) == null) {
+                    reporter.report("actions", index, "pathsToMatch[" + i + "]", PATH_TO_MATCH_NULL);
+                }
+            }
+        }
+        var selectorsToMatch = action.selectorsToMatch();
+        if (selectorsToMatch != null) {
+            for (int i = 0, size = selectorsToMatch.size(); i < size; i++) {
+                if (isBlank(selectorsToMatch.get(i))) {
+                    reporter.report("actions", index, "selectorsToMatch[" + i + "]", SELECTOR_BLANK);
+                }
+            }
+        }
+        var contentTypesToMatch = action.contentTypesToMatch();
+        if (contentTypesToMatch != null) {
+            for (int i = 0, size = contentTypesToMatch.size(); i < size; i++) {
+                if (contentTypesToMatch.get(i) == null) {
+                    reporter.report("actions", index, "contentTypesToMatch[" + i + "]", CONTENT_TYPE_NULL);
+                }
+            }
+        }
+    }
+
+    private static void notBlankElements(Reporter reporter, String path, List<String> values, String message) {
+        if (values == null) {
+            return;
+        }
+        for (int i = 0, size = values.size(); i < size; i++) {
+            if (isBlank(values.get(i))) {
+                reporter.report(path, i, null, message);
+            }
+        }
+    }
+
+    private static void positive(Reporter reporter, String path, Integer value, String nullMessage, String tooLowMessage) {
+        if (value == null) {
+            reporter.report(path, nullMessage);
+        } else if (value < 1) {
+            reporter.report(path, tooLowMessage);
+        }
+    }
+
+    /**
+     * Blank as {@code @NotBlank} defines it: {@code null} or nothing but characters up to and including the space.
+     */
+    static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0, length = value.length(); i < length; i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Reporter {
+        private final BiConsumer<String, String> violations;
+        private boolean valid = true;
+
+        private Reporter(BiConsumer<String, String> violations) {
+            this.violations = violations;
+        }
+
+        void report(String path, String message) {
+            valid = false;
+            violations.accept(path, message);
+        }
+
+        // paths of elements are only built once an element is found to be invalid
+        void report(String listPath, int index, String property, String message) {
+            report(property == null ? listPath + "[" + index + "]" : listPath + "[" + index + "]." + property, message);
+        }
+    }
+}
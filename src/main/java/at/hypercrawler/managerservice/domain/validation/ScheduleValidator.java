@@ -0,0 +1,33 @@
+package at.hypercrawler.managerservice.domain.validation;
+
+import at.hypercrawler.managerservice.domain.service.CrawlerSchedules;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Validates schedules by compiling them. Within the application the compiled schedules are shared with the
+ * {@link CrawlerSchedules} bean, so a schedule that has been validated is not parsed again to compute its runs.
+ */
+public class ScheduleValidator
+        implements ConstraintValidator<ValidSchedule, String> {
+
+    // used when validators are created outside of the application context
+    private static final CrawlerSchedules STANDALONE = new CrawlerSchedules();
+
+    private final CrawlerSchedules crawlerSchedules;
+
+    public ScheduleValidator() {
+        this(STANDALONE);
+    }
+
+    @Autowired
+    public ScheduleValidator(CrawlerSchedules crawlerSchedules) {
+        this.crawlerSchedules = crawlerSchedules;
+    }
+
+    @Override
+    public boolean isValid(String schedule, ConstraintValidatorContext context) {
+        return schedule == null || crawlerSchedules.isValid(schedule);
+    }
+}
@@ -0,0 +1,27 @@
+package at.hypercrawler.managerservice.domain.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The elements of the lists and the nested options of the annotated config must satisfy the rules checked by
+ * {@link CrawlerConfigValidator}, each broken rule is reported as a violation of its own. {@code null} is valid.
+ */
+@Documented
+@Constraint(validatedBy = CrawlerConfigValidator.class)
+@Target({ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidCrawlerConfig {
+
+    String message() default "Config is not valid";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
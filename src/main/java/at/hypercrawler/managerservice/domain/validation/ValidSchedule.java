@@ -0,0 +1,27 @@
+package at.hypercrawler.managerservice.domain.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must be a schedule that {@link at.hypercrawler.managerservice.domain.model.CrawlerSchedule}
+ * can parse. {@code null} is valid.
+ */
+@Documented
+@Constraint(validatedBy = ScheduleValidator.class)
+@Target({ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE, ElementType.PARAMETER, ElementType.TYPE_USE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidSchedule {
+
+    String message() default "Schedule is not valid";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
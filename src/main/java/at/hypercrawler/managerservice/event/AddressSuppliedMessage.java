@@ -1,8 +1,30 @@
 package at.hypercrawler.managerservice.event;
 
-import java.net.URL;
+import at.hypercrawler.managerservice.domain.model.UrlFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
 import java.util.UUID;
 
-public record AddressSuppliedMessage(UUID crawlerId, java.util.List<URL> address) {
+/**
+ * One chunk of the start addresses of a crawler. Chunks of a crawler are numbered from zero by {@code sequence},
+ * the chunk with {@code last} set marks the end of the seed. Addresses are the canonical start urls of the crawler.
+ * <p>
+ * Crawlers with filter options send them compiled as {@code filter} on every chunk, so that consumers can apply them to
+ * the urls they discover without compiling the patterns themselves. Start addresses are filtered already.
+ */
+public record AddressSuppliedMessage(UUID crawlerId, List<String> address, long sequence, boolean last,
+                                     @JsonInclude(JsonInclude.Include.NON_NULL) UrlFilter filter) {
+
+    public AddressSuppliedMessage(UUID crawlerId, List<String> address, long sequence, boolean last) {
+        this(crawlerId, address, sequence, last, null);
+    }
+
+    public AddressSuppliedMessage(UUID crawlerId, List<String> address) {
+        this(crawlerId, address, 0, true);
+    }
 
+    public AddressSuppliedMessage withFilter(UrlFilter filter) {
+        return new AddressSuppliedMessage(crawlerId, address, sequence, last, filter);
+    }
 }
@@ -0,0 +1,339 @@
+package at.hypercrawler.managerservice.event;
+
+import at.hypercrawler.managerservice.domain.model.GlobSet;
+import at.hypercrawler.managerservice.domain.model.UrlFilter;
+import org.springframework.util.MimeType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary form of {@link AddressSuppliedMessage}. The crawler id is written as 16 raw bytes and the addresses
+ * are sorted and front coded, so each address only carries what differs from the previous one; sorted addresses of
+ * the same host share scheme and host. Bodies from {@code compressionThreshold} bytes on are deflated as well.
+ * <p>
+ * Layout, with unsigned LEB128 varints:
+ * <pre>
+ * version:1 flags:1 crawlerId:16 sequence:varint last:1 [filter if flagged] [bodyLength:varint if deflated] body
+ * body = count:varint (sharedPrefix:varint suffixLength:varint suffix)*
+ * filter = sites:globs queryParameters:globs
+ * globs = literals:strings prefixes:strings patterns:strings
+ * strings = count:varint string*
+ * string = length:varint utf8
+ * </pre>
+ * Addresses are decoded in sorted order, the order of the encoded message is not kept.
+ */
+public final class AddressSuppliedMessageCodec {
+
+    public static final MimeType MIME_TYPE = new MimeType("application", "x-address-supplied");
+
+    // version 1 carried the patterns of a glob set merged into one regular expression
+    private static final byte VERSION = 2;
+    private static final int FLAG_DEFLATED = 1;
+    private static final int FLAG_FILTER = 2;
+    private static final int MAX_BODY_BYTES = 64 * 1024 * 1024;
+
+    private final int compressionThreshold;
+
+    /**
+     * @param compressionThreshold body size from which bodies are deflated, negative to never deflate
+     */
+    public AddressSuppliedMessageCodec(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public byte[] encode(AddressSuppliedMessage message) {
+        var body = encodeAddresses(message.address());
+        byte[] deflated = compressionThreshold >= 0 && body.length >= compressionThreshold ? deflate(body) : null;
+        boolean compress = deflated != null && deflated.length < body.length;
+        boolean filter = message.filter() != null && !message.filter().isEmpty();
+
+        var out = new Output(body.length + 32);
+        out.write(VERSION);
+        out.write((compress ? FLAG_DEFLATED : 0) | (filter ? FLAG_FILTER : 0));
+        out.writeLong(message.crawlerId().getMostSignificantBits());
+        out.writeLong(message.crawlerId().getLeastSignificantBits());
+        out.writeVarLong(message.sequence());
+        out.write(message.last() ? 1 : 0);
+        if (filter) {
+            writeGlobs(out, message.filter().sites());
+            writeGlobs(out, message.filter().queryParameters());
+        }
+        if (compress) {
+            out.writeVarLong(body.length);
+            out.write(deflated, 0, deflated.length);
+        } else {
+            out.write(body, 0, body.length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not an encoded message of a known version
+     */
+    public AddressSuppliedMessage decode(byte[] bytes) {
+        var in = new Input(bytes, 0, bytes.length);
+        int version = in.read();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported address supply message version: " + version);
+        }
+        int flags = in.read();
+        var crawlerId = new UUID(in.readLong(), in.readLong());
+        long sequence = in.readVarLong();
+        boolean last = in.read() != 0;
+        UrlFilter filter = null;
+        if ((flags & FLAG_FILTER) != 0) {
+            filter = new UrlFilter(readGlobs(in), readGlobs(in));
+        }
+
+        Input body = in;
+        if ((flags & FLAG_DEFLATED) != 0) {
+            long length = in.readVarLong();
+            if (length < 0 || length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Address supply message body is too large: " + length);
+            }
+            var inflated = inflate(bytes, in.position, bytes.length - in.position, (int) length);
+            body = new Input(inflated, 0, inflated.length);
+        }
+        return new AddressSuppliedMessage(crawlerId, decodeAddresses(body), sequence, last, filter);
+    }
+
+    private static void writeGlobs(Output out, GlobSet globs) {
+        writeStrings(out, globs.literals());
+        writeStrings(out, globs.prefixes());
+        writeStrings(out, globs.patterns());
+    }
+
+    private static void writeStrings(Output out, List<String> strings) {
+        out.writeVarLong(strings.size());
+        for (String string : strings) {
+            writeString(out, string);
+        }
+    }
+
+    private static void writeString(Output out, String string) {
+        var bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeVarLong(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static GlobSet readGlobs(Input in) {
+        var literals = readStrings(in);
+        var prefixes = readStrings(in);
+        return new GlobSet(literals, prefixes, readStrings(in));
+    }
+
+    private static List<String> readStrings(Input in) {
+        long count = in.readVarLong();
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("Address supply message is truncated");
+        }
+        var strings = new ArrayList<String>((int) count);
+        for (long i = 0; i < count; i++) {
+            strings.add(readString(in));
+        }
+        return strings;
+    }
+
+    private static String readString(Input in) {
+        long length = in.readVarLong();
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Address supply message is truncated");
+        }
+        var string = new String(in.bytes, in.position, (int) length, StandardCharsets.UTF_8);
+        in.position += (int) length;
+        return string;
+    }
+
+    private static byte[] encodeAddresses(List<String> addresses) {
+        var encoded = new byte[addresses.size()][];
+        int size = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = addresses.get(i).getBytes(StandardCharsets.UTF_8);
+            size += encoded[i].length;
+        }
+        Arrays.sort(encoded, Arrays::compareUnsigned);
+
+        var out = new Output(size / 2 + 16);
+        out.writeVarLong(encoded.length);
+        byte[] previous = new byte[0];
+        for (byte[] address : encoded) {
+            int shared = Arrays.mismatch(previous, address);
+            if (shared < 0) {
+                shared = address.length;
+            }
+            out.writeVarLong(shared);
+            out.writeVarLong(address.length - shared);
+            out.write(address, shared, address.length - shared);
+            previous = address;
+        }
+        return out.toByteArray();
+    }
+
+    private static List<String> decodeAddresses(Input in) {
+        long count = in.readVarLong();
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("Address supply message is truncated");
+        }
+        var addresses = new ArrayList<String>((int) count);
+        byte[] previous = new byte[0];
+        for (long i = 0; i < count; i++) {
+            long shared = in.readVarLong();
+            long suffix = in.readVarLong();
+            if (shared < 0 || shared > previous.length || suffix < 0 || suffix > in.remaining()) {
+                throw new IllegalArgumentException("Address supply message is truncated");
+            }
+            var address = Arrays.copyOf(previous, (int) (shared + suffix));
+            in.read(address, (int) shared, (int) suffix);
+            addresses.add(new String(address, StandardCharsets.UTF_8));
+            previous = address;
+        }
+        if (in.remaining() != 0) {
+            throw new IllegalArgumentException("Address supply message has trailing bytes");
+        }
+        return addresses;
+    }
+
+    private static byte[] deflate(byte[] body) {
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(body.length / 2 + 16);
+            var buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset, int length, int inflatedLength) {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, length);
+            var inflated = new byte[inflatedLength];
+            var overflow = new byte[1];
+            int read = 0;
+            // once the body is complete only the end of the stream may follow
+            while (!inflater.finished() && read <= inflatedLength) {
+                int n = read < inflatedLength
+                        ? inflater.inflate(inflated, read, inflatedLength - read)
+                        : inflater.inflate(overflow);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != inflatedLength || !inflater.finished()) {
+                throw new IllegalArgumentException("Address supply message body does not match its length");
+            }
+            return inflated;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Address supply message body is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Output {
+        private byte[] bytes;
+        private int size;
+
+        private Output(int capacity) {
+            bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        void write(int b) {
+            ensure(1);
+            bytes[size++] = (byte) b;
+        }
+
+        void write(byte[] source, int offset, int length) {
+            ensure(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensure(int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+        }
+    }
+
+    private static final class Input {
+        private final byte[] bytes;
+        private final int end;
+        private int position;
+
+        private Input(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        int read() {
+            if (position >= end) {
+                throw new IllegalArgumentException("Address supply message is truncated");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        void read(byte[] target, int offset, int length) {
+            System.arraycopy(bytes, position, target, offset, length);
+            position += length;
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | read();
+            }
+            return value;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Address supply message has a malformed number");
+        }
+
+        int remaining() {
+            return end - position;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package at.hypercrawler.managerservice.event;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts {@link AddressSuppliedMessage} payloads from and to their {@link AddressSuppliedMessageCodec binary form}.
+ * It only applies to messages of its content type, so bindings and consumers that stay with JSON are unaffected.
+ */
+@Component
+public class AddressSuppliedMessageConverter
+        extends AbstractMessageConverter {
+
+    private final AddressSuppliedMessageCodec codec;
+
+    public AddressSuppliedMessageConverter(CrawlerManagerProperties properties) {
+        super(AddressSuppliedMessageCodec.MIME_TYPE);
+        setStrictContentTypeMatch(true);
+        this.codec = new AddressSuppliedMessageCodec(properties.publisher().compressionThreshold());
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return AddressSuppliedMessage.class.equals(clazz);
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+        try {
+            return codec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            throw new MessageConversionException(message, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return codec.encode((AddressSuppliedMessage) payload);
+    }
+}
@@ -0,0 +1,57 @@
+package at.hypercrawler.managerservice.event;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Splits the start addresses of a crawler into {@link AddressSuppliedMessage} chunks that are bounded by number of
+ * addresses and by their accumulated length, so no single message grows with the size of the seed.
+ */
+@Component
+public class AddressSupplyFanOut {
+
+    private final CrawlerManagerProperties.FanOut fanOut;
+
+    public AddressSupplyFanOut(CrawlerManagerProperties properties) {
+        this.fanOut = properties.fanOut();
+    }
+
+    public Flux<AddressSuppliedMessage> chunk(UUID crawlerId, Flux<String> addresses) {
+        return Flux.defer(() -> addresses.bufferUntil(new ChunkBoundary(fanOut.maxUrlsPerChunk(), fanOut.maxBytesPerChunk()), true))
+                .index()
+                // look one chunk ahead, the window that holds a single chunk is the last one
+                .buffer(2, 1)
+                .map(window -> new AddressSuppliedMessage(crawlerId, window.get(0).getT2(), window.get(0).getT1(), window.size() == 1))
+                .switchIfEmpty(Flux.just(new AddressSuppliedMessage(crawlerId, List.of())));
+    }
+
+    private static final class ChunkBoundary implements Predicate<String> {
+        private final int maxUrls;
+        private final long maxBytes;
+        private int count;
+        private long bytes;
+
+        private ChunkBoundary(int maxUrls, long maxBytes) {
+            this.maxUrls = maxUrls;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public boolean test(String address) {
+            int size = address.length();
+            boolean cut = count > 0 && (count >= maxUrls || bytes + size > maxBytes);
+            if (cut) {
+                count = 0;
+                bytes = 0;
+            }
+            count++;
+            bytes += size;
+            return cut;
+        }
+    }
+}
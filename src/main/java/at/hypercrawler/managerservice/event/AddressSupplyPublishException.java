@@ -0,0 +1,10 @@
+package at.hypercrawler.managerservice.event;
+
+import java.util.UUID;
+
+public class AddressSupplyPublishException
+        extends RuntimeException {
+    public AddressSupplyPublishException(UUID crawlerId, long sequence, String reason) {
+        super("Chunk " + sequence + " of crawler with id " + crawlerId + " could not be published: " + reason);
+    }
+}
@@ -0,0 +1,211 @@
+package at.hypercrawler.managerservice.event;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.model.UrlFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the start addresses of a crawler as {@link AddressSuppliedMessage} chunks and, if enabled, waits for the
+ * broker to confirm each of them.
+ * <p>
+ * Chunks are not sent by the caller: they go through a bounded queue that threads of a dedicated scheduler drain in
+ * batches, so a broker that blocks sends (flow control, full channels) only ever blocks those threads. When the queue
+ * is full the chunk fails right away and the relay retries the crawler later, instead of piling up waiting sends.
+ */
+@Slf4j
+@Component
+public class AddressSupplyPublisher {
+    public static final String SUPPLY_ADDRESS_OUT = "supplyAddress-out-0";
+
+    private final StreamBridge streamBridge;
+    private final AddressSupplyFanOut addressSupplyFanOut;
+    private final CrawlerManagerProperties.FanOut fanOut;
+    private final CrawlerManagerProperties.Outbox outbox;
+    private final CrawlerManagerProperties.Publisher publisher;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary fanOutUrls;
+    private final DistributionSummary fanOutChunks;
+    private final Counter excludedUrls;
+    private final Queue<PendingSend> queued;
+    private final Sinks.Many<PendingSend> queue;
+    private final Scheduler publishScheduler;
+    private final MimeType contentType;
+
+    private Disposable pipeline;
+
+    public AddressSupplyPublisher(StreamBridge streamBridge, AddressSupplyFanOut addressSupplyFanOut,
+                                  CrawlerManagerProperties properties, MeterRegistry meterRegistry) {
+        this.streamBridge = streamBridge;
+        this.addressSupplyFanOut = addressSupplyFanOut;
+        this.fanOut = properties.fanOut();
+        this.outbox = properties.outbox();
+        this.publisher = properties.publisher();
+        this.contentType = MimeTypeUtils.parseMimeType(publisher.contentType());
+        this.meterRegistry = meterRegistry;
+        this.fanOutUrls = DistributionSummary.builder("crawler.address.supply.fanout.urls")
+                .description("Number of start urls sent per crawler run")
+                .baseUnit("urls")
+                .register(meterRegistry);
+        this.fanOutChunks = DistributionSummary.builder("crawler.address.supply.fanout.chunks")
+                .description("Number of messages the start urls of a crawler run are sent in")
+                .baseUnit("messages")
+                .register(meterRegistry);
+        this.excludedUrls = Counter.builder("crawler.address.supply.excluded")
+                .description("Number of start urls not sent as they match a site exclusion pattern")
+                .baseUnit("urls")
+                .register(meterRegistry);
+
+        this.queued = new ArrayBlockingQueue<>(publisher.queueCapacity());
+        this.queue = Sinks.many().unicast().onBackpressureBuffer(queued);
+        this.publishScheduler = Schedulers.newBoundedElastic(publisher.threads(), Integer.MAX_VALUE,
+                "address-supply-publish");
+        Gauge.builder("crawler.address.supply.queue", queued, Queue::size)
+                .description("Address supply messages waiting to be sent")
+                .baseUnit("messages")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        // fair backpressure keeps chunks in the bounded queue while all publish threads are busy
+        pipeline = queue.asFlux()
+                .bufferTimeout(publisher.batchSize(), publisher.batchLinger(), Schedulers.parallel(), true)
+                .flatMap(batch -> Mono.fromRunnable(() -> send(batch)).subscribeOn(publishScheduler),
+                        publisher.threads(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pipeline != null) {
+            pipeline.dispose();
+        }
+        publishScheduler.dispose();
+    }
+
+    /**
+     * Sends the given start addresses of a crawler. They are read as the chunks they make up can be queued, so the
+     * addresses may come from a cursor of any size.
+     *
+     * @param filter compiled filter options of the crawler: excluded addresses are not sent and the filter goes along
+     *               with every chunk unless it is empty
+     */
+    public Mono<Void> publish(UUID crawlerId, UrlFilter filter, Flux<String> addresses) {
+        log.info("Sending addresses of crawler with id: {}", crawlerId);
+
+        var sentFilter = filter == null || filter.isEmpty() ? null : filter;
+        return Flux.defer(() -> {
+            var urls = new AtomicLong();
+            var chunks = new AtomicInteger();
+            var included = sentFilter == null ? addresses : addresses.filter(address -> {
+                if (sentFilter.excludes(address)) {
+                    excludedUrls.increment();
+                    return false;
+                }
+                return true;
+            });
+            return addressSupplyFanOut.chunk(crawlerId, included.doOnNext(address -> urls.incrementAndGet()))
+                    .map(message -> sentFilter == null ? message : message.withFilter(sentFilter))
+                    .doOnNext(message -> chunks.incrementAndGet())
+                    .flatMapSequential(this::send, fanOut.publishConcurrency())
+                    .doOnComplete(() -> {
+                        log.info("Sent {} addresses in {} chunks of crawler with id: {}", urls.get(), chunks.get(), crawlerId);
+                        fanOutUrls.record(urls.get());
+                        fanOutChunks.record(chunks.get());
+                    });
+        }).then();
+    }
+
+    private Mono<Void> send(AddressSuppliedMessage message) {
+        return Mono.defer(() -> {
+            var sample = Timer.start(meterRegistry);
+            var correlation = new CorrelationData(message.crawlerId() + "-" + message.sequence());
+            var pending = new PendingSend(message, MessageBuilder.withPayload(message)
+                    .setHeader(AmqpHeaders.PUBLISH_CONFIRM_CORRELATION, correlation).build(), Sinks.one());
+
+            Sinks.EmitResult enqueued;
+            synchronized (queue) {
+                enqueued = queue.tryEmitNext(pending);
+            }
+            if (enqueued.isFailure()) {
+                return Mono.error(new AddressSupplyPublishException(message.crawlerId(), message.sequence(),
+                        enqueued == Sinks.EmitResult.FAIL_OVERFLOW ? "publish queue is full" : "publisher is " + enqueued));
+            }
+
+            return pending.sent().asMono()
+                    .then(Mono.defer(() -> {
+                        if (!outbox.awaitConfirms()) {
+                            return Mono.<Void>empty();
+                        }
+                        return Mono.fromFuture(correlation.getFuture()).timeout(outbox.confirmTimeout())
+                                .flatMap(confirm -> confirm.isAck() ? Mono.<Void>empty()
+                                        : Mono.error(new AddressSupplyPublishException(message.crawlerId(), message.sequence(), confirm.getReason())));
+                    }))
+                    .doOnSuccess(v -> {
+                        sample.stop(publishTimer("success", null));
+                        log.debug("Sent chunk {} with {} addresses of crawler with id: {}",
+                                message.sequence(), message.address().size(), message.crawlerId());
+                    })
+                    .doOnError(e -> sample.stop(publishTimer("failure", e)));
+        });
+    }
+
+    /**
+     * Sends a batch of queued chunks on a publish thread. Only the sends happen here, confirms are awaited by the
+     * callers.
+     */
+    private void send(List<PendingSend> batch) {
+        for (PendingSend pending : batch) {
+            try {
+                if (streamBridge.send(SUPPLY_ADDRESS_OUT, pending.amqpMessage(), contentType)) {
+                    pending.sent().tryEmitEmpty();
+                } else {
+                    pending.sent().tryEmitError(new AddressSupplyPublishException(pending.message().crawlerId(),
+                            pending.message().sequence(), "not sent"));
+                }
+            } catch (RuntimeException e) {
+                pending.sent().tryEmitError(e);
+            }
+        }
+    }
+
+    private Timer publishTimer(String outcome, Throwable error) {
+        return Timer.builder("crawler.address.supply.publish")
+                .description("Time taken to queue and send an address supply message and, if awaited, to have it confirmed")
+                .tag("outcome", outcome)
+                .tag("exception", error == null ? "none" : error.getClass().getSimpleName())
+                .register(meterRegistry);
+    }
+
+    private record PendingSend(AddressSuppliedMessage message, Message<AddressSuppliedMessage> amqpMessage,
+                               Sinks.One<Void> sent) {
+    }
+}
@@ -0,0 +1,144 @@
+package at.hypercrawler.managerservice.event;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import at.hypercrawler.managerservice.domain.repository.CrawlerManagerRepository;
+import at.hypercrawler.managerservice.domain.service.CrawlerSeeds;
+import at.hypercrawler.managerservice.domain.service.SharedCrawlerConfigs;
+import at.hypercrawler.managerservice.domain.service.UrlFilters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Drains the address supplies that started crawlers carry as embedded outbox entries. Each run leases a batch of due
+ * entries, publishes them and either removes them or schedules a retry with exponential backoff. A run is triggered
+ * by a fixed poll interval and additionally whenever a crawler has been started on this instance.
+ */
+@Slf4j
+@Component
+public class AddressSupplyRelay {
+
+    private final CrawlerManagerRepository crawlerManagerRepository;
+    private final AddressSupplyPublisher addressSupplyPublisher;
+    private final CrawlerSeeds crawlerSeeds;
+    private final SharedCrawlerConfigs sharedCrawlerConfigs;
+    private final UrlFilters urlFilters;
+    private final CrawlerManagerProperties.Outbox outbox;
+    private final Sinks.Many<Boolean> wakeUps = Sinks.many().multicast().directBestEffort();
+    private final Counter relayed;
+    private final Counter failed;
+    private final Timer lag;
+
+    private Disposable relay;
+
+    public AddressSupplyRelay(CrawlerManagerRepository crawlerManagerRepository, AddressSupplyPublisher addressSupplyPublisher,
+                              CrawlerSeeds crawlerSeeds, SharedCrawlerConfigs sharedCrawlerConfigs, UrlFilters urlFilters,
+                              CrawlerManagerProperties properties, MeterRegistry meterRegistry) {
+        this.crawlerManagerRepository = crawlerManagerRepository;
+        this.addressSupplyPublisher = addressSupplyPublisher;
+        this.crawlerSeeds = crawlerSeeds;
+        this.sharedCrawlerConfigs = sharedCrawlerConfigs;
+        this.urlFilters = urlFilters;
+        this.outbox = properties.outbox();
+        this.relayed = meterRegistry.counter("crawler.address.supply.relayed");
+        this.failed = meterRegistry.counter("crawler.address.supply.failed");
+        this.lag = Timer.builder("crawler.address.supply.lag")
+                .description("Time between starting a crawler and its addresses being published")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        relay = Flux.merge(Flux.interval(outbox.pollInterval()).map(tick -> Boolean.TRUE), wakeUps.asFlux())
+                .onBackpressureLatest()
+                .concatMap(trigger -> drain().onErrorResume(e -> {
+                    log.warn("Error while relaying address supplies: {}", e.getMessage());
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (relay != null) {
+            relay.dispose();
+        }
+    }
+
+    /**
+     * Requests a relay run as soon as the current one is done instead of waiting for the next poll.
+     */
+    public void wakeUp() {
+        wakeUps.tryEmitNext(Boolean.TRUE);
+    }
+
+    private Mono<Void> drain() {
+        return crawlerManagerRepository.claimPendingAddressSupply(Instant.now(), outbox.lease())
+                .expand(claimed -> crawlerManagerRepository.claimPendingAddressSupply(Instant.now(), outbox.lease()))
+                .take(outbox.batchSize())
+                .flatMap(this::relay, outbox.concurrency())
+                .then();
+    }
+
+    private Mono<Void> relay(Crawler crawler) {
+        var addressSupply = crawler.pendingAddressSupply();
+
+        // a crawler paused before its addresses went out no longer needs them, the filter options may be shared
+        var publish = crawler.status() == CrawlerStatus.STARTED
+                ? sharedCrawlerConfigs.resolve(crawler).flatMap(resolved -> addressSupplyPublisher.publish(resolved.id(),
+                        urlFilters.get(resolved.config().filterOptions()), crawlerSeeds.startUrls(resolved)))
+                : Mono.<Void>empty();
+
+        return keepLeased(crawler.id(), addressSupply.requestedAt(), publish)
+                .then(crawlerManagerRepository.completeAddressSupply(crawler.id(), addressSupply.requestedAt()))
+                .doOnSuccess(v -> {
+                    relayed.increment();
+                    lag.record(Duration.between(addressSupply.requestedAt(), Instant.now()));
+                })
+                .onErrorResume(e -> {
+                    failed.increment();
+                    int attempts = addressSupply.attempts() + 1;
+                    var backoff = backoff(attempts);
+                    log.warn("Relaying addresses of crawler with id: {} failed on attempt {}, retrying in {}: {}",
+                            crawler.id(), attempts, backoff, e.getMessage());
+                    return crawlerManagerRepository.retryAddressSupply(crawler.id(), addressSupply.requestedAt(), attempts,
+                            Instant.now().plus(backoff));
+                });
+    }
+
+    /**
+     * Extends the lease on an address supply every half lease while it is published, as publishing large seeds takes
+     * longer than any fixed lease. Publishing is cancelled once the lease cannot be extended, as another relay may
+     * take the address supply over from then on.
+     */
+    private Mono<Void> keepLeased(UUID id, Instant requestedAt, Mono<Void> publish) {
+        var lease = outbox.lease();
+        var renewals = Flux.interval(lease.dividedBy(2))
+                .concatMap(tick -> crawlerManagerRepository.extendAddressSupplyLease(id, requestedAt, Instant.now().plus(lease)))
+                .filter(extended -> !extended)
+                .next()
+                .then(Mono.<Void>error(new IllegalStateException("Lease on the address supply has been lost")));
+        // whichever ends first cancels the other, renewals only end when they fail
+        return Mono.firstWithSignal(publish, renewals);
+    }
+
+    private Duration backoff(int attempts) {
+        var backoff = outbox.initialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(outbox.maxBackoff()) > 0 ? outbox.maxBackoff() : backoff;
+    }
+}
@@ -0,0 +1,134 @@
+package at.hypercrawler.managerservice.web.controller;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerBatchResult;
+import at.hypercrawler.managerservice.domain.service.CrawlerManagerService;
+import at.hypercrawler.managerservice.web.dto.CrawlerBatchItemResponse;
+import at.hypercrawler.managerservice.web.dto.CrawlerBatchSelection;
+import at.hypercrawler.managerservice.web.dto.CrawlerBatchUpdateRequest;
+import at.hypercrawler.managerservice.web.dto.CrawlerRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RestController
+@RequestMapping("crawlers/batch")
+public class CrawlerBatchController {
+
+    private final CrawlerManagerService crawlerManagerService;
+    private final CrawlerRequestMapper crawlerRequestMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public CrawlerBatchController(CrawlerManagerService crawlerManagerService, CrawlerRequestMapper crawlerRequestMapper,
+                                  Validator validator, CrawlerManagerProperties properties) {
+        this.crawlerManagerService = crawlerManagerService;
+        this.crawlerRequestMapper = crawlerRequestMapper;
+        this.validator = validator;
+        this.chunkSize = properties.batch().chunkSize();
+    }
+
+    @PostMapping
+    Flux<CrawlerBatchItemResponse> create(@RequestBody Flux<CrawlerRequest> crawlerRequests) {
+        log.info("Creating a batch of crawlers");
+        return crawlerRequests.index().buffer(chunkSize).concatMap(chunk -> {
+            var rejected = new ArrayList<CrawlerBatchItemResponse>();
+            var accepted = new HashMap<UUID, Long>();
+            var crawlers = new ArrayList<Crawler>();
+
+            for (Tuple2<Long, CrawlerRequest> item : chunk) {
+                var violations = validator.validate(item.getT2());
+                if (!violations.isEmpty()) {
+                    rejected.add(rejectedItem(item.getT1(), null, violations));
+                    continue;
+                }
+                var crawler = crawlerRequestMapper.apply(item.getT2());
+                accepted.put(crawler.id(), item.getT1());
+                crawlers.add(crawler);
+            }
+
+            return Flux.fromIterable(rejected).concatWith(crawlerManagerService.createCrawlers(crawlers)
+                    .map(result -> toItem(accepted.get(result.id()), result)));
+        });
+    }
+
+    /**
+     * Updates the crawlers of a batch. Results are reported per crawler id, so each crawler may only be updated once per
+     * batch; repeated ids are rejected at their own index.
+     */
+    @PutMapping
+    Flux<CrawlerBatchItemResponse> update(@RequestBody Flux<CrawlerBatchUpdateRequest> updateRequests) {
+        log.info("Updating a batch of crawlers");
+        return Flux.defer(() -> {
+            var seen = new HashSet<UUID>();
+            return updateRequests.index().buffer(chunkSize).concatMap(chunk -> updateChunk(chunk, seen));
+        });
+    }
+
+    private Flux<CrawlerBatchItemResponse> updateChunk(List<Tuple2<Long, CrawlerBatchUpdateRequest>> chunk, Set<UUID> seen) {
+        var rejected = new ArrayList<CrawlerBatchItemResponse>();
+        var indices = new HashMap<UUID, Long>();
+        var crawlers = new ArrayList<Crawler>();
+
+        for (Tuple2<Long, CrawlerBatchUpdateRequest> item : chunk) {
+            var request = item.getT2();
+            var violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                rejected.add(rejectedItem(item.getT1(), request.id(), violations));
+                continue;
+            }
+            if (!seen.add(request.id())) {
+                rejected.add(new CrawlerBatchItemResponse(item.getT1(), request.id(), HttpStatus.BAD_REQUEST.value(),
+                        "Crawler with id " + request.id() + " occurs more than once in the batch"));
+                continue;
+            }
+            indices.put(request.id(), item.getT1());
+            crawlers.add(new Crawler(request.id(), request.name(), request.config(), null, null, null, 0, null, null, null));
+        }
+
+        return Flux.fromIterable(rejected).concatWith(crawlerManagerService.updateCrawlers(crawlers)
+                .map(result -> toItem(indices.get(result.id()), result)));
+    }
+
+    @PutMapping("run")
+    Flux<CrawlerBatchItemResponse> start(@Valid @RequestBody CrawlerBatchSelection selection) {
+        log.info("Starting a batch of crawlers");
+        return crawlerManagerService.startCrawlers(selection.ids(), selection.status()).map(result -> toItem(null, result));
+    }
+
+    @PutMapping("pause")
+    Flux<CrawlerBatchItemResponse> stop(@Valid @RequestBody CrawlerBatchSelection selection) {
+        log.info("Stopping a batch of crawlers");
+        return crawlerManagerService.stopCrawlers(selection.ids(), selection.status()).map(result -> toItem(null, result));
+    }
+
+    @DeleteMapping
+    Flux<CrawlerBatchItemResponse> delete(@Valid @RequestBody CrawlerBatchSelection selection) {
+        log.info("Deleting a batch of crawlers");
+        return crawlerManagerService.deleteCrawlers(selection.ids(), selection.status()).map(result -> toItem(null, result));
+    }
+
+    private static CrawlerBatchItemResponse toItem(Long index, CrawlerBatchResult result) {
+        return new CrawlerBatchItemResponse(index, result.id(), result.status().value(), result.message());
+    }
+
+    private static <T> CrawlerBatchItemResponse rejectedItem(Long index, UUID id, Set<ConstraintViolation<T>> violations) {
+        var message = violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+        return new CrawlerBatchItemResponse(index, id, HttpStatus.BAD_REQUEST.value(), message);
+    }
+}
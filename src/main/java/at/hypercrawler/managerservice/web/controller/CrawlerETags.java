@@ -0,0 +1,74 @@
+package at.hypercrawler.managerservice.web.controller;
+
+import at.hypercrawler.managerservice.domain.exception.CrawlerModifiedException;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerField;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Strong entity tags of crawlers. The tag of a crawler is made of its id and its version, which every write increments,
+ * so it can be checked against Mongo without reading the crawler.
+ */
+final class CrawlerETags {
+
+    private CrawlerETags() {
+    }
+
+    static String of(UUID id, int version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Tag of a page of crawlers, taken from the keyset properties since those are read for every fieldset.
+     */
+    static String of(List<Crawler> crawlers, Set<CrawlerField> fields, String continuationToken) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        fields.forEach(field -> digest.update(field.getProperty().getBytes(StandardCharsets.UTF_8)));
+        for (Crawler crawler : crawlers) {
+            digest.update(crawler.id().toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(String.valueOf(crawler.updatedAt()).getBytes(StandardCharsets.UTF_8));
+        }
+        if (continuationToken != null) {
+            digest.update(continuationToken.getBytes(StandardCharsets.UTF_8));
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * Reads the version a conditional update expects from its {@code If-Match} tags.
+     *
+     * @return the expected version, or {@code null} if the update is unconditional
+     * @throws CrawlerModifiedException if none of the tags can match the crawler
+     */
+    static Integer expectedVersion(UUID id, List<String> ifMatch) {
+        if (ifMatch.isEmpty()) {
+            return null;
+        }
+        var prefix = "\"" + id + "-";
+        for (String tag : ifMatch) {
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Integer.parseInt(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // not one of ours, try the next tag
+                }
+            }
+        }
+        throw new CrawlerModifiedException(id);
+    }
+}
@@ -1,66 +1,168 @@
 package at.hypercrawler.managerservice.web.controller;
 
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import at.hypercrawler.managerservice.domain.exception.InvalidStartUrlException;
+import at.hypercrawler.managerservice.domain.model.Crawler;
 import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.domain.model.CrawlerConfigView;
+import at.hypercrawler.managerservice.domain.model.CrawlerCursor;
+import at.hypercrawler.managerservice.domain.model.CrawlerField;
+import at.hypercrawler.managerservice.domain.model.CrawlerOrder;
+import at.hypercrawler.managerservice.domain.model.CrawlerSearch;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatusChange;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatusView;
 import at.hypercrawler.managerservice.domain.service.CrawlerManagerService;
 import at.hypercrawler.managerservice.web.dto.CrawlerRequest;
 import at.hypercrawler.managerservice.web.dto.CrawlerResponse;
+import at.hypercrawler.managerservice.web.dto.FilterTestRequest;
+import at.hypercrawler.managerservice.web.dto.FilterTestResponse;
+import at.hypercrawler.managerservice.web.dto.SeedsResponse;
+import at.hypercrawler.managerservice.web.dto.StatusChangeResponse;
 import at.hypercrawler.managerservice.web.dto.StatusResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 @Slf4j
 @RestController
 @RequestMapping("crawlers")
 public class CrawlerManagerController {
+    public static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    public static final String STATUS_EVENT = "status";
+    public static final String DELETED_EVENT = "deleted";
 
     private final CrawlerManagerService crawlerManagerService;
     private final CrawlerRequestMapper crawlerRequestMapper;
     private final CrawlerResponseMapper crawlerResponseMapper;
+    private final ObjectMapper objectMapper;
+    private final Duration heartbeatInterval;
 
     public CrawlerManagerController(CrawlerManagerService crawlerManagerService,
-                                    CrawlerRequestMapper crawlerRequestMapper, CrawlerResponseMapper crawlerResponseMapper) {
+                                    CrawlerRequestMapper crawlerRequestMapper, CrawlerResponseMapper crawlerResponseMapper,
+                                    ObjectMapper objectMapper, CrawlerManagerProperties properties) {
         this.crawlerManagerService = crawlerManagerService;
         this.crawlerRequestMapper = crawlerRequestMapper;
         this.crawlerResponseMapper = crawlerResponseMapper;
+        this.objectMapper = objectMapper;
+        this.heartbeatInterval = properties.statusStream().heartbeatInterval();
     }
 
     @GetMapping
-    Flux<CrawlerResponse> get() {
-        log.info("Fetching the list of all crawlers");
-        return crawlerManagerService.findAll().map(crawlerResponseMapper);
+    Mono<ResponseEntity<Flux<CrawlerResponse>>> get(@RequestParam(required = false) String continuationToken,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) List<String> fields,
+                                                    ServerHttpRequest request) {
+        log.info("Listing crawlers");
+        return list(CrawlerSearch.ALL, continuationToken, limit, fields, request);
+    }
+
+    @GetMapping("search")
+    Mono<ResponseEntity<Flux<CrawlerResponse>>> search(@RequestParam(required = false) CrawlerStatus status,
+                                                       @RequestParam(required = false) String namePrefix,
+                                                       @RequestParam(required = false) String indexPrefix,
+                                                       @RequestParam(required = false) Instant createdAfter,
+                                                       @RequestParam(required = false) Instant createdBefore,
+                                                       @RequestParam(required = false) Instant updatedAfter,
+                                                       @RequestParam(required = false) Instant updatedBefore,
+                                                       @RequestParam(required = false) String continuationToken,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(required = false) List<String> fields,
+                                                       ServerHttpRequest request) {
+        var search = CrawlerSearch.builder().status(status).namePrefix(namePrefix).indexPrefix(indexPrefix)
+                .createdAfter(createdAfter).createdBefore(createdBefore)
+                .updatedAfter(updatedAfter).updatedBefore(updatedBefore)
+                .build();
+        log.info("Searching crawlers by {}", search);
+        return list(search, continuationToken, limit, fields, request);
     }
 
     @GetMapping("{uuid}")
-    Mono<CrawlerResponse> getByUuid(@PathVariable UUID uuid) {
+    Mono<ResponseEntity<CrawlerResponse>> getByUuid(@PathVariable UUID uuid, ServerWebExchange exchange) {
         log.info("Fetching the crawler with uuid {}", uuid);
-        return crawlerManagerService.findById(uuid).map(crawlerResponseMapper);
+        return notModifiedOr(uuid, exchange, crawlerResponseMapper);
     }
 
     @GetMapping("{uuid}/status")
-    Mono<StatusResponse> getStatusByUuid(@PathVariable UUID uuid) {
+    Mono<ResponseEntity<StatusResponse>> getStatusByUuid(@PathVariable UUID uuid, ServerWebExchange exchange) {
         log.info("Fetching the status of the crawler with uuid {}", uuid);
-        return crawlerManagerService.findById(uuid).map(crawlerResponseMapper)
-                .map(crawlerResponse -> new StatusResponse(crawlerResponse.status()));
+        return notModifiedOr(uuid, exchange, crawlerManagerService::findStatusById, CrawlerStatusView::version,
+                view -> new StatusResponse(view.status()));
+    }
+
+    @GetMapping(value = "status-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Flux<ServerSentEvent<StatusChangeResponse>> streamStatus(
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        log.info("Streaming the status changes of all crawlers");
+        return withHeartbeats(crawlerManagerService.streamStatusChanges(lastEventId));
+    }
+
+    @GetMapping(value = "{uuid}/status-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Flux<ServerSentEvent<StatusChangeResponse>> streamStatusByUuid(@PathVariable UUID uuid,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        log.info("Streaming the status changes of the crawler with uuid {}", uuid);
+        return withHeartbeats(crawlerManagerService.streamStatusChanges(uuid, lastEventId))
+                .takeUntil(event -> DELETED_EVENT.equals(event.event()));
     }
 
     @GetMapping("{uuid}/config")
-    Mono<CrawlerConfig> getConfigByUuid(@PathVariable UUID uuid) {
+    Mono<ResponseEntity<CrawlerConfig>> getConfigByUuid(@PathVariable UUID uuid, ServerWebExchange exchange) {
         log.info("Fetching the config of the crawler with uuid {}", uuid);
-        return crawlerManagerService.findById(uuid).map(crawlerResponseMapper).map(CrawlerResponse::config);
+        return notModifiedOr(uuid, exchange, crawlerManagerService::findConfigById, CrawlerConfigView::version,
+                CrawlerConfigView::config);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    Mono<CrawlerResponse> create(@Valid @RequestBody CrawlerRequest crawlerRequest) {
+    Mono<CrawlerResponse> create(@Valid @RequestBody CrawlerRequest crawlerRequest,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         log.info("Creating a new crawler with name {}", crawlerRequest.name());
         var crawler = crawlerRequestMapper.apply(crawlerRequest);
-        return crawlerManagerService.createCrawler(crawler).map(crawlerResponseMapper);
+        return crawlerManagerService.createCrawler(crawler, idempotencyKey).map(crawlerResponseMapper);
+    }
+
+    /**
+     * Adds start urls to a crawler from a body of one url per line, either as plain text or as JSON strings. The body
+     * is decoded line by line while it arrives and written in chunks, so it may hold any number of urls.
+     */
+    @PostMapping(value = "{uuid}/seeds", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    Mono<SeedsResponse> appendSeeds(@PathVariable UUID uuid, @RequestBody Flux<String> lines,
+                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) {
+        log.info("Adding seeds to the crawler with uuid {}", uuid);
+        boolean json = MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(contentType);
+        var urls = json ? lines.filter(line -> !line.isBlank()).map(this::readJsonString) : lines;
+        return crawlerManagerService.appendSeeds(uuid, urls).map(SeedsResponse::new);
+    }
+
+    /**
+     * Tells for each of the given urls whether the crawler excludes it by its site exclusion patterns. The patterns are
+     * compiled once for all urls, which are matched as they are given.
+     */
+    @PostMapping("{uuid}/filter:test")
+    Flux<FilterTestResponse> testFilter(@PathVariable UUID uuid, @Valid @RequestBody FilterTestRequest request) {
+        log.info("Testing {} urls against the filter of the crawler with uuid {}", request.urls().size(), uuid);
+        return crawlerManagerService.findUrlFilter(uuid).flatMapMany(filter -> Flux.fromIterable(request.urls())
+                .map(url -> new FilterTestResponse(url, url != null && filter.excludes(url))));
     }
 
     @DeleteMapping("{uuid}")
@@ -71,10 +173,13 @@ public class CrawlerManagerController {
     }
 
     @PutMapping(value = "{uuid}")
-    Mono<CrawlerResponse> update(@PathVariable UUID uuid, @Valid @RequestBody CrawlerRequest crawlerRequest) {
+    Mono<ResponseEntity<CrawlerResponse>> update(@PathVariable UUID uuid, @Valid @RequestBody CrawlerRequest crawlerRequest,
+                                                 @RequestHeader HttpHeaders headers) {
         log.info("Updating the crawler with uuid {}", uuid);
-        return crawlerManagerService.updateCrawler(uuid, crawlerRequest.name(), crawlerRequest.config())
-                .map(crawlerResponseMapper);
+        var expectedVersion = CrawlerETags.expectedVersion(uuid, headers.getIfMatch());
+        return crawlerManagerService.updateCrawler(uuid, expectedVersion, crawlerRequest.name(), crawlerRequest.config())
+                .map(crawler -> ResponseEntity.ok().eTag(CrawlerETags.of(crawler.id(), crawler.version()))
+                        .body(crawlerResponseMapper.apply(crawler)));
     }
 
     @PutMapping(value = "{uuid}/run")
@@ -89,4 +194,80 @@ public class CrawlerManagerController {
         return crawlerManagerService.stopCrawler(uuid).map(crawlerResponseMapper);
     }
 
+    /**
+     * Answers with a page of the matching crawlers, or streams all of them if newline delimited JSON is accepted.
+     */
+    private Mono<ResponseEntity<Flux<CrawlerResponse>>> list(CrawlerSearch search, String continuationToken, Integer limit,
+                                                             List<String> fields, ServerHttpRequest request) {
+        var cursor = CrawlerCursor.decode(continuationToken, CrawlerOrder.of(search));
+        var selectedFields = CrawlerField.parse(fields);
+
+        if (request.getHeaders().getAccept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)) {
+            return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+                    .body(crawlerManagerService.streamAll(search, cursor, selectedFields)
+                            .map(crawler -> crawlerResponseMapper.apply(crawler, selectedFields))));
+        }
+
+        return crawlerManagerService.findPage(search, cursor, limit, selectedFields).map(page -> {
+            var next = page.next() == null ? null : page.next().encode();
+            // a matching If-None-Match turns this into 304 before the page is serialized
+            var response = ResponseEntity.ok().eTag(CrawlerETags.of(page.crawlers(), selectedFields, next));
+            if (next != null) {
+                response.header(CONTINUATION_TOKEN_HEADER, next);
+            }
+            return response.body(Flux.fromIterable(page.crawlers())
+                    .map(crawler -> crawlerResponseMapper.apply(crawler, selectedFields)));
+        });
+    }
+
+    private String readJsonString(String line) {
+        try {
+            var url = objectMapper.readTree(line);
+            if (!url.isTextual()) {
+                throw new InvalidStartUrlException(line);
+            }
+            return url.textValue();
+        } catch (JsonProcessingException e) {
+            throw new InvalidStartUrlException(line);
+        }
+    }
+
+    private Flux<ServerSentEvent<StatusChangeResponse>> withHeartbeats(Flux<CrawlerStatusChange> changes) {
+        var events = changes.map(change -> ServerSentEvent.builder(new StatusChangeResponse(change.id(), change.status()))
+                .id(change.resumeToken())
+                .event(change.deleted() ? DELETED_EVENT : STATUS_EVENT)
+                .build());
+        // the first comment commits the response right away, the others keep proxies from closing idle connections
+        var heartbeats = Flux.interval(Duration.ZERO, heartbeatInterval)
+                .map(tick -> ServerSentEvent.<StatusChangeResponse>builder().comment("heartbeat").build());
+        return Flux.merge(events, heartbeats);
+    }
+
+    /**
+     * Answers a conditional request with 304 by looking at the version alone, and reads the crawler otherwise.
+     */
+    private <T> Mono<ResponseEntity<T>> notModifiedOr(UUID uuid, ServerWebExchange exchange, Function<Crawler, T> body) {
+        return notModifiedOr(uuid, exchange, crawlerManagerService::findById, Crawler::version, body);
+    }
+
+    /**
+     * Answers with what is read of a crawler, or with 304 if it still has the version the client has.
+     *
+     * @param find      reads the crawler, or just the part of it the answer needs
+     * @param versionOf the version of the crawler that was read
+     */
+    private <V, T> Mono<ResponseEntity<T>> notModifiedOr(UUID uuid, ServerWebExchange exchange, Function<UUID, Mono<V>> find,
+                                                         ToIntFunction<V> versionOf, Function<V, T> body) {
+        var read = Mono.defer(() -> find.apply(uuid).map(found ->
+                ResponseEntity.ok().eTag(CrawlerETags.of(uuid, versionOf.applyAsInt(found))).body(body.apply(found))));
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().isEmpty()) {
+            return read;
+        }
+        return crawlerManagerService.findVersionById(uuid).flatMap(version -> {
+            var eTag = CrawlerETags.of(uuid, version);
+            return exchange.checkNotModified(eTag)
+                    ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<T>build())
+                    : read;
+        });
+    }
 }
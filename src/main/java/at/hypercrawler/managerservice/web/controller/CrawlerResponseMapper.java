@@ -1,9 +1,11 @@
 package at.hypercrawler.managerservice.web.controller;
 
 import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerField;
 import at.hypercrawler.managerservice.web.dto.CrawlerResponse;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
 import java.util.function.Function;
 
 @Component
@@ -18,7 +20,22 @@ public class CrawlerResponseMapper
             crawler.status(),
             crawler.config(),
             crawler.createdAt(),
-            crawler.updatedAt()
+            crawler.updatedAt(),
+            crawler.version()
+    );
+    // @formatter:on
+  }
+
+  public CrawlerResponse apply(Crawler crawler, Set<CrawlerField> fields) {
+    // @formatter:off
+    return new CrawlerResponse(
+            fields.contains(CrawlerField.ID) ? crawler.id() : null,
+            fields.contains(CrawlerField.NAME) ? crawler.name() : null,
+            fields.contains(CrawlerField.STATUS) ? crawler.status() : null,
+            fields.contains(CrawlerField.CONFIG) ? crawler.config() : null,
+            fields.contains(CrawlerField.CREATED_AT) ? crawler.createdAt() : null,
+            fields.contains(CrawlerField.UPDATED_AT) ? crawler.updatedAt() : null,
+            fields.contains(CrawlerField.VERSION) ? crawler.version() : null
     );
     // @formatter:on
   }
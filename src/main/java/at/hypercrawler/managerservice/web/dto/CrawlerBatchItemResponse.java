@@ -0,0 +1,14 @@
+package at.hypercrawler.managerservice.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CrawlerBatchItemResponse(
+        Long index,
+        UUID id,
+        int status,
+        String error
+) {
+}
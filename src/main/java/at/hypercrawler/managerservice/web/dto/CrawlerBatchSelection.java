@@ -0,0 +1,18 @@
+package at.hypercrawler.managerservice.web.dto;
+
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import jakarta.validation.constraints.AssertTrue;
+
+import java.util.Set;
+import java.util.UUID;
+
+public record CrawlerBatchSelection(
+        Set<UUID> ids,
+        CrawlerStatus status
+) {
+
+    @AssertTrue(message = "Either ids or status must be selected")
+    boolean isRestricted() {
+        return (ids != null && !ids.isEmpty()) || status != null;
+    }
+}
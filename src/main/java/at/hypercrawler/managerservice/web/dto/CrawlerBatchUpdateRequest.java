@@ -0,0 +1,25 @@
+package at.hypercrawler.managerservice.web.dto;
+
+import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+
+import java.util.UUID;
+
+@Builder
+public record CrawlerBatchUpdateRequest(
+
+        @NotNull(message = "Id could not be null")
+        UUID id,
+
+        @NotBlank(message = "Name could not be blank")
+        String name,
+
+        @NotNull(message = "Config could not be null")
+        @Valid
+        CrawlerConfig config
+
+) {
+}
@@ -2,15 +2,18 @@ package at.hypercrawler.managerservice.web.dto;
 
 import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
 import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.time.Instant;
 import java.util.UUID;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record CrawlerResponse(
         UUID id, String name,
         CrawlerStatus status,
         CrawlerConfig config,
         Instant createdAt,
-        Instant updatedAt
+        Instant updatedAt,
+        Integer version
 ) {
 }
@@ -0,0 +1,15 @@
+package at.hypercrawler.managerservice.web.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record FilterTestRequest(
+
+        @NotNull(message = "Urls could not be null")
+        @Size(max = 10000, message = "At most 10000 urls can be tested at once")
+        List<String> urls
+
+) {
+}
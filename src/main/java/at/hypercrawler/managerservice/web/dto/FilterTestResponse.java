@@ -0,0 +1,4 @@
+package at.hypercrawler.managerservice.web.dto;
+
+public record FilterTestResponse(String url, boolean excluded) {
+}
@@ -0,0 +1,10 @@
+package at.hypercrawler.managerservice.web.dto;
+
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StatusChangeResponse(UUID id, CrawlerStatus status) {
+}
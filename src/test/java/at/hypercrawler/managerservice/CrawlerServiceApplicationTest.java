@@ -1,18 +1,45 @@
 package at.hypercrawler.managerservice;
 
+import at.hypercrawler.managerservice.domain.exception.CrawlerAlreadyExistsException;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerBatchResult;
 import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.domain.model.CrawlerFilterOptions;
 import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import at.hypercrawler.managerservice.domain.model.IdempotencyKey;
+import at.hypercrawler.managerservice.domain.repository.CrawlerManagerRepository;
+import at.hypercrawler.managerservice.domain.repository.IdempotencyKeyRepository;
+import at.hypercrawler.managerservice.domain.repository.SharedCrawlerConfigRepository;
+import at.hypercrawler.managerservice.domain.service.CrawlerManagerService;
+import at.hypercrawler.managerservice.domain.service.CrawlerSeeds;
+import at.hypercrawler.managerservice.web.controller.CrawlerManagerController;
+import at.hypercrawler.managerservice.web.dto.CrawlerBatchItemResponse;
+import at.hypercrawler.managerservice.web.dto.CrawlerBatchSelection;
+import at.hypercrawler.managerservice.web.dto.CrawlerBatchUpdateRequest;
+import at.hypercrawler.managerservice.web.dto.CrawlerRequest;
 import at.hypercrawler.managerservice.web.dto.CrawlerResponse;
+import at.hypercrawler.managerservice.web.dto.FilterTestRequest;
+import at.hypercrawler.managerservice.web.dto.FilterTestResponse;
+import at.hypercrawler.managerservice.web.dto.SeedsResponse;
+import at.hypercrawler.managerservice.web.dto.StatusChangeResponse;
 import at.hypercrawler.managerservice.web.dto.StatusResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.types.Binary;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.stream.binder.test.OutputDestination;
 import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -20,10 +47,20 @@ import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -34,6 +71,10 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 @Testcontainers
 class CrawlerServiceApplicationTest {
 
+  private static final ParameterizedTypeReference<ServerSentEvent<StatusChangeResponse>> STATUS_EVENTS =
+    new ParameterizedTypeReference<>() {
+    };
+
   @Container
   private static final MongoDBContainer mongoContainer =
     new MongoDBContainer(DockerImageName.parse("mongo:latest"));
@@ -47,9 +88,32 @@ class CrawlerServiceApplicationTest {
   @Autowired
   private OutputDestination output;
 
+  @Autowired
+  private CrawlerManagerRepository crawlerManagerRepository;
+
+  @Autowired
+  private SharedCrawlerConfigRepository sharedCrawlerConfigRepository;
+
+  @Autowired
+  private IdempotencyKeyRepository idempotencyKeyRepository;
+
+  @Autowired
+  private CrawlerManagerService crawlerManagerService;
+
+  @Autowired
+  private CrawlerSeeds crawlerSeeds;
+
+  @Autowired
+  private ReactiveMongoTemplate reactiveMongoTemplate;
+
   @DynamicPropertySource
   static void mongoDbProperties(DynamicPropertyRegistry registry) {
     registry.add("spring.data.mongodb.uri", mongoContainer::getReplicaSetUrl);
+    // the test binder never confirms a publish
+    registry.add("hypercrawler.manager.outbox.await-confirms", () -> false);
+    // small seed chunks written one by one, so that a failing upload has written some before
+    registry.add("hypercrawler.manager.seeds.chunk-size", () -> 100);
+    registry.add("hypercrawler.manager.seeds.insert-batch-size", () -> 1);
   }
 
   @Test
@@ -64,6 +128,199 @@ class CrawlerServiceApplicationTest {
               });
     }
 
+    @Test
+    void whenPostCrawlerRequestIsRetriedWithSameIdempotencyKey_thenCrawlerIsCreatedOnce() throws JsonProcessingException {
+        var name = "idempotent-" + UUID.randomUUID();
+        var request = objectMapper.writeValueAsString(new CrawlerRequest(name, CrawlerTestDummyProvider.crawlerConfig.get()));
+        var idempotencyKey = UUID.randomUUID().toString();
+
+        var first = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .header(CrawlerManagerController.IDEMPOTENCY_KEY_HEADER, idempotencyKey).bodyValue(request).exchange()
+                .expectStatus().isCreated().expectBody(CrawlerResponse.class).returnResult().getResponseBody();
+        assertNotNull(first);
+        webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .header(CrawlerManagerController.IDEMPOTENCY_KEY_HEADER, idempotencyKey).bodyValue(request).exchange()
+                .expectStatus().isCreated().expectBody(CrawlerResponse.class)
+                .value(retried -> assertThat(retried.id()).isEqualTo(first.id()));
+
+        webTestClient.get().uri("/crawlers/search?namePrefix=" + name).exchange().expectStatus().isOk()
+                .expectBodyList(CrawlerResponse.class).hasSize(1);
+    }
+
+    @Test
+    void whenIdempotencyKeyIsReusedForAnotherRequest_thenUnprocessableEntity() throws JsonProcessingException {
+        var idempotencyKey = UUID.randomUUID().toString();
+        for (var name : List.of("first-" + idempotencyKey, "second-" + idempotencyKey)) {
+            var request = objectMapper.writeValueAsString(new CrawlerRequest(name, CrawlerTestDummyProvider.crawlerConfig.get()));
+            webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                    .header(CrawlerManagerController.IDEMPOTENCY_KEY_HEADER, idempotencyKey).bodyValue(request).exchange()
+                    .expectStatus().isEqualTo(name.startsWith("first") ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+    }
+
+    @Test
+    void whenClaimedIdempotencyKeyAlreadyHasItsCrawler_thenRetryGetsIt() throws JsonProcessingException {
+        var crawler = crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get()).block();
+        assertNotNull(crawler);
+        var idempotencyKey = UUID.randomUUID().toString();
+        // left by a request that was cancelled between creating the crawler and completing its key
+        idempotencyKeyRepository.insert(new IdempotencyKey(idempotencyKey, crawler.id(), null, false, Instant.now())).block();
+
+        webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .header(CrawlerManagerController.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange()
+                .expectStatus().isCreated().expectBody(CrawlerResponse.class)
+                .value(retried -> assertThat(retried.id()).isEqualTo(crawler.id()));
+        assertThat(idempotencyKeyRepository.findById(idempotencyKey).block()).extracting(IdempotencyKey::completed)
+                .isEqualTo(true);
+    }
+
+    @Test
+    void whenPostCrawlerRequestWithTooLongIdempotencyKey_thenBadRequest() throws JsonProcessingException {
+        webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .header(CrawlerManagerController.IDEMPOTENCY_KEY_HEADER, "k".repeat(256))
+                .bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenCrawlerWithExistingIdIsInserted_thenConflict() {
+        var crawler = crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get()).block();
+        assertNotNull(crawler);
+
+        var sameId = new Crawler(crawler.id(), "Other Crawler", CrawlerTestDummyProvider.crawlerConfig.get(),
+                CrawlerStatus.CREATED, null, null, 0, null, null, null);
+        StepVerifier.create(crawlerManagerService.createCrawler(sameId))
+                .expectError(CrawlerAlreadyExistsException.class).verify();
+    }
+
+    @Test
+    void whenPostCrawlerRequestWithDuplicateStartUrls_thenCanonicalStartUrlsAreStored() throws JsonProcessingException {
+        var config = CrawlerTestDummyProvider.crawlerConfig.get().toBuilder()
+                .startUrls(List.of("HTTPS://www.google.com:443", "https://www.google.com/#top")).build();
+
+        webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(new CrawlerRequest("Test Crawler", config))).exchange()
+                .expectStatus().isCreated().expectBody(CrawlerResponse.class).value(actualCrawlerResponse ->
+                        assertThat(actualCrawlerResponse.config().startUrls()).containsExactly("https://www.google.com/"));
+    }
+
+    @Test
+    void whenPostCrawlerRequestWithManyStartUrls_thenTheyAreStoredCompactAndReturnedInFull() throws JsonProcessingException {
+        var startUrls = IntStream.range(0, 1200).mapToObj(i -> "https://shop-" + i % 3 + ".example.com/item-" + i).toList();
+        var config = CrawlerTestDummyProvider.crawlerConfig.get().toBuilder().startUrls(startUrls).build();
+
+        var created = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(new CrawlerRequest("Test Crawler", config))).exchange()
+                .expectStatus().isCreated().expectBody(CrawlerResponse.class).returnResult().getResponseBody();
+        assertNotNull(created);
+        assertThat(created.config().startUrls()).containsExactlyElementsOf(startUrls);
+
+        var stored = reactiveMongoTemplate.findById(created.id(), Document.class, "crawler").block();
+        assertNotNull(stored);
+        assertThat(stored.get("config", Document.class).get("startUrls")).isInstanceOf(Binary.class);
+        webTestClient.get().uri("/crawlers/" + created.id() + "/config").exchange().expectStatus().isOk()
+                .expectBody(CrawlerConfig.class)
+                .value(read -> assertThat(read.startUrls()).containsExactlyElementsOf(startUrls));
+    }
+
+    @Test
+    void whenPostCrawlerRequestWithInvalidStartUrl_thenBadRequest() throws JsonProcessingException {
+        var config = CrawlerTestDummyProvider.crawlerConfig.get().toBuilder().startUrls(List.of("ftp://www.google.com")).build();
+
+        webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(new CrawlerRequest("Test Crawler", config))).exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenSeedsAreUploaded_thenTheyAreStartedAfterTheConfigStartUrls() {
+        var crawler = crawlerManagerService.createCrawler(CrawlerTestDummyProvider.crawler.get()).block();
+        assertNotNull(crawler);
+
+        webTestClient.post().uri("/crawlers/" + crawler.id() + "/seeds").contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("\"HTTPS://Seed.example.com/a\"\n\"https://seed.example.com/b#top\"\n\n\"https://seed.example.com/c\"\n")
+                .exchange().expectStatus().isOk().expectBody(SeedsResponse.class)
+                .value(response -> assertThat(response.added()).isEqualTo(3));
+        webTestClient.post().uri("/crawlers/" + crawler.id() + "/seeds").contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("https://seed.example.com/d\r\n\r\nhttps://seed.example.com/e")
+                .exchange().expectStatus().isOk().expectBody(SeedsResponse.class)
+                .value(response -> assertThat(response.added()).isEqualTo(2));
+
+        StepVerifier.create(crawlerSeeds.startUrls(crawler).collectList())
+                .assertNext(startUrls -> assertThat(startUrls).containsExactly("https://www.google.com/",
+                        "https://www.bing.com/", "https://seed.example.com/a", "https://seed.example.com/b",
+                        "https://seed.example.com/c", "https://seed.example.com/d", "https://seed.example.com/e"))
+                .verifyComplete();
+
+        webTestClient.delete().uri("/crawlers/" + crawler.id()).exchange().expectStatus().isNoContent();
+        StepVerifier.create(crawlerSeeds.startUrls(crawler).collectList())
+                .assertNext(startUrls -> assertThat(startUrls).containsExactlyElementsOf(crawler.config().startUrls()))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenSeedUploadHasInvalidUrl_thenBadRequestAndNothingIsAdded() {
+        var crawler = crawlerManagerService.createCrawler(CrawlerTestDummyProvider.crawler.get()).block();
+        assertNotNull(crawler);
+        var lines = IntStream.range(0, 2500).mapToObj(i -> "https://seed.example.com/" + i)
+                .collect(Collectors.joining("\n", "", "\nftp://seed.example.com/\n"));
+
+        webTestClient.post().uri("/crawlers/" + crawler.id() + "/seeds").contentType(MediaType.TEXT_PLAIN)
+                .bodyValue(lines).exchange().expectStatus().isBadRequest();
+
+        StepVerifier.create(crawlerSeeds.startUrls(crawler).count())
+                .expectNext((long) crawler.config().startUrls().size()).verifyComplete();
+    }
+
+    @Test
+    void whenSeedUploadIsCancelled_thenWhatWasWrittenOfItIsRemoved() {
+        var crawler = crawlerManagerService.createCrawler(CrawlerTestDummyProvider.crawler.get()).block();
+        assertNotNull(crawler);
+        var configStartUrls = (long) crawler.config().startUrls().size();
+        // enough for one bulk insert, then the upload stalls like a client that stopped sending
+        var urls = Flux.range(0, 20_000).map(i -> "https://seed.example.com/" + i).concatWith(Flux.never());
+
+        var upload = crawlerSeeds.append(crawler, urls).subscribe();
+        Mono.defer(() -> crawlerSeeds.startUrls(crawler).count()).filter(count -> count > configStartUrls)
+                .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)))
+                .block(Duration.ofSeconds(10));
+        upload.dispose();
+
+        Mono.defer(() -> crawlerSeeds.startUrls(crawler).count()).filter(count -> count == configStartUrls)
+                .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)))
+                .block(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void whenSeedsAreUploadedForUnknownCrawler_thenNotFound() {
+        webTestClient.post().uri("/crawlers/" + UUID.randomUUID() + "/seeds").contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("https://seed.example.com/").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenUrlsAreTestedAgainstTheFilter_thenExcludedUrlsAreReported() {
+        var crawler = crawlerManagerService.createCrawler(CrawlerTestDummyProvider.crawler.get()).block();
+        assertNotNull(crawler);
+
+        webTestClient.post().uri("/crawlers/" + crawler.id() + "/filter:test").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new FilterTestRequest(List.of("https://www.google.com/search", "https://www.bing.com/")))
+                .exchange().expectStatus().isOk().expectBodyList(FilterTestResponse.class)
+                .containsExactly(new FilterTestResponse("https://www.google.com/search", true),
+                        new FilterTestResponse("https://www.bing.com/", false));
+    }
+
+    @Test
+    void whenPostCrawlerRequestWithTooManyExclusionPatterns_thenBadRequest() throws JsonProcessingException {
+        var patterns = IntStream.range(0, 1001).mapToObj(i -> "https://www.google.com/" + i + "/*").toList();
+        var config = CrawlerTestDummyProvider.crawlerConfig.get().toBuilder()
+                .filterOptions(CrawlerFilterOptions.builder().siteExclusionPatterns(patterns).build()).build();
+
+        webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(new CrawlerRequest("Test Crawler", config))).exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void whenGetAllCrawlersRequest_thenAllCrawlersAreReturned() throws JsonProcessingException {
         webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON).bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange().expectStatus().isCreated().expectBody(CrawlerResponse.class).returnResult();
@@ -72,6 +329,80 @@ class CrawlerServiceApplicationTest {
         webTestClient.get().uri("/crawlers").exchange().expectStatus().isOk().expectBodyList(CrawlerResponse.class);
     }
 
+    @Test
+    void whenGetCrawlersPageRequest_thenContinuationTokenLeadsToNextPage() throws JsonProcessingException {
+        for (int i = 0; i < 3; i++) {
+            webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON).bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange().expectStatus().isCreated();
+        }
+
+        var firstPage = webTestClient.get().uri("/crawlers?limit=2").exchange().expectStatus().isOk()
+                .expectBodyList(CrawlerResponse.class).hasSize(2).returnResult();
+        var continuationToken = firstPage.getResponseHeaders().getFirst(CrawlerManagerController.CONTINUATION_TOKEN_HEADER);
+        assertNotNull(continuationToken);
+
+        webTestClient.get().uri("/crawlers?limit=2&continuationToken=" + continuationToken).exchange().expectStatus().isOk()
+                .expectBodyList(CrawlerResponse.class).value(secondPage -> {
+                    assertThat(secondPage).isNotEmpty();
+                    assertThat(secondPage).extracting(CrawlerResponse::id)
+                            .doesNotContainAnyElementsOf(Objects.requireNonNull(firstPage.getResponseBody()).stream().map(CrawlerResponse::id).toList());
+                });
+    }
+
+    @Test
+    void whenGetCrawlersWithInvalidContinuationToken_thenBadRequest() {
+        webTestClient.get().uri("/crawlers?continuationToken=invalid").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenGetCrawlersAsNdjson_thenCrawlersAreStreamed() throws JsonProcessingException {
+        webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON).bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange().expectStatus().isCreated();
+
+        webTestClient.get().uri("/crawlers").accept(MediaType.APPLICATION_NDJSON).exchange().expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(CrawlerResponse.class).getResponseBody().take(1)
+                .as(StepVerifier::create).expectNextMatches(c -> c.id() != null).verifyComplete();
+    }
+
+    @Test
+    void whenGetCrawlersWithSparseFieldset_thenOnlySelectedFieldsAreReturned() throws JsonProcessingException {
+        webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON).bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange().expectStatus().isCreated();
+
+        webTestClient.get().uri("/crawlers?fields=id,name,status").exchange().expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").exists()
+                .jsonPath("$[0].name").exists()
+                .jsonPath("$[0].status").exists()
+                .jsonPath("$[0].config").doesNotExist()
+                .jsonPath("$[0].createdAt").doesNotExist();
+    }
+
+    @Test
+    void whenGetCrawlersWithUnknownField_thenBadRequest() {
+        webTestClient.get().uri("/crawlers?fields=id,unknown").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenSearchCrawlersByNamePrefixAndStatus_thenOnlyMatchingCrawlersAreReturned() throws JsonProcessingException {
+        var prefix = "search-" + UUID.randomUUID();
+        var request = new CrawlerRequest(prefix + "-1", CrawlerTestDummyProvider.crawlerConfig.get());
+        var created = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON).bodyValue(objectMapper.writeValueAsString(request))
+                .exchange().expectStatus().isCreated().expectBody(CrawlerResponse.class).returnResult().getResponseBody();
+        assertNotNull(created);
+        webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON).bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get()))
+                .exchange().expectStatus().isCreated();
+
+        webTestClient.get().uri("/crawlers/search?status=CREATED&namePrefix=" + prefix).exchange().expectStatus().isOk()
+                .expectBodyList(CrawlerResponse.class).value(crawlers ->
+                        assertThat(crawlers).extracting(CrawlerResponse::id).containsExactly(created.id()));
+        webTestClient.get().uri("/crawlers/search?status=STARTED&namePrefix=" + prefix).exchange().expectStatus().isOk()
+                .expectBodyList(CrawlerResponse.class).hasSize(0);
+    }
+
+    @Test
+    void whenSearchCrawlersWithUnknownStatus_thenBadRequest() {
+        webTestClient.get().uri("/crawlers/search?status=UNKNOWN").exchange().expectStatus().isBadRequest();
+    }
+
     @Test
     void whenGetCrawlerRequest_thenCrawlerIsReturned() throws JsonProcessingException {
         var crawlerResponse = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
@@ -100,6 +431,177 @@ class CrawlerServiceApplicationTest {
                 });
     }
 
+    @Test
+    void whenCrawlerIsWrittenBehindTheService_thenCachedCrawlerIsInvalidated()
+            throws JsonProcessingException, InterruptedException {
+        var crawlerResponse = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange().expectStatus()
+                .isCreated().expectBody(CrawlerResponse.class).returnResult().getResponseBody();
+        assertNotNull(crawlerResponse);
+        webTestClient.get().uri("/crawlers/" + crawlerResponse.id()).exchange().expectStatus().isOk();
+
+        // writes of other replicas only reach this instance through the change stream
+        crawlerManagerRepository.findById(crawlerResponse.id())
+                .map(c -> new Crawler(c.id(), "Renamed Crawler", c.config(), c.status(), c.createdAt(), c.updatedAt(),
+                        c.version(), c.pendingAddressSupply(), c.nextRunAt(), c.sharedConfigId()))
+                .flatMap(crawlerManagerRepository::save).block();
+
+        String name = null;
+        for (int attempt = 0; attempt < 50 && !"Renamed Crawler".equals(name); attempt++) {
+            Thread.sleep(100);
+            name = Objects.requireNonNull(webTestClient.get().uri("/crawlers/" + crawlerResponse.id()).exchange()
+                    .expectStatus().isOk().expectBody(CrawlerResponse.class).returnResult().getResponseBody()).name();
+        }
+        assertThat(name).isEqualTo("Renamed Crawler");
+    }
+
+    @Test
+    void whenSharedConfigOfCrawlerIsMissing_thenItIsNotHandedOut() {
+        var crawler = CrawlerTestDummyProvider.crawler.get();
+        var stripped = crawler.withConfig(crawler.config().toBuilder().requestOptions(null).actions(null).build(),
+                "missing-" + UUID.randomUUID());
+        crawlerManagerRepository.save(stripped).block();
+
+        webTestClient.get().uri("/crawlers/" + crawler.id()).exchange().expectStatus().is5xxServerError();
+        webTestClient.get().uri("/crawlers/" + crawler.id() + "/config").exchange().expectStatus().is5xxServerError();
+    }
+
+    @Test
+    void whenCrawlersShareTheirOptions_thenOptionsAreStoredOnce() throws JsonProcessingException {
+        var responses = new ArrayList<CrawlerResponse>();
+        for (String startUrl : List.of("https://www.google.com/", "https://www.bing.com/")) {
+            var config = CrawlerTestDummyProvider.crawlerConfig.get().toBuilder().startUrls(List.of(startUrl)).build();
+            responses.add(webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(objectMapper.writeValueAsString(new CrawlerRequest("Test Crawler", config))).exchange()
+                    .expectStatus().isCreated().expectBody(CrawlerResponse.class).returnResult().getResponseBody());
+        }
+
+        var stored = responses.stream().map(response -> crawlerManagerRepository.findById(response.id()).block()).toList();
+        assertThat(stored).allSatisfy(crawler -> {
+            assertThat(crawler.sharedConfigId()).isEqualTo(stored.get(0).sharedConfigId()).hasSize(64);
+            assertThat(crawler.config().requestOptions()).isNull();
+            assertThat(crawler.config().actions()).isNull();
+        });
+        assertThat(sharedCrawlerConfigRepository.findById(stored.get(0).sharedConfigId()).block()).isNotNull();
+
+        webTestClient.get().uri("/crawlers/" + responses.get(1).id()).exchange().expectStatus().isOk()
+                .expectBody(CrawlerResponse.class).value(crawlerResponse -> {
+                    assertThat(crawlerResponse.config()).isEqualTo(responses.get(1).config());
+                    assertThat(crawlerResponse.config().requestOptions())
+                            .isEqualTo(CrawlerTestDummyProvider.crawlerConfig.get().requestOptions());
+                });
+    }
+
+    @Test
+    void whenCrawlerIsStarted_thenStatusChangeIsStreamed() throws JsonProcessingException {
+        var crawlerResponse = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange().expectStatus()
+                .isCreated().expectBody(CrawlerResponse.class).returnResult().getResponseBody();
+        assertNotNull(crawlerResponse);
+
+        var events = webTestClient.get().uri("/crawlers/" + crawlerResponse.id() + "/status-stream")
+                .accept(MediaType.TEXT_EVENT_STREAM).exchange().expectStatus().isOk()
+                .returnResult(STATUS_EVENTS).getResponseBody().filter(event -> event.data() != null);
+
+        StepVerifier.create(events)
+                .assertNext(event -> assertThat(event.data().status()).isEqualTo(CrawlerStatus.CREATED))
+                .then(() -> webTestClient.put().uri("/crawlers/" + crawlerResponse.id() + "/run").exchange().expectStatus().isOk())
+                .assertNext(event -> {
+                    assertThat(event.data().status()).isEqualTo(CrawlerStatus.STARTED);
+                    assertThat(event.id()).isNotNull();
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void whenStatusStreamIsResumed_thenChangesAfterLastEventAreSent() throws JsonProcessingException {
+        var crawlerResponse = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange().expectStatus()
+                .isCreated().expectBody(CrawlerResponse.class).returnResult().getResponseBody();
+        assertNotNull(crawlerResponse);
+
+        var started = webTestClient.get().uri("/crawlers/status-stream").accept(MediaType.TEXT_EVENT_STREAM).exchange()
+                .expectStatus().isOk().returnResult(STATUS_EVENTS).getResponseBody()
+                .filter(event -> event.data() != null && crawlerResponse.id().equals(event.data().id()));
+        webTestClient.put().uri("/crawlers/" + crawlerResponse.id() + "/run").exchange().expectStatus().isOk();
+        var startedEvent = started.blockFirst(Duration.ofSeconds(10));
+        assertNotNull(startedEvent);
+        assertThat(Objects.requireNonNull(startedEvent.data()).status()).isEqualTo(CrawlerStatus.STARTED);
+
+        // the client is disconnected while the crawler is paused
+        webTestClient.put().uri("/crawlers/" + crawlerResponse.id() + "/pause").exchange().expectStatus().isOk();
+
+        var resumed = webTestClient.get().uri("/crawlers/status-stream").accept(MediaType.TEXT_EVENT_STREAM)
+                .header(CrawlerManagerController.LAST_EVENT_ID_HEADER, startedEvent.id()).exchange()
+                .expectStatus().isOk().returnResult(STATUS_EVENTS).getResponseBody()
+                .filter(event -> event.data() != null && crawlerResponse.id().equals(event.data().id()));
+
+        StepVerifier.create(resumed)
+                .assertNext(event -> assertThat(event.data().status()).isEqualTo(CrawlerStatus.STOPPED))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void whenScheduledRunIsDue_thenCrawlerIsStarted() throws JsonProcessingException, InterruptedException {
+        var config = CrawlerTestDummyProvider.crawlerConfig.get().toBuilder().schedule("* * * * * ?").build();
+        var crawlerResponse = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(new CrawlerRequest("Scheduled Crawler", config))).exchange()
+                .expectStatus().isCreated().expectBody(CrawlerResponse.class).returnResult().getResponseBody();
+        assertNotNull(crawlerResponse);
+
+        CrawlerStatus status = null;
+        for (int attempt = 0; attempt < 100 && status != CrawlerStatus.STARTED; attempt++) {
+            Thread.sleep(100);
+            status = Objects.requireNonNull(webTestClient.get().uri("/crawlers/" + crawlerResponse.id() + "/status").exchange()
+                    .expectStatus().isOk().expectBody(StatusResponse.class).returnResult().getResponseBody()).status();
+        }
+        assertThat(status).isEqualTo(CrawlerStatus.STARTED);
+    }
+
+    @Test
+    void whenGetCrawlerWithMatchingETag_thenNotModified() throws JsonProcessingException {
+        var crawlerResponse = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange().expectStatus()
+                .isCreated().expectBody(CrawlerResponse.class).returnResult().getResponseBody();
+        assertNotNull(crawlerResponse);
+
+        var eTag = webTestClient.get().uri("/crawlers/" + crawlerResponse.id()).exchange().expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG).expectBody(CrawlerResponse.class)
+                .value(c -> assertThat(c.version()).isEqualTo(crawlerResponse.version()))
+                .returnResult().getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/crawlers/" + crawlerResponse.id()).ifNoneMatch(eTag).exchange()
+                .expectStatus().isNotModified().expectBody().isEmpty();
+        webTestClient.get().uri("/crawlers/" + crawlerResponse.id() + "/config").ifNoneMatch(eTag).exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.put().uri("/crawlers/" + crawlerResponse.id() + "/run").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/crawlers/" + crawlerResponse.id() + "/status").ifNoneMatch(eTag).exchange()
+                .expectStatus().isOk().expectHeader().value(HttpHeaders.ETAG, newETag -> assertThat(newETag).isNotEqualTo(eTag));
+    }
+
+    @Test
+    void whenUpdateCrawlerWithStaleETag_thenPreconditionFailed() throws JsonProcessingException {
+        var crawlerResponse = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange().expectStatus()
+                .isCreated().expectBody(CrawlerResponse.class).returnResult().getResponseBody();
+        assertNotNull(crawlerResponse);
+        var eTag = webTestClient.get().uri("/crawlers/" + crawlerResponse.id()).exchange().expectStatus().isOk()
+                .expectBody(CrawlerResponse.class).returnResult().getResponseHeaders().getETag();
+
+        var updatedETag = webTestClient.put().uri("/crawlers/" + crawlerResponse.id()).ifMatch(eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.updatedCrawlerRequest.get())).exchange()
+                .expectStatus().isOk().expectBody(CrawlerResponse.class).returnResult().getResponseHeaders().getETag();
+        assertThat(updatedETag).isNotEqualTo(eTag);
+
+        webTestClient.put().uri("/crawlers/" + crawlerResponse.id()).ifMatch(eTag).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
     @Test
     void whenGetCrawlerConfigRequest_thenCrawlerConfigIsReturned() throws JsonProcessingException {
         var crawlerResponse = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
@@ -200,6 +702,112 @@ class CrawlerServiceApplicationTest {
       assertNull(output.receive());
     }
 
+    @Test
+    void whenStopStoppedCrawlerRequest_thenConflict() throws JsonProcessingException {
+        var crawlerResponse = webTestClient.post().uri("/crawlers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get())).exchange().expectStatus()
+                .isCreated().expectBody(CrawlerResponse.class).returnResult().getResponseBody();
+        assertNotNull(crawlerResponse);
+
+        webTestClient.put().uri("/crawlers/" + crawlerResponse.id() + "/pause").exchange().expectStatus().isOk();
+        webTestClient.put().uri("/crawlers/" + crawlerResponse.id() + "/pause").exchange().expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void whenRunCrawlerRequestWithInvalidId_thenNotFound() {
+        webTestClient.put().uri("/crawlers/" + UUID.randomUUID() + "/run").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenPostCrawlerBatchRequest_thenResultIsReportedPerItem() throws JsonProcessingException {
+        var invalidRequest = new CrawlerRequest("", CrawlerTestDummyProvider.crawlerConfig.get());
+
+        webTestClient.post().uri("/crawlers/batch").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(List.of(CrawlerTestDummyProvider.crawlerRequest.get(), invalidRequest,
+                        CrawlerTestDummyProvider.crawlerRequest.get())))
+                .exchange().expectStatus().isOk()
+                .expectBodyList(CrawlerBatchItemResponse.class).value(items -> {
+                    assertThat(items).hasSize(3);
+                    assertThat(items).filteredOn(item -> item.status() == HttpStatus.CREATED.value())
+                            .extracting(CrawlerBatchItemResponse::index).containsExactlyInAnyOrder(0L, 2L);
+                    assertThat(items).filteredOn(item -> item.status() == HttpStatus.BAD_REQUEST.value())
+                            .extracting(CrawlerBatchItemResponse::error).containsExactly("Name could not be blank");
+                });
+    }
+
+    @Test
+    void whenCrawlerBatchContainsExistingCrawler_thenOnlyItIsRejectedAsConflict() {
+        var existing = crawlerManagerService.createCrawler(CrawlerTestDummyProvider.crawler.get()).block();
+        assertNotNull(existing);
+        var first = CrawlerTestDummyProvider.crawler.get();
+        var last = CrawlerTestDummyProvider.crawler.get();
+
+        StepVerifier.create(crawlerManagerService.createCrawlers(List.of(first, existing, last)).collectList())
+                .assertNext(results -> {
+                    assertThat(results).filteredOn(result -> result.status().value() == HttpStatus.CREATED.value())
+                            .extracting(CrawlerBatchResult::id).containsExactlyInAnyOrder(first.id(), last.id());
+                    assertThat(results).filteredOn(result -> result.status().value() == HttpStatus.CONFLICT.value())
+                            .extracting(CrawlerBatchResult::id).containsExactly(existing.id());
+                })
+                .verifyComplete();
+        webTestClient.get().uri("/crawlers/" + last.id()).exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void whenCrawlerBatchUpdateRepeatsAnId_thenTheRepetitionIsRejectedAtItsIndex() throws JsonProcessingException {
+        var crawler = crawlerManagerService.createCrawler(CrawlerTestDummyProvider.crawler.get()).block();
+        assertNotNull(crawler);
+        var config = CrawlerTestDummyProvider.updatedCrawlerConfig.get();
+        var updates = List.of(new CrawlerBatchUpdateRequest(crawler.id(), "First Name", config),
+                new CrawlerBatchUpdateRequest(crawler.id(), "Second Name", config));
+
+        webTestClient.put().uri("/crawlers/batch").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(updates))
+                .exchange().expectStatus().isOk()
+                .expectBodyList(CrawlerBatchItemResponse.class).value(items -> {
+                    assertThat(items).extracting(CrawlerBatchItemResponse::index).containsExactlyInAnyOrder(0L, 1L);
+                    assertThat(items).filteredOn(item -> item.index() == 0L)
+                            .extracting(CrawlerBatchItemResponse::status).containsExactly(HttpStatus.OK.value());
+                    assertThat(items).filteredOn(item -> item.index() == 1L)
+                            .extracting(CrawlerBatchItemResponse::status).containsExactly(HttpStatus.BAD_REQUEST.value());
+                });
+        webTestClient.get().uri("/crawlers/" + crawler.id()).exchange().expectStatus().isOk()
+                .expectBody(CrawlerResponse.class).value(response -> assertThat(response.name()).isEqualTo("First Name"));
+    }
+
+    @Test
+    void whenPauseAndDeleteCrawlerBatchRequest_thenCrawlersAreStoppedAndDeleted() throws JsonProcessingException {
+        var created = webTestClient.post().uri("/crawlers/batch").contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get()) + "\n"
+                        + objectMapper.writeValueAsString(CrawlerTestDummyProvider.crawlerRequest.get()) + "\n")
+                .exchange().expectStatus().isOk()
+                .expectBodyList(CrawlerBatchItemResponse.class).hasSize(2).returnResult().getResponseBody();
+        assertNotNull(created);
+        var ids = created.stream().map(CrawlerBatchItemResponse::id).collect(Collectors.toSet());
+        var unknownId = UUID.randomUUID();
+        var selection = new HashSet<>(ids);
+        selection.add(unknownId);
+
+        webTestClient.put().uri("/crawlers/batch/pause").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(new CrawlerBatchSelection(selection, null)))
+                .exchange().expectStatus().isOk()
+                .expectBodyList(CrawlerBatchItemResponse.class).value(items -> {
+                    assertThat(items).filteredOn(item -> item.status() == HttpStatus.OK.value())
+                            .extracting(CrawlerBatchItemResponse::id).containsExactlyInAnyOrderElementsOf(ids);
+                    assertThat(items).filteredOn(item -> item.status() == HttpStatus.NOT_FOUND.value())
+                            .extracting(CrawlerBatchItemResponse::id).containsExactly(unknownId);
+                });
+        ids.forEach(id -> webTestClient.get().uri("/crawlers/" + id + "/status").exchange().expectStatus().isOk()
+                .expectBody(StatusResponse.class).isEqualTo(new StatusResponse(CrawlerStatus.STOPPED)));
+
+        webTestClient.method(HttpMethod.DELETE).uri("/crawlers/batch").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(new CrawlerBatchSelection(ids, null)))
+                .exchange().expectStatus().isOk()
+                .expectBodyList(CrawlerBatchItemResponse.class).value(items -> assertThat(items)
+                        .allMatch(item -> item.status() == HttpStatus.NO_CONTENT.value()).hasSize(2));
+        ids.forEach(id -> webTestClient.get().uri("/crawlers/" + id).exchange().expectStatus().isNotFound());
+    }
+
     @Test
     void whenUpdateCrawlerRequestWithInvalidId_thenNotFound() throws JsonProcessingException {
         webTestClient.put().uri("/crawlers/" + UUID.randomUUID()).contentType(MediaType.APPLICATION_JSON).bodyValue(objectMapper.writeValueAsString(CrawlerTestDummyProvider.updatedCrawlerRequest.get())).exchange().expectStatus().isNotFound();
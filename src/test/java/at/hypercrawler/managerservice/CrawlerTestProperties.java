@@ -0,0 +1,33 @@
+package at.hypercrawler.managerservice;
+
+import at.hypercrawler.managerservice.config.CrawlerManagerProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Manager properties for tests that create components without an application context. They are bound the way the
+ * application binds them, so every property that is not given has its default.
+ */
+public final class CrawlerTestProperties {
+
+    private CrawlerTestProperties() {
+    }
+
+    public static CrawlerManagerProperties defaults() {
+        return with(Map.of());
+    }
+
+    /**
+     * @param properties values by their name relative to {@code hypercrawler.manager}, such as
+     *                   {@code fan-out.max-urls-per-chunk}
+     */
+    public static CrawlerManagerProperties with(Map<String, ?> properties) {
+        var source = new HashMap<String, Object>();
+        properties.forEach((name, value) -> source.put("hypercrawler.manager." + name, String.valueOf(value)));
+        return new Binder(new MapConfigurationPropertySource(source))
+                .bindOrCreate("hypercrawler.manager", CrawlerManagerProperties.class);
+    }
+}
@@ -0,0 +1,93 @@
+package at.hypercrawler.managerservice.domain;
+
+import at.hypercrawler.managerservice.domain.model.CompactStartUrls;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactStartUrlsTest {
+
+    // grouped by shop, as lists taken from sitemaps are
+    private final List<String> urls = IntStream.range(0, 5000)
+            .mapToObj(i -> "https://www.shop-" + (i * 7 / 5000) + ".example.com/products/category-" + (i % 13) + "/item-" + i)
+            .toList();
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void whenUrlsAreCompacted_thenIteratingYieldsThemInTheirOrder(boolean deflate) {
+        var shuffled = new ArrayList<>(urls);
+        Collections.shuffle(shuffled, new Random(42));
+        var compact = CompactStartUrls.of(shuffled, deflate);
+
+        assertThat(compact).hasSize(urls.size()).containsExactlyElementsOf(shuffled);
+        assertThat(compact.get(4321)).isEqualTo(shuffled.get(4321));
+        assertThat(compact.get(0)).isEqualTo(shuffled.get(0));
+    }
+
+    @Test
+    void whenIterationIsAbandoned_thenTheListCanStillBeIterated() {
+        var compact = CompactStartUrls.of(urls, true);
+        for (int i = 0; i < 100; i++) {
+            assertThat(compact.iterator().next()).isEqualTo(urls.get(0));
+        }
+
+        assertThat(compact).containsExactlyElementsOf(urls);
+    }
+
+    @Test
+    void whenEncodedFormIsGroupedByOrigin_thenItIsReadInThatOrder() {
+        // a list written before the order was kept: one group of two paths under its origin
+        var origin = "https://a.com".getBytes(StandardCharsets.UTF_8);
+        var encoded = new ByteArrayOutputStream();
+        encoded.writeBytes(new byte[]{0, 2, 1, (byte) origin.length});
+        encoded.writeBytes(origin);
+        encoded.writeBytes(new byte[]{2, 0, 2, '/', 'a', 1, 1, 'b'});
+
+        assertThat(CompactStartUrls.decode(encoded.toByteArray())).containsExactly("https://a.com/a", "https://a.com/b");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void whenUrlsAreCompacted_thenEncodedFormIsSmallerThanTheUrls(boolean deflate) {
+        long plain = urls.stream().mapToLong(String::length).sum();
+
+        assertThat(CompactStartUrls.of(urls, deflate).encoded().length).isLessThan((int) (plain / 2));
+    }
+
+    @Test
+    void whenEncodedFormIsDecoded_thenListIsEqual() {
+        var compact = CompactStartUrls.of(urls, true);
+        var decoded = CompactStartUrls.decode(compact.encoded());
+
+        assertThat(decoded).isEqualTo(compact).isEqualTo(new ArrayList<>(compact)).hasSameHashCodeAs(new ArrayList<>(compact));
+    }
+
+    @Test
+    void whenUrlsSharePrefixesOrHaveNone_thenTheyAreKeptApart() {
+        var mixed = List.of("https://a.com.example/x", "https://a.com/\u00fc?q=1", "https://a.com", "https://a.com:8443/",
+                "relative/path", "https://a.com/\u00fc?q=1", "https://a.com/\u00fc");
+
+        assertThat(CompactStartUrls.of(mixed, false)).containsExactlyElementsOf(mixed);
+    }
+
+    @Test
+    void whenNoUrlsAreCompacted_thenListIsEmpty() {
+        assertThat(CompactStartUrls.of(List.of(), true)).isEmpty();
+    }
+
+    @Test
+    void whenEncodedFormIsNotACompactList_thenItIsRejected() {
+        assertThatThrownBy(() -> CompactStartUrls.decode(new byte[]{8, 0})).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,21 +1,44 @@
 package at.hypercrawler.managerservice.domain;
 
 import at.hypercrawler.managerservice.CrawlerTestDummyProvider;
+import at.hypercrawler.managerservice.domain.model.AddressSupplyRequest;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerConfigView;
+import at.hypercrawler.managerservice.domain.model.CrawlerCursor;
+import at.hypercrawler.managerservice.domain.model.CrawlerField;
+import at.hypercrawler.managerservice.domain.model.CrawlerOrder;
+import at.hypercrawler.managerservice.domain.model.CrawlerSearch;
 import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatusCount;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatusView;
 import at.hypercrawler.managerservice.domain.repository.CrawlerManagerRepository;
+import org.bson.BsonBinary;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
 @DataMongoTest
 @Testcontainers
 class CrawlerManagerRepositoryTest {
@@ -26,6 +49,9 @@ class CrawlerManagerRepositoryTest {
     @Autowired
     private CrawlerManagerRepository crawlerManagerRepository;
 
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
     @DynamicPropertySource
     static void mongoDbProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.data.mongodb.uri", mongoContainer::getReplicaSetUrl);
@@ -36,6 +62,28 @@ class CrawlerManagerRepositoryTest {
         StepVerifier.create(crawlerManagerRepository.findById(UUID.randomUUID())).expectNextCount(0).verifyComplete();
     }
 
+    @Test
+    void whenCrawlerIsStoredWithJavaLegacyId_thenItIsFoundAndUpdatedById() {
+        var id = UUID.randomUUID();
+        var name = "legacy-" + id;
+        var legacy = new Document("_id", new BsonBinary(id, UuidRepresentation.JAVA_LEGACY)).append("name", name)
+                .append("status", CrawlerStatus.CREATED.name()).append("version", 0).append("_class", Crawler.class.getName());
+        reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(Crawler.class))
+                .flatMap(collection -> Mono.from(collection.insertOne(legacy))).block();
+
+        StepVerifier.create(crawlerManagerRepository.findById(id)).expectNextMatches(c -> c.name().equals(name))
+                .verifyComplete();
+        StepVerifier.create(crawlerManagerRepository.existsById(id)).expectNext(true).verifyComplete();
+        StepVerifier.create(crawlerManagerRepository.updateStatus(id, Set.of(CrawlerStatus.CREATED), CrawlerStatus.STARTED,
+                        null))
+                .expectNextMatches(c -> c.id().equals(id) && c.status() == CrawlerStatus.STARTED).verifyComplete();
+        StepVerifier.create(crawlerManagerRepository.findAllAfter(CrawlerSearch.builder().namePrefix(name).build(), null, 0,
+                        10, EnumSet.of(CrawlerField.ID)))
+                .expectNextMatches(c -> c.id().equals(id)).verifyComplete();
+        StepVerifier.create(crawlerManagerRepository.deleteById(id).then(crawlerManagerRepository.existsById(id)))
+                .expectNext(false).verifyComplete();
+    }
+
     @Test
     void whenCreateCrawler_thenCrawlerIsInDatabase() {
         StepVerifier.create(crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get())).expectNextMatches(
@@ -43,4 +91,175 @@ class CrawlerManagerRepositoryTest {
                         && c.config().equals(CrawlerTestDummyProvider.crawlerConfig.get())).verifyComplete();
     }
 
+    @Test
+    void whenUpdateStatusFromAllowedStatus_thenStatusAndVersionAreUpdated() {
+        var crawler = crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get()).block();
+
+        StepVerifier.create(crawlerManagerRepository.updateStatus(crawler.id(), CrawlerStatus.STARTED.allowedPredecessors(), CrawlerStatus.STARTED, null))
+                .expectNextMatches(c -> c.status().equals(CrawlerStatus.STARTED) && c.version() == crawler.version() + 1
+                        && c.config().equals(crawler.config()))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenUpdateStatusFromDisallowedStatus_thenNothingIsUpdated() {
+        var crawler = crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get()).block();
+
+        StepVerifier.create(crawlerManagerRepository.updateStatus(crawler.id(), Set.of(CrawlerStatus.STOPPED), CrawlerStatus.STARTED, null))
+                .expectNextCount(0).verifyComplete();
+        StepVerifier.create(crawlerManagerRepository.findById(crawler.id()))
+                .expectNextMatches(c -> c.status().equals(CrawlerStatus.CREATED)).verifyComplete();
+    }
+
+    @Test
+    void whenFindStatusById_thenOnlyStatusIsReturned() {
+        var crawler = crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get()).block();
+
+        StepVerifier.create(crawlerManagerRepository.findStatusById(crawler.id()))
+                .expectNext(new CrawlerStatusView(CrawlerStatus.CREATED, crawler.version())).verifyComplete();
+    }
+
+    @Test
+    void whenFindConfigById_thenOnlyConfigIsReturned() {
+        var crawler = crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get()).block();
+
+        StepVerifier.create(crawlerManagerRepository.findConfigById(crawler.id()))
+                .expectNext(new CrawlerConfigView(CrawlerTestDummyProvider.crawlerConfig.get(), null, crawler.version()))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenAddressSupplyIsClaimed_thenItIsLeasedUntilCompleted() {
+        var crawler = crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get()).block();
+        var addressSupply = AddressSupplyRequest.requestedAt(Instant.now().minusSeconds(1));
+        crawlerManagerRepository.updateStatus(crawler.id(), CrawlerStatus.STARTED.allowedPredecessors(), CrawlerStatus.STARTED, addressSupply).block();
+
+        var claimed = crawlerManagerRepository.claimPendingAddressSupply(Instant.now(), Duration.ofMinutes(1))
+                .expand(c -> crawlerManagerRepository.claimPendingAddressSupply(Instant.now(), Duration.ofMinutes(1)))
+                .filter(c -> c.id().equals(crawler.id())).blockFirst();
+        assertNotNull(claimed);
+        assertNotNull(claimed.pendingAddressSupply().lockedUntil());
+
+        StepVerifier.create(crawlerManagerRepository.claimPendingAddressSupply(Instant.now(), Duration.ofMinutes(1))
+                        .filter(c -> c.id().equals(crawler.id())))
+                .expectNextCount(0).verifyComplete();
+
+        crawlerManagerRepository.completeAddressSupply(crawler.id(), claimed.pendingAddressSupply().requestedAt()).block();
+        StepVerifier.create(crawlerManagerRepository.findById(crawler.id()))
+                .expectNextMatches(c -> c.pendingAddressSupply() == null).verifyComplete();
+    }
+
+    @Test
+    void whenAddressSupplyLeaseIsExtended_thenItIsLockedLongerUntilCompleted() {
+        var crawler = crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get()).block();
+        var addressSupply = AddressSupplyRequest.requestedAt(Instant.now().minusSeconds(1));
+        crawlerManagerRepository.updateStatus(crawler.id(), CrawlerStatus.STARTED.allowedPredecessors(), CrawlerStatus.STARTED, addressSupply).block();
+        var claimed = crawlerManagerRepository.claimPendingAddressSupply(Instant.now(), Duration.ofMinutes(1))
+                .expand(c -> crawlerManagerRepository.claimPendingAddressSupply(Instant.now(), Duration.ofMinutes(1)))
+                .filter(c -> c.id().equals(crawler.id())).blockFirst();
+        assertNotNull(claimed);
+        var requestedAt = claimed.pendingAddressSupply().requestedAt();
+
+        var lockedUntil = Instant.now().plus(Duration.ofMinutes(5)).truncatedTo(ChronoUnit.MILLIS);
+        StepVerifier.create(crawlerManagerRepository.extendAddressSupplyLease(crawler.id(), requestedAt, lockedUntil))
+                .expectNext(true).verifyComplete();
+        StepVerifier.create(crawlerManagerRepository.findById(crawler.id()))
+                .expectNextMatches(c -> c.pendingAddressSupply().lockedUntil().equals(lockedUntil)).verifyComplete();
+
+        crawlerManagerRepository.completeAddressSupply(crawler.id(), requestedAt).block();
+        StepVerifier.create(crawlerManagerRepository.extendAddressSupplyLease(crawler.id(), requestedAt,
+                Instant.now().plus(Duration.ofMinutes(5)))).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void whenDueRunIsClaimed_thenOnlyTheFirstClaimSucceeds() {
+        var due = Instant.now().minusSeconds(1).truncatedTo(ChronoUnit.MILLIS);
+        var crawler = crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get().withNextRunAt(due)).block();
+        var leasedUntil = Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.MILLIS);
+
+        StepVerifier.create(crawlerManagerRepository.findDueForRun(Instant.now(), 1000).filter(c -> c.id().equals(crawler.id())))
+                .expectNextMatches(c -> c.nextRunAt().equals(due) && c.config().schedule() != null).verifyComplete();
+        StepVerifier.create(crawlerManagerRepository.claimRun(crawler.id(), due, leasedUntil)).expectNext(true).verifyComplete();
+        StepVerifier.create(crawlerManagerRepository.claimRun(crawler.id(), due, leasedUntil)).expectNext(false).verifyComplete();
+
+        var nextRunAt = Instant.now().plusSeconds(3600).truncatedTo(ChronoUnit.MILLIS);
+        crawlerManagerRepository.scheduleNextRun(crawler.id(), leasedUntil, nextRunAt).block();
+        StepVerifier.create(crawlerManagerRepository.findById(crawler.id()))
+                .expectNextMatches(c -> c.nextRunAt().equals(nextRunAt)).verifyComplete();
+    }
+
+
+    @Test
+    void whenCountByStatus_thenCrawlersAreCountedPerStatus() {
+        var before = countByStatus();
+        crawlerManagerRepository.save(new Crawler("Stopped Crawler", CrawlerStatus.STOPPED,
+                CrawlerTestDummyProvider.crawlerConfig.get())).block();
+        crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get()).block();
+        crawlerManagerRepository.save(CrawlerTestDummyProvider.crawler.get()).block();
+
+        var after = countByStatus();
+        assertThat(after.getOrDefault(CrawlerStatus.STOPPED, 0L)).isEqualTo(before.getOrDefault(CrawlerStatus.STOPPED, 0L) + 1);
+        assertThat(after.getOrDefault(CrawlerStatus.CREATED, 0L)).isEqualTo(before.getOrDefault(CrawlerStatus.CREATED, 0L) + 2);
+    }
+
+    @Test
+    void whenSearchingByNamePrefixAndStatus_thenOnlyMatchingCrawlersAreReturnedInKeysetOrder() {
+        var prefix = "shop-" + UUID.randomUUID() + ".";
+        var config = CrawlerTestDummyProvider.crawlerConfig.get();
+        var first = crawlerManagerRepository.save(new Crawler(prefix + "1", CrawlerStatus.STARTED, config)).block();
+        var second = crawlerManagerRepository.save(new Crawler(prefix + "2", CrawlerStatus.STARTED, config)).block();
+        crawlerManagerRepository.save(new Crawler(prefix + "3", CrawlerStatus.STOPPED, config)).block();
+        // the dot of the prefix must not match any character
+        crawlerManagerRepository.save(new Crawler(prefix.replace('.', 'x') + "4", CrawlerStatus.STARTED, config)).block();
+
+        var search = CrawlerSearch.builder().namePrefix(prefix).status(CrawlerStatus.STARTED).build();
+        var found = crawlerManagerRepository.findAllAfter(search, null, 0, 10, EnumSet.allOf(CrawlerField.class))
+                .collectList().block();
+        assertThat(found).extracting(Crawler::id).containsExactlyInAnyOrder(first.id(), second.id());
+
+        StepVerifier.create(crawlerManagerRepository.findAllAfter(search, CrawlerCursor.of(CrawlerOrder.of(search), found.get(0)), 0, 10,
+                        EnumSet.of(CrawlerField.NAME)))
+                .expectNextMatches(c -> c.id().equals(found.get(1).id()) && c.status() == null)
+                .verifyComplete();
+    }
+
+    @Test
+    void whenSearchingByNamePrefix_thenCrawlersArePagedInNameOrder() {
+        var prefix = "paged-" + UUID.randomUUID() + "-";
+        var config = CrawlerTestDummyProvider.crawlerConfig.get();
+        var second = crawlerManagerRepository.save(new Crawler(prefix + "b", CrawlerStatus.CREATED, config)).block();
+        var first = crawlerManagerRepository.save(new Crawler(prefix + "a", CrawlerStatus.CREATED, config)).block();
+        var third = crawlerManagerRepository.save(new Crawler(prefix + "c", CrawlerStatus.CREATED, config)).block();
+
+        var search = CrawlerSearch.builder().namePrefix(prefix).build();
+        var page = crawlerManagerRepository.findAllAfter(search, null, 2, 10, EnumSet.of(CrawlerField.ID)).collectList().block();
+        assertThat(page).extracting(Crawler::id).containsExactly(first.id(), second.id());
+
+        var cursor = CrawlerCursor.decode(CrawlerCursor.of(CrawlerOrder.of(search), page.get(1)).encode(), CrawlerOrder.NAME);
+        StepVerifier.create(crawlerManagerRepository.findAllAfter(search, cursor, 0, 10, EnumSet.of(CrawlerField.ID)))
+                .expectNextMatches(c -> c.id().equals(third.id()))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenSearchingByTimeRange_thenBoundsAreExclusive() {
+        var indexPrefix = "search_" + UUID.randomUUID();
+        var config = CrawlerTestDummyProvider.crawlerConfig.get().toBuilder().indexPrefix(indexPrefix).build();
+        var crawler = crawlerManagerRepository.save(new Crawler("Test Crawler", CrawlerStatus.CREATED, config)).block();
+        var createdAt = crawlerManagerRepository.findById(crawler.id()).block().createdAt();
+
+        var within = CrawlerSearch.builder().indexPrefix(indexPrefix)
+                .createdAfter(createdAt.minusSeconds(1)).createdBefore(createdAt.plusSeconds(1)).build();
+        StepVerifier.create(crawlerManagerRepository.findAllAfter(within, null, 0, 10, EnumSet.of(CrawlerField.ID)))
+                .expectNextCount(1).verifyComplete();
+
+        var after = CrawlerSearch.builder().indexPrefix(indexPrefix).createdAfter(createdAt).build();
+        StepVerifier.create(crawlerManagerRepository.findAllAfter(after, null, 0, 10, EnumSet.of(CrawlerField.ID)))
+                .expectNextCount(0).verifyComplete();
+    }
+
+    private Map<CrawlerStatus, Long> countByStatus() {
+        return crawlerManagerRepository.countByStatus()
+                .collectMap(CrawlerStatusCount::status, CrawlerStatusCount::count).block();
+    }
 }
@@ -0,0 +1,82 @@
+package at.hypercrawler.managerservice.domain;
+
+import at.hypercrawler.managerservice.domain.exception.InvalidScheduleException;
+import at.hypercrawler.managerservice.domain.model.CrawlerSchedule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CrawlerScheduleTest {
+
+    private final Instant now = Instant.parse("2024-03-10T10:15:30Z");
+
+    @Test
+    void whenScheduleHasFiveFields_thenItFiresOnTheMinute() {
+        assertThat(CrawlerSchedule.parse("30 2 * * *").nextFireTime(now)).isEqualTo(Instant.parse("2024-03-11T02:30:00Z"));
+    }
+
+    @Test
+    void whenScheduleHasSixFields_thenSecondsAreRespected() {
+        assertThat(CrawlerSchedule.parse("0 0 12 * * ?").nextFireTime(now)).isEqualTo(Instant.parse("2024-03-10T12:00:00Z"));
+        assertThat(CrawlerSchedule.parse("*/10 * * * * *").nextFireTime(now)).isEqualTo(Instant.parse("2024-03-10T10:15:40Z"));
+    }
+
+    @Test
+    void whenScheduleHasYearField_thenOnlyMatchingYearsFire() {
+        assertThat(CrawlerSchedule.parse("0 0 0 1 1 ? 2099").nextFireTime(now)).isEqualTo(Instant.parse("2099-01-01T00:00:00Z"));
+        assertThat(CrawlerSchedule.parse("0 0 2 1 6 ? 2026-2030/2").nextFireTime(now)).isEqualTo(Instant.parse("2026-06-01T02:00:00Z"));
+        assertThat(CrawlerSchedule.parse("0 0 12 * * ? *").nextFireTime(now)).isEqualTo(Instant.parse("2024-03-10T12:00:00Z"));
+    }
+
+    @Test
+    void whenScheduleHasNoFutureMatch_thenNoNextRunIsReturned() {
+        assertThat(CrawlerSchedule.parse("0 0 0 1 1 ? 2020").nextFireTime(now)).isNull();
+    }
+
+    @Test
+    void whenScheduleUsesNames_thenTheyMatchTheirNumbers() {
+        // 2024-03-10 is a Sunday
+        assertThat(CrawlerSchedule.parse("0 0 9 * * MON-FRI").nextFireTime(now)).isEqualTo(Instant.parse("2024-03-11T09:00:00Z"));
+        assertThat(CrawlerSchedule.parse("0 0 9 * * 0").nextFireTime(now)).isEqualTo(Instant.parse("2024-03-17T09:00:00Z"));
+        assertThat(CrawlerSchedule.parse("0 0 9 * * 7").nextFireTime(now)).isEqualTo(Instant.parse("2024-03-17T09:00:00Z"));
+        assertThat(CrawlerSchedule.parse("0 0 0 1 JAN,JUL ?").nextFireTime(now)).isEqualTo(Instant.parse("2024-07-01T00:00:00Z"));
+    }
+
+    @Test
+    void whenScheduleUsesLastOrNthDays_thenTheMonthIsTakenIntoAccount() {
+        assertThat(CrawlerSchedule.parse("0 0 0 L * ?").nextFireTime(now)).isEqualTo(Instant.parse("2024-03-31T00:00:00Z"));
+        assertThat(CrawlerSchedule.parse("0 0 0 L 2 ?").nextFireTime(now)).isEqualTo(Instant.parse("2025-02-28T00:00:00Z"));
+        assertThat(CrawlerSchedule.parse("0 0 0 L-2 * ?").nextFireTime(now)).isEqualTo(Instant.parse("2024-03-29T00:00:00Z"));
+        assertThat(CrawlerSchedule.parse("0 0 0 ? * MON#2").nextFireTime(now)).isEqualTo(Instant.parse("2024-03-11T00:00:00Z"));
+        assertThat(CrawlerSchedule.parse("0 0 0 ? * 5L").nextFireTime(now)).isEqualTo(Instant.parse("2024-03-29T00:00:00Z"));
+    }
+
+    @Test
+    void whenNextFireIsComputedInEpochSeconds_thenItMatchesTheInstant() {
+        var schedule = CrawlerSchedule.parse("0 */15 9-17 * * MON-FRI");
+        assertThat(schedule.nextFireEpochSecond(now.getEpochSecond()))
+                .isEqualTo(schedule.nextFireTime(now).getEpochSecond())
+                .isEqualTo(Instant.parse("2024-03-11T09:00:00Z").getEpochSecond());
+        assertThat(CrawlerSchedule.parse("0 0 0 1 1 ? 2020").nextFireEpochSecond(now.getEpochSecond()))
+                .isEqualTo(CrawlerSchedule.NONE);
+    }
+
+    @Test
+    void whenScheduleIsInvalid_thenTryParseReturnsNull() {
+        assertThat(CrawlerSchedule.tryParse("99 99 * * *")).isNull();
+        assertThat(CrawlerSchedule.tryParse("1".repeat(300) + "!")).isNull();
+        assertThat(CrawlerSchedule.tryParse("0 0 12 * * ?")).isNotNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"invalid cron", "0 0 25 * * ?", "* * * *", "0 0 0 1 1 ? 1900", "0 0 0 1 1 ? 2030-2020",
+            "99 99 * * *", "0 0 12 * * MON#6", "0 0 12 L-31 * ?", "0 0 12 15W * ?", "0 0 12 * * FOO"})
+    void whenScheduleIsInvalid_thenExceptionIsThrown(String schedule) {
+        assertThatThrownBy(() -> CrawlerSchedule.parse(schedule)).isInstanceOf(InvalidScheduleException.class);
+    }
+}
@@ -0,0 +1,110 @@
+package at.hypercrawler.managerservice.domain;
+
+import at.hypercrawler.managerservice.domain.exception.InvalidFilterPatternException;
+import at.hypercrawler.managerservice.domain.model.CrawlerFilterOptions;
+import at.hypercrawler.managerservice.domain.model.GlobSet;
+import at.hypercrawler.managerservice.domain.model.UrlFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class UrlFilterTest {
+
+    private final UrlFilter filter = UrlFilter.compile(CrawlerFilterOptions.builder()
+            .siteExclusionPatterns(List.of("https://www.google.com/", "https://www.bing.com/*",
+                    "https://www.bing.com/search/*", "https://*.yahoo.com/*/private", "*.pdf"))
+            .queryParameterExclusionPatterns(List.of("utm_*", "sessionid"))
+            .build());
+
+    @Test
+    void whenPatternsAreCompiled_thenTheyAreSplitIntoLiteralsPrefixesAndPatterns() {
+        assertThat(filter.sites().literals()).containsExactly("https://www.google.com/");
+        // the search prefix is covered by the shorter one
+        assertThat(filter.sites().prefixes()).containsExactly("https://www.bing.com/");
+        assertThat(filter.sites().patterns()).containsExactly("https://*.yahoo.com/*/private", "*.pdf");
+    }
+
+    @Test
+    void whenUrlMatchesAnyPattern_thenItIsExcluded() {
+        assertThat(filter.excludes("https://www.google.com/")).isTrue();
+        assertThat(filter.excludes("https://www.bing.com/")).isTrue();
+        assertThat(filter.excludes("https://www.bing.com/search/?q=1")).isTrue();
+        assertThat(filter.excludes("https://news.yahoo.com/2024/private")).isTrue();
+        assertThat(filter.excludes("https://a.at/report.pdf")).isTrue();
+
+        assertThat(filter.excludes("https://www.google.com/search")).isFalse();
+        assertThat(filter.excludes("https://www.bing.co/")).isFalse();
+        assertThat(filter.excludes("https://news.yahoo.com/2024/private/1")).isFalse();
+        assertThat(filter.excludes("https://a.at/report.pdf.html")).isFalse();
+    }
+
+    @Test
+    void whenParameterMatchesAnyPattern_thenItIsExcluded() {
+        assertThat(filter.excludesParameter("utm_source")).isTrue();
+        assertThat(filter.excludesParameter("sessionid")).isTrue();
+        assertThat(filter.excludesParameter("session")).isFalse();
+        assertThat(filter.excludesParameter("q")).isFalse();
+    }
+
+    @Test
+    void whenPatternsContainRegexCharacters_thenTheyAreMatchedLiterally() {
+        var globs = GlobSet.compile(List.of("https://a.at/?q=(1)*", "*[x]"));
+
+        assertThat(globs.matches("https://a.at/?q=(1)&p=2")).isTrue();
+        assertThat(globs.matches("https://a.at/aq=(1)")).isFalse();
+        assertThat(globs.matches("https://a.at/[x]")).isTrue();
+        assertThat(globs.matches("https://a.at/x")).isFalse();
+    }
+
+    @Test
+    void whenPatternHasManyWildcards_thenANonMatchingValueIsRejectedQuickly() {
+        var globs = GlobSet.compile(List.of("*a".repeat(30) + "*b", "x*y*x", "*ab*ab*"));
+        var value = "a".repeat(100_000);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertThat(globs.matches(value)).isFalse());
+        assertThat(globs.matches(value + "b")).isTrue();
+        assertThat(globs.matches("xyx")).isTrue();
+        assertThat(globs.matches("xy")).isFalse();
+        assertThat(globs.matches("aabab")).isTrue();
+        assertThat(globs.matches("aba")).isFalse();
+    }
+
+    @Test
+    void whenNoFilterOptions_thenNothingIsExcluded() {
+        assertThat(UrlFilter.compile(null)).isSameAs(UrlFilter.NONE);
+        assertThat(UrlFilter.compile(CrawlerFilterOptions.builder().build()).isEmpty()).isTrue();
+        assertThat(UrlFilter.NONE.excludes("https://www.google.com/")).isFalse();
+    }
+
+    @Test
+    void whenFilterIsSerialized_thenItIsDeserializedEqual() throws Exception {
+        var objectMapper = new ObjectMapper();
+
+        var deserialized = objectMapper.readValue(objectMapper.writeValueAsString(filter), UrlFilter.class);
+
+        assertThat(deserialized).isEqualTo(filter);
+        assertThat(deserialized.excludes("https://news.yahoo.com/2024/private")).isTrue();
+    }
+
+    @Test
+    void whenPatternsAreTooManyOrTooLong_thenCompilingFails() {
+        var tooMany = IntStream.range(0, 1001).mapToObj(i -> "https://a.at/" + i).toList();
+        var tooLong = List.of("https://a.at/" + "a".repeat(2048));
+
+        assertThatThrownBy(() -> UrlFilter.compile(CrawlerFilterOptions.builder().siteExclusionPatterns(tooMany).build()))
+                .isInstanceOf(InvalidFilterPatternException.class);
+        assertThatThrownBy(() -> UrlFilter.compile(CrawlerFilterOptions.builder().siteExclusionPatterns(tooLong).build()))
+                .isInstanceOf(InvalidFilterPatternException.class);
+        assertThatThrownBy(() -> UrlFilter.compile(CrawlerFilterOptions.builder()
+                .queryParameterExclusionPatterns(Collections.singletonList(null)).build()))
+                .isInstanceOf(InvalidFilterPatternException.class);
+    }
+}
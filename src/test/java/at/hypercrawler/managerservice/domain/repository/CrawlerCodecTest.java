@@ -0,0 +1,139 @@
+package at.hypercrawler.managerservice.domain.repository;
+
+import at.hypercrawler.managerservice.CrawlerTestDummyProvider;
+import at.hypercrawler.managerservice.domain.model.AddressSupplyRequest;
+import at.hypercrawler.managerservice.domain.model.CompactStartUrls;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerConfig;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CrawlerCodecTest {
+
+    private static final CodecRegistry CODEC_REGISTRY = CodecRegistries.withUuidRepresentation(
+            MongoClientSettings.getDefaultCodecRegistry(), UuidRepresentation.JAVA_LEGACY);
+
+    private final MappingMongoConverter converter = converter();
+
+    private final Instant now = Instant.ofEpochMilli(1_700_000_000_123L);
+
+    private final Crawler crawler = new Crawler(UUID.randomUUID(), "Test Crawler", CrawlerTestDummyProvider.crawlerConfig.get(),
+            CrawlerStatus.STARTED, now, now.plusSeconds(1), 3,
+            new AddressSupplyRequest(now, 2, now.plusSeconds(5), null), now.plusSeconds(60), "0123456789abcdef");
+
+    @Test
+    void whenCrawlerIsEncoded_thenDocumentMatchesTheMappingConverter() {
+        assertThat(encode(crawler)).isEqualTo(write(crawler));
+    }
+
+    @Test
+    void whenCrawlerWithoutOptionalPartsIsEncoded_thenDocumentMatchesTheMappingConverter() {
+        var config = CrawlerConfig.builder().indexPrefix("crawler_").startUrls(Arrays.asList("https://www.google.com", null))
+                .actions(List.of()).build();
+        var minimal = new Crawler(UUID.randomUUID(), "Test Crawler", config, CrawlerStatus.CREATED, now, now, 0,
+                null, null, null);
+
+        assertThat(encode(minimal)).isEqualTo(write(minimal));
+    }
+
+    @Test
+    void whenCrawlerWithCompactStartUrlsIsEncoded_thenDocumentMatchesTheMappingConverter() {
+        var config = CrawlerTestDummyProvider.crawlerConfig.get().toBuilder()
+                .startUrls(CompactStartUrls.of(List.of("https://www.google.com/", "https://www.bing.com/"), true))
+                .build();
+        var compact = crawler.withConfig(config);
+
+        assertThat(encode(compact)).isEqualTo(write(compact));
+        assertThat(encode(compact).getDocument("config").get("startUrls")).isInstanceOf(BsonBinary.class);
+        assertThat(decode(write(compact)).config().startUrls()).isInstanceOf(CompactStartUrls.class)
+                .containsExactly("https://www.google.com/", "https://www.bing.com/");
+        assertThat(read(encode(compact))).isEqualTo(compact);
+    }
+
+    @Test
+    void whenConverterWrittenDocumentIsDecoded_thenCrawlerIsEqual() {
+        assertThat(decode(write(crawler))).isEqualTo(crawler);
+        assertThat(decode(encode(crawler))).isEqualTo(crawler);
+    }
+
+    @Test
+    void whenProjectedDocumentIsDecoded_thenMissingFieldsAreEmpty() {
+        var projected = new BsonDocument("_id", new BsonBinary(crawler.id(), UuidRepresentation.JAVA_LEGACY))
+                .append("name", new BsonString("Test Crawler"))
+                .append("unknown", new BsonString("ignored"));
+
+        assertThat(decode(projected)).isEqualTo(new Crawler(crawler.id(), "Test Crawler", null, null, null, null, 0,
+                null, null, null));
+    }
+
+    @Test
+    void whenIdIsStoredWithJavaLegacyRepresentation_thenItIsDecoded() {
+        var legacy = new BsonDocument("_id", new BsonBinary(crawler.id(), UuidRepresentation.JAVA_LEGACY));
+
+        assertThat(decode(legacy).id()).isEqualTo(crawler.id());
+        assertThat(encode(crawler).getBinary("_id")).isEqualTo(legacy.getBinary("_id"));
+    }
+
+    @Test
+    void whenIdIsStoredWithStandardRepresentation_thenItIsDecoded() {
+        var standard = new BsonDocument("_id", new BsonBinary(crawler.id(), UuidRepresentation.STANDARD));
+
+        assertThat(decode(standard).id()).isEqualTo(crawler.id());
+    }
+
+    private BsonDocument encode(Crawler crawler) {
+        var document = new BsonDocument();
+        CrawlerCodec.INSTANCE.encode(new BsonDocumentWriter(document), crawler, EncoderContext.builder().build());
+        return document;
+    }
+
+    private Crawler decode(BsonDocument document) {
+        return CrawlerCodec.INSTANCE.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+    private Crawler read(BsonDocument document) {
+        return converter.read(Crawler.class, CODEC_REGISTRY.get(Document.class)
+                .decode(new BsonDocumentReader(document), DecoderContext.builder().build()));
+    }
+
+    private BsonDocument write(Crawler crawler) {
+        var document = new Document();
+        converter.write(crawler, document);
+        return document.toBsonDocument(BsonDocument.class, CODEC_REGISTRY);
+    }
+
+    private static MappingMongoConverter converter() {
+        var conversions = new MongoCustomConversions(List.of());
+        var mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        var converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
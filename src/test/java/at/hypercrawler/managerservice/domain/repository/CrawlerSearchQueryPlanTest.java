@@ -0,0 +1,115 @@
+package at.hypercrawler.managerservice.domain.repository;
+
+import at.hypercrawler.managerservice.CrawlerTestDummyProvider;
+import at.hypercrawler.managerservice.domain.model.Crawler;
+import at.hypercrawler.managerservice.domain.model.CrawlerSearch;
+import at.hypercrawler.managerservice.domain.model.CrawlerStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with {@code explain} that every search filter is answered from an index instead of a collection scan.
+ */
+@DataMongoTest
+@Testcontainers
+class CrawlerSearchQueryPlanTest {
+    @Container
+    private static final MongoDBContainer mongoContainer =
+      new MongoDBContainer(DockerImageName.parse("mongo:latest"));
+
+    private static final List<String> SEARCH_INDEXES =
+            List.of("updatedAt_id", "status_updatedAt_id", "name_updatedAt_id", "indexPrefix_updatedAt_id", "createdAt_id");
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @DynamicPropertySource
+    static void mongoDbProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoContainer::getReplicaSetUrl);
+    }
+
+    @BeforeEach
+    void insertCrawlers() {
+        var statuses = CrawlerStatus.values();
+        var crawlers = IntStream.range(0, 300).mapToObj(i -> {
+            var config = CrawlerTestDummyProvider.crawlerConfig.get().toBuilder().indexPrefix("plan_" + i % 10).build();
+            return new Crawler("plan-crawler-" + i, statuses[i % statuses.length], config);
+        }).toList();
+        reactiveMongoTemplate.insertAll(crawlers).then().block();
+
+        Mono.defer(() -> reactiveMongoTemplate.indexOps(Crawler.class).getIndexInfo().map(IndexInfo::getName).collectList())
+                .filter(names -> names.containsAll(SEARCH_INDEXES))
+                .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(100)))
+                .block(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void whenSearchingByStatus_thenStatusIndexIsUsedWithoutSorting() {
+        assertIndexIsUsedWithoutSorting(CrawlerSearch.builder().status(CrawlerStatus.STARTED).build(), "status_updatedAt_id");
+    }
+
+    @Test
+    void whenSearchingByIndexPrefix_thenIndexPrefixIndexIsUsedWithoutSorting() {
+        assertIndexIsUsedWithoutSorting(CrawlerSearch.builder().indexPrefix("plan_3").build(), "indexPrefix_updatedAt_id");
+    }
+
+    @Test
+    void whenSearchingByNamePrefix_thenNameIndexIsUsedWithoutSorting() {
+        assertIndexIsUsedWithoutSorting(CrawlerSearch.builder().namePrefix("plan-crawler-1").build(), "name_updatedAt_id");
+    }
+
+    @Test
+    void whenSearchingByCreationTime_thenCreationIndexIsUsedWithoutSorting() {
+        var now = Instant.now();
+        assertIndexIsUsedWithoutSorting(CrawlerSearch.builder().createdAfter(now.minusSeconds(60)).build(), "createdAt_id");
+        assertIndexIsUsedWithoutSorting(CrawlerSearch.builder().createdAfter(now.minusSeconds(60))
+                .createdBefore(now.plusSeconds(60)).build(), "createdAt_id");
+    }
+
+    @Test
+    void whenSearchingByUpdateTimeOrNothing_thenUpdateIndexIsUsedWithoutSorting() {
+        assertIndexIsUsedWithoutSorting(CrawlerSearch.builder().updatedBefore(Instant.now().plusSeconds(60)).build(),
+                "updatedAt_id");
+        assertIndexIsUsedWithoutSorting(CrawlerSearch.ALL, "updatedAt_id");
+    }
+
+    private void assertIndexIsUsedWithoutSorting(CrawlerSearch search, String index) {
+        assertThat(winningPlan(search)).contains("IXSCAN", "\"indexName\": \"" + index + "\"")
+                .doesNotContain("COLLSCAN", "\"SORT\"");
+    }
+
+    private String winningPlan(CrawlerSearch search) {
+        Query query = CrawlerManagerRepositoryCustomImpl.searchQuery(search, null);
+        var entity = reactiveMongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Crawler.class);
+        var queryMapper = new QueryMapper(reactiveMongoTemplate.getConverter());
+        var filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        var sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+
+        var explained = reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(Crawler.class))
+                .flatMap(collection -> Mono.from(collection.find(filter).sort(sort).explain()))
+                .block();
+        assertThat(explained).isNotNull();
+        return explained.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+    }
+}
@@ -0,0 +1,56 @@
+package at.hypercrawler.managerservice.domain.service;
+
+import at.hypercrawler.managerservice.CrawlerTestDummyProvider;
+import at.hypercrawler.managerservice.domain.exception.InvalidStartUrlException;
+import at.hypercrawler.managerservice.domain.model.CrawlerFilterOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StartUrlCanonicalizerTest {
+
+    private final StartUrlCanonicalizer canonicalizer = new StartUrlCanonicalizer();
+
+    private final Predicate<String> noExclusions = parameter -> false;
+
+    @ParameterizedTest
+    @CsvSource({
+            "https://www.google.com, https://www.google.com/",
+            "HTTPS://WWW.Google.COM/Search, https://www.google.com/Search",
+            "http://example.com:80/a, http://example.com/a",
+            "https://example.com:443/a, https://example.com/a",
+            "https://example.com:8443/a, https://example.com:8443/a",
+            "https://example.com/a#section, https://example.com/a",
+            "https://example.com/a?b=2&a=1, https://example.com/a?a=1&b=2",
+            "https://example.com/a?a=2&a=1, https://example.com/a?a=1&a=2",
+            "' https://example.com/a ', https://example.com/a"
+    })
+    void whenStartUrlIsCanonicalized_thenCanonicalFormIsReturned(String startUrl, String expected) {
+        assertThat(canonicalizer.canonicalize(startUrl, noExclusions)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"www.google.com", "ftp://example.com/a", "https:///a", "https://exa mple.com"})
+    void whenStartUrlIsInvalid_thenExceptionIsThrown(String startUrl) {
+        assertThatThrownBy(() -> canonicalizer.canonicalize(startUrl, noExclusions))
+                .isInstanceOf(InvalidStartUrlException.class);
+    }
+
+    @Test
+    void whenConfigIsCanonicalized_thenDuplicatesAndExcludedParametersAreRemoved() {
+        var filterOptions = CrawlerFilterOptions.builder().queryParameterExclusionPatterns(List.of("utm_*", "ref")).build();
+        var config = CrawlerTestDummyProvider.crawlerConfig.get().toBuilder().filterOptions(filterOptions)
+                .startUrls(List.of("https://example.com/a?utm_source=x&id=1", "https://EXAMPLE.com/a?id=1&ref=y",
+                        "https://example.com/b")).build();
+
+        assertThat(canonicalizer.canonicalize(config).startUrls())
+                .containsExactly("https://example.com/a?id=1", "https://example.com/b");
+    }
+}
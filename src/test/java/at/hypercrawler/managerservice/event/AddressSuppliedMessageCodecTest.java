@@ -0,0 +1,140 @@
+package at.hypercrawler.managerservice.event;
+
+import at.hypercrawler.managerservice.CrawlerTestProperties;
+import at.hypercrawler.managerservice.domain.model.CrawlerFilterOptions;
+import at.hypercrawler.managerservice.domain.model.UrlFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AddressSuppliedMessageCodecTest {
+
+    private final UUID crawlerId = UUID.randomUUID();
+
+    private final List<String> addresses = IntStream.range(0, 1000)
+            .mapToObj(i -> "https://www." + (i % 3 == 0 ? "google.com" : "bing.com") + "/search/" + i + "?q=" + i)
+            .toList();
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, 1024})
+    void whenMessageIsEncoded_thenItIsDecodedWithSortedAddresses(int compressionThreshold) {
+        var codec = new AddressSuppliedMessageCodec(compressionThreshold);
+        var message = new AddressSuppliedMessage(crawlerId, addresses, 42, false);
+
+        var decoded = codec.decode(codec.encode(message));
+
+        assertThat(decoded.crawlerId()).isEqualTo(crawlerId);
+        assertThat(decoded.sequence()).isEqualTo(42);
+        assertThat(decoded.last()).isFalse();
+        assertThat(decoded.address()).isSorted().containsExactlyInAnyOrderElementsOf(addresses);
+    }
+
+    @Test
+    void whenAddressesAreUnicodeOrRepeated_thenTheyAreDecodedUnchanged() {
+        var codec = new AddressSuppliedMessageCodec(-1);
+        var message = new AddressSuppliedMessage(crawlerId,
+                List.of("https://www.xn--mnchen-3ya.de/straße", "https://www.xn--mnchen-3ya.de/straße", "https://a.at/"),
+                0, true);
+
+        assertThat(codec.decode(codec.encode(message)).address()).containsExactly("https://a.at/",
+                "https://www.xn--mnchen-3ya.de/straße", "https://www.xn--mnchen-3ya.de/straße");
+    }
+
+    @Test
+    void whenNoAddresses_thenEndOfSeedIsDecoded() {
+        var codec = new AddressSuppliedMessageCodec(0);
+        var message = new AddressSuppliedMessage(crawlerId, List.of());
+
+        assertThat(codec.decode(codec.encode(message))).isEqualTo(message);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void whenMessageHasFilter_thenItIsDecodedWithTheFilter(int compressionThreshold) {
+        var codec = new AddressSuppliedMessageCodec(compressionThreshold);
+        var filter = UrlFilter.compile(CrawlerFilterOptions.builder()
+                .siteExclusionPatterns(List.of("https://www.google.com/", "https://www.bing.com/*", "*/private/*"))
+                .queryParameterExclusionPatterns(List.of("utm_*", "sessionid")).build());
+        var message = new AddressSuppliedMessage(crawlerId, List.of("https://a.at/1"), 1, false, filter);
+
+        var decoded = codec.decode(codec.encode(message));
+
+        assertThat(decoded).isEqualTo(message);
+        assertThat(decoded.filter().excludes("https://a.at/private/1")).isTrue();
+        assertThat(decoded.filter().excludesParameter("utm_source")).isTrue();
+    }
+
+    @Test
+    void whenAddressesShareHosts_thenEncodingIsSmallerThanJson() throws Exception {
+        var message = new AddressSuppliedMessage(crawlerId, addresses, 0, true);
+        int json = new ObjectMapper().writeValueAsBytes(message).length;
+
+        int frontCoded = new AddressSuppliedMessageCodec(-1).encode(message).length;
+        int compressed = new AddressSuppliedMessageCodec(0).encode(message).length;
+
+        assertThat(frontCoded).isLessThan(json / 2);
+        assertThat(compressed).isLessThan(frontCoded);
+    }
+
+    @Test
+    void whenEncodingIsTruncated_thenDecodingFails() {
+        var codec = new AddressSuppliedMessageCodec(0);
+        var encoded = codec.encode(new AddressSuppliedMessage(crawlerId, addresses, 0, true));
+
+        for (int length = 0; length < encoded.length; length += 97) {
+            var truncated = Arrays.copyOf(encoded, length);
+            assertThatThrownBy(() -> codec.decode(truncated)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void whenContentTypeIsBinary_thenConverterEncodesAndDecodes() {
+        var converter = converter();
+        var message = new AddressSuppliedMessage(crawlerId, List.of("https://a.at/1", "https://a.at/2"), 3, true);
+        var headers = new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, AddressSuppliedMessageCodec.MIME_TYPE));
+
+        var converted = converter.toMessage(message, headers);
+
+        assertThat(converted).isNotNull();
+        assertThat(converted.getPayload()).isInstanceOf(byte[].class);
+        assertThat(converter.fromMessage(converted, AddressSuppliedMessage.class)).isEqualTo(message);
+    }
+
+    @Test
+    void whenContentTypeIsJson_thenConverterLeavesTheMessageAlone() {
+        var converter = converter();
+        var message = new AddressSuppliedMessage(crawlerId, List.of("https://a.at/1"));
+        var headers = new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON));
+
+        assertThat(converter.toMessage(message, headers)).isNull();
+        assertThat(converter.toMessage(message, null)).isNull();
+    }
+
+    @Test
+    void whenPayloadIsCorrupt_thenConversionFails() {
+        var corrupt = MessageBuilder.withPayload(new byte[]{9, 0})
+                .setHeader(MessageHeaders.CONTENT_TYPE, AddressSuppliedMessageCodec.MIME_TYPE).build();
+
+        assertThatThrownBy(() -> converter().fromMessage(corrupt, AddressSuppliedMessage.class))
+                .isInstanceOf(MessageConversionException.class);
+    }
+
+    private static AddressSuppliedMessageConverter converter() {
+        return new AddressSuppliedMessageConverter(CrawlerTestProperties.with(Map.of(
+                "publisher.content-type", "application/x-address-supplied", "publisher.compression-threshold", 0)));
+    }
+}
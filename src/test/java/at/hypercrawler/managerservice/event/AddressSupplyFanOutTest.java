@@ -0,0 +1,54 @@
+package at.hypercrawler.managerservice.event;
+
+import at.hypercrawler.managerservice.CrawlerTestProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AddressSupplyFanOutTest {
+
+    private final UUID crawlerId = UUID.randomUUID();
+
+    private AddressSupplyFanOut fanOut(int maxUrls, long maxBytes) {
+        return new AddressSupplyFanOut(CrawlerTestProperties.with(Map.of("fan-out.max-urls-per-chunk", maxUrls,
+                "fan-out.max-bytes-per-chunk", maxBytes, "fan-out.publish-concurrency", 1)));
+    }
+
+    @Test
+    void whenAddressesExceedChunkSize_thenChunksAreNumberedAndLastIsMarked() {
+        var addresses = Flux.just("https://a.at/1", "https://a.at/2", "https://a.at/3", "https://a.at/4", "https://a.at/5");
+
+        StepVerifier.create(fanOut(2, Long.MAX_VALUE).chunk(crawlerId, addresses))
+                .expectNext(new AddressSuppliedMessage(crawlerId, List.of("https://a.at/1", "https://a.at/2"), 0, false))
+                .expectNext(new AddressSuppliedMessage(crawlerId, List.of("https://a.at/3", "https://a.at/4"), 1, false))
+                .expectNext(new AddressSuppliedMessage(crawlerId, List.of("https://a.at/5"), 2, true))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenAddressesExceedChunkBytes_thenChunksStayWithinBytes() {
+        var addresses = Flux.range(0, 100).map(i -> "https://example.com/" + i);
+
+        StepVerifier.create(fanOut(1000, 64).chunk(crawlerId, addresses).collectList())
+                .assertNext(messages -> {
+                    assertThat(messages).allMatch(message -> message.address().stream()
+                            .mapToInt(String::length).sum() <= 64);
+                    assertThat(messages).flatMap(AddressSuppliedMessage::address).hasSize(100);
+                    assertThat(messages).filteredOn(AddressSuppliedMessage::last).hasSize(1);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void whenNoAddresses_thenOnlyEndOfSeedIsSent() {
+        StepVerifier.create(fanOut(2, Long.MAX_VALUE).chunk(crawlerId, Flux.empty()))
+                .expectNext(new AddressSuppliedMessage(crawlerId, List.of(), 0, true))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,106 @@
+package at.hypercrawler.managerservice.event;
+
+import at.hypercrawler.managerservice.CrawlerTestProperties;
+import at.hypercrawler.managerservice.domain.model.CrawlerFilterOptions;
+import at.hypercrawler.managerservice.domain.model.UrlFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AddressSupplyPublisherTest {
+
+    private static final UUID CRAWLER_ID = UUID.randomUUID();
+
+    private final StreamBridge streamBridge = mock(StreamBridge.class);
+    private final CountDownLatch brokerAvailable = new CountDownLatch(1);
+
+    private AddressSupplyPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        brokerAvailable.countDown();
+        publisher.stop();
+    }
+
+    @Test
+    void whenBrokerAcceptsSends_thenEveryChunkIsSent() {
+        when(streamBridge.send(eq(AddressSupplyPublisher.SUPPLY_ADDRESS_OUT), any(), any(MimeType.class))).thenReturn(true);
+        publisher = publisher(1024);
+
+        StepVerifier.create(publisher.publish(CRAWLER_ID, UrlFilter.NONE, startUrls(20))).expectComplete().verify(Duration.ofSeconds(5));
+        verify(streamBridge, times(20)).send(eq(AddressSupplyPublisher.SUPPLY_ADDRESS_OUT), any(), any(MimeType.class));
+    }
+
+    @Test
+    void whenFilterExcludesAddresses_thenTheyAreNotSentAndTheFilterGoesWithEveryChunk() {
+        when(streamBridge.send(eq(AddressSupplyPublisher.SUPPLY_ADDRESS_OUT), any(), any(MimeType.class))).thenReturn(true);
+        publisher = publisher(1024);
+        var filter = UrlFilter.compile(CrawlerFilterOptions.builder()
+                .siteExclusionPatterns(List.of("https://www.google.com/1*", "https://www.google.com/5")).build());
+
+        StepVerifier.create(publisher.publish(CRAWLER_ID, filter, startUrls(20))).expectComplete().verify(Duration.ofSeconds(5));
+
+        var sent = ArgumentCaptor.forClass(Message.class);
+        verify(streamBridge, times(8)).send(eq(AddressSupplyPublisher.SUPPLY_ADDRESS_OUT), sent.capture(), any(MimeType.class));
+        assertThat(sent.getAllValues()).map(message -> (AddressSuppliedMessage) message.getPayload())
+                .allMatch(message -> filter.equals(message.filter()))
+                .flatMap(AddressSuppliedMessage::address)
+                .containsExactlyInAnyOrder("https://www.google.com/0", "https://www.google.com/2", "https://www.google.com/3",
+                        "https://www.google.com/4", "https://www.google.com/6", "https://www.google.com/7",
+                        "https://www.google.com/8", "https://www.google.com/9");
+    }
+
+    @Test
+    void whenBrokerBlocksSends_thenPublishingFailsFastOnceTheQueueIsFull() {
+        when(streamBridge.send(eq(AddressSupplyPublisher.SUPPLY_ADDRESS_OUT), any(), any(MimeType.class))).thenAnswer(invocation -> {
+            brokerAvailable.await();
+            return true;
+        });
+        publisher = publisher(1);
+
+        StepVerifier.create(publisher.publish(CRAWLER_ID, UrlFilter.NONE, startUrls(20)))
+                .expectErrorMatches(e -> e instanceof AddressSupplyPublishException
+                        && e.getMessage().endsWith("publish queue is full"))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private AddressSupplyPublisher publisher(int queueCapacity) {
+        var properties = CrawlerTestProperties.with(Map.of(
+                "fan-out.max-urls-per-chunk", 1,
+                "fan-out.publish-concurrency", 16,
+                "outbox.await-confirms", false,
+                "publisher.queue-capacity", queueCapacity,
+                "publisher.batch-size", 1,
+                "publisher.batch-linger", "1ms",
+                "publisher.threads", 1,
+                "publisher.compression-threshold", -1));
+        var addressSupplyPublisher = new AddressSupplyPublisher(streamBridge, new AddressSupplyFanOut(properties),
+                properties, new SimpleMeterRegistry());
+        addressSupplyPublisher.start();
+        return addressSupplyPublisher;
+    }
+
+    private static Flux<String> startUrls(int startUrls) {
+        return Flux.range(0, startUrls).map(i -> "https://www.google.com/" + i);
+    }
+}
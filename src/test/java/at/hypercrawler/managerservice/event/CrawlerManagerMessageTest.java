@@ -1,6 +1,7 @@
 package at.hypercrawler.managerservice.event;
 
 import at.hypercrawler.managerservice.CrawlerTestDummyProvider;
+import at.hypercrawler.managerservice.domain.model.UrlFilter;
 import at.hypercrawler.managerservice.web.dto.CrawlerResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -19,7 +20,6 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.List;
 import java.util.Objects;
 
@@ -46,6 +46,8 @@ class CrawlerManagerMessageTest {
     @DynamicPropertySource
     static void mongoDbProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.data.mongodb.uri", mongoContainer::getReplicaSetUrl);
+        // the test binder never confirms a publish
+        registry.add("hypercrawler.manager.outbox.await-confirms", () -> false);
     }
 
 
@@ -61,8 +63,10 @@ class CrawlerManagerMessageTest {
         webTestClient.put().uri("/crawlers/" + crawlerResponse.id() + "/run").exchange().expectStatus().isOk();
 
 
-        assertThat(objectMapper.readValue(output.receive().getPayload(), AddressSuppliedMessage.class))
-                .isEqualTo(new AddressSuppliedMessage(crawlerResponse.id(), List.of(new URL(crawlerResponse.config().startUrls().get(0)), new URL(crawlerResponse.config().startUrls().get(1)))));
+        // addresses are relayed asynchronously once the crawler has been started, google is excluded by the dummy filter
+        var filter = UrlFilter.compile(CrawlerTestDummyProvider.crawlerFilterOptions.get());
+        assertThat(objectMapper.readValue(output.receive(5000).getPayload(), AddressSuppliedMessage.class))
+                .isEqualTo(new AddressSuppliedMessage(crawlerResponse.id(), List.of("https://www.bing.com/"), 0, true, filter));
     }
 
 }
@@ -24,10 +24,11 @@ class CrawlerResponseJsonTest {
           throws Exception {
     var crawler =
             new CrawlerResponse(UUID.randomUUID(), "Test Crawler", CrawlerStatus.CREATED, CrawlerTestDummyProvider.crawlerConfig.get(),
-                    Instant.now(), Instant.now());
+                    Instant.now(), Instant.now(), 3);
     var jsonContent = json.write(crawler);
     assertThat(jsonContent).extractingJsonPathStringValue("@.id").isEqualTo(crawler.id().toString());
     assertThat(jsonContent).extractingJsonPathStringValue("@.name").isEqualTo(crawler.name());
+    assertThat(jsonContent).extractingJsonPathNumberValue("@.version").isEqualTo(crawler.version());
     assertThat(jsonContent).extractingJsonPathStringValue("@.status")
             .isEqualTo(crawler.status().toString());
 
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
@@ -54,9 +55,10 @@ class CrawlerConfigValiationTest {
         assertThat(violations).isEmpty();
     }
 
-    @Test
-    void whenScheduleDoesntMatchPattern_thenValidationFails() {
-        var crawlerConfig = crawlerConfigBuilder.get().schedule("invalid cron").build();
+    @ParameterizedTest
+    @ValueSource(strings = {"invalid cron", "99 99 * * *", "0 0 12 * * ? 1900", "0 0 12 31 2 FOO"})
+    void whenScheduleDoesntMatchPattern_thenValidationFails(String schedule) {
+        var crawlerConfig = crawlerConfigBuilder.get().schedule(schedule).build();
         var crawlerRequest = new CrawlerRequest("Test Crawler", crawlerConfig);
         Set<ConstraintViolation<CrawlerRequest>> violations = validator.validate(crawlerRequest);
         assertThat(violations).isNotEmpty().hasSize(1).extracting(ConstraintViolation::getMessage)
@@ -320,4 +322,77 @@ class CrawlerConfigValiationTest {
                 .containsExactly("Action could not be null");
     }
 
+    @Test
+    void whenRequestOptionRequestTimeoutIsZero_thenValidationFails() {
+        var requestOptions = CrawlerRequestOptions.builder().requestTimeout(0).retries(1).build();
+        var crawlerConfig = crawlerConfigBuilder.get().requestOptions(requestOptions).build();
+        var crawlerRequest = new CrawlerRequest("Test Crawler", crawlerConfig);
+        Set<ConstraintViolation<CrawlerRequest>> violations = validator.validate(crawlerRequest);
+        assertThat(violations).isNotEmpty().hasSize(1).extracting(ConstraintViolation::getMessage)
+                .containsExactly("Request timeout must be greater than 0");
+    }
+
+    @Test
+    void whenAddedStartUrlIsWhitespace_thenValidationFails() {
+        var startUrls = Arrays.asList("https://www.google.com", " \t");
+        var crawlerConfig = crawlerConfigBuilder.get().startUrls(startUrls).build();
+        var crawlerRequest = new CrawlerRequest("Test Crawler", crawlerConfig);
+        Set<ConstraintViolation<CrawlerRequest>> violations = validator.validate(crawlerRequest);
+        assertThat(violations).isNotEmpty().hasSize(1).extracting(ConstraintViolation::getMessage)
+                .containsExactly("Start-Url could not be blank");
+    }
+
+    @Test
+    void whenActionIndexNameIsBlank_thenValidationFails() {
+        var action = CrawlerTestDummyProvider.crawlerAction.get();
+        var actions = Collections.singletonList(CrawlerAction.builder().indexName(" ").pathsToMatch(action.pathsToMatch()).build());
+        var crawlerConfig = crawlerConfigBuilder.get().actions(actions).build();
+        var crawlerRequest = new CrawlerRequest("Test Crawler", crawlerConfig);
+        Set<ConstraintViolation<CrawlerRequest>> violations = validator.validate(crawlerRequest);
+        assertThat(violations).isNotEmpty().hasSize(1).extracting(ConstraintViolation::getMessage)
+                .containsExactly("Index name could not be blank");
+    }
+
+    @Test
+    void whenActionPathsToMatchIsNull_thenValidationFails() {
+        var actions = Collections.singletonList(CrawlerAction.builder().indexName("test_index").build());
+        var crawlerConfig = crawlerConfigBuilder.get().actions(actions).build();
+        var crawlerRequest = new CrawlerRequest("Test Crawler", crawlerConfig);
+        Set<ConstraintViolation<CrawlerRequest>> violations = validator.validate(crawlerRequest);
+        assertThat(violations).isNotEmpty().hasSize(1).extracting(ConstraintViolation::getMessage)
+                .containsExactly("Paths to match during crawl could not be null");
+    }
+
+    @Test
+    void whenAddedActionElementsAreInvalid_thenEveryElementIsReported() {
+        var actions = Collections.singletonList(CrawlerAction.builder().indexName("test_index")
+                .pathsToMatch(Arrays.asList("http://www.foufos.gr/*", null))
+                .selectorsToMatch(Arrays.asList("", ".products"))
+                .contentTypesToMatch(Arrays.asList(SupportedContentMediaType.HTML, null))
+                .build());
+        var crawlerConfig = crawlerConfigBuilder.get().actions(actions).build();
+        var crawlerRequest = new CrawlerRequest("Test Crawler", crawlerConfig);
+        Set<ConstraintViolation<CrawlerRequest>> violations = validator.validate(crawlerRequest);
+        assertThat(violations).extracting(ConstraintViolation::getMessage).containsExactlyInAnyOrder(
+                "Path to match could not be null",
+                "Selectors to match during crawl could not be blank",
+                "Content type to match during crawl could not be null");
+        assertThat(violations).extracting(violation -> violation.getPropertyPath().toString()).containsExactlyInAnyOrder(
+                "config.actions[0].pathsToMatch[1]",
+                "config.actions[0].selectorsToMatch[0]",
+                "config.actions[0].contentTypesToMatch[1]");
+    }
+
+    @Test
+    void whenManyStartUrlsContainBlankOnes_thenEachIsReportedWithItsIndex() {
+        var startUrls = new ArrayList<>(Collections.nCopies(100_000, "https://www.google.com"));
+        startUrls.set(17, "");
+        startUrls.set(99_999, null);
+        var crawlerConfig = crawlerConfigBuilder.get().startUrls(startUrls).build();
+        var crawlerRequest = new CrawlerRequest("Test Crawler", crawlerConfig);
+        Set<ConstraintViolation<CrawlerRequest>> violations = validator.validate(crawlerRequest);
+        assertThat(violations).extracting(violation -> violation.getPropertyPath().toString())
+                .containsExactlyInAnyOrder("config.startUrls[17]", "config.startUrls[99999]");
+    }
+
 }